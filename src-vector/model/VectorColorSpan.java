@@ -0,0 +1,118 @@
+package model;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Represents the color matrix of an AColorTransform applied to a span of packed pixels with the
+ * incubating Vector API, as many pixels at a time as the widest vector of the machine holds.
+ *
+ * <p>The channels of the pixels are split into lanes, and each weighted sum gathers the same
+ * fixed-point products from the tables of WeightedSum and rounds them in the same way, so the
+ * new pixels are exactly those of the scalar loop. Where the fraction of some sum is too close to
+ * one half for the fixed-point sum to be trusted, the pixels of those lanes are computed by
+ * WeightedSum.apply instead. This class needs the jdk.incubator.vector module to build and to
+ * run, so it is only loaded through IColorSpan.load. Implements IColorSpan.
+ */
+final class VectorColorSpan implements IColorSpan {
+
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  @Override
+  public boolean transformSpan(WeightedSum[] rows, boolean sameRows, int[] source,
+      int sourceOffset, int[] destination, int destinationOffset, int length) {
+    int lanes = SPECIES.length();
+    int sums = sameRows ? 1 : 3;
+    int[][][] tables = new int[sums][][];
+    for (int c = 0; c < sums; c++) {
+      tables[c] = rows[c].fixedProducts();
+      if (tables[c] == null) {
+        return false;
+      }
+    }
+    if (length < lanes) {
+      return false;
+    }
+
+    int[] red = new int[lanes];
+    int[] green = new int[lanes];
+    int[] blue = new int[lanes];
+    int j = 0;
+    for (; j <= length - lanes; j += lanes) {
+      IntVector rgb = IntVector.fromArray(SPECIES, source, sourceOffset + j);
+      rgb.lanewise(VectorOperators.LSHR, 16).and(0xFF).intoArray(red, 0);
+      rgb.lanewise(VectorOperators.LSHR, 8).and(0xFF).intoArray(green, 0);
+      rgb.and(0xFF).intoArray(blue, 0);
+
+      IntVector packed = IntVector.zero(SPECIES);
+      boolean exact = true;
+      for (int c = 0; c < sums && exact; c++) {
+        IntVector sum = IntVector.fromArray(SPECIES, tables[c][0], 0, red, 0)
+            .add(IntVector.fromArray(SPECIES, tables[c][1], 0, green, 0))
+            .add(IntVector.fromArray(SPECIES, tables[c][2], 0, blue, 0))
+            .add(WeightedSum.HALF);
+        IntVector fraction = sum.and(WeightedSum.ONE - 1);
+        VectorMask<Integer> nearHalf = fraction.compare(VectorOperators.LE, WeightedSum.ERROR)
+            .or(fraction.compare(VectorOperators.GE, WeightedSum.ONE - WeightedSum.ERROR));
+        exact = !nearHalf.anyTrue();
+        IntVector value = sum.lanewise(VectorOperators.ASHR, WeightedSum.FRACTION_BITS)
+            .max(0).min(255);
+        packed = packed.lanewise(VectorOperators.LSHL, 8).or(value);
+      }
+      if (!exact) {
+        computeLanes(rows, sameRows, red, green, blue, destination, destinationOffset + j);
+      } else if (sameRows) {
+        packed.mul(0x010101).intoArray(destination, destinationOffset + j);
+      } else {
+        packed.intoArray(destination, destinationOffset + j);
+      }
+    }
+
+    // The pixels after the last whole vector
+    for (; j < length; j++) {
+      int rgb = source[sourceOffset + j];
+      destination[destinationOffset + j] = computePixel(rows, sameRows, (rgb >> 16) & 0xFF,
+          (rgb >> 8) & 0xFF, rgb & 0xFF);
+    }
+    return true;
+  }
+
+  /**
+   * Computes the pixels of one vector of lanes with WeightedSum.apply.
+   *
+   * @param rows        the weighted sums of the rows of the matrix
+   * @param sameRows    true if the three rows are the same
+   * @param red         the red channel of each lane
+   * @param green       the green channel of each lane
+   * @param blue        the blue channel of each lane
+   * @param destination the array the packed new pixels are written to
+   * @param offset      the index of the new pixel of the first lane
+   */
+  private static void computeLanes(WeightedSum[] rows, boolean sameRows, int[] red, int[] green,
+      int[] blue, int[] destination, int offset) {
+    for (int k = 0; k < red.length; k++) {
+      destination[offset + k] = computePixel(rows, sameRows, red[k], green[k], blue[k]);
+    }
+  }
+
+  /**
+   * Computes one new pixel with WeightedSum.apply, clamping each channel between 0 and 255.
+   *
+   * @param rows     the weighted sums of the rows of the matrix
+   * @param sameRows true if the three rows are the same
+   * @param r        the red channel of the pixel
+   * @param g        the green channel of the pixel
+   * @param b        the blue channel of the pixel
+   * @return the packed new pixel
+   */
+  private static int computePixel(WeightedSum[] rows, boolean sameRows, int r, int g, int b) {
+    int first = ARasterImage.clamp(rows[0].apply(r, g, b));
+    if (sameRows) {
+      return first * 0x010101;
+    }
+    return (first << 16) | (ARasterImage.clamp(rows[1].apply(r, g, b)) << 8)
+        | ARasterImage.clamp(rows[2].apply(r, g, b));
+  }
+}
@@ -9,6 +9,10 @@ import view.ImageProcessorView;
 /**
  * Represents an abstract class for creating a command that transforms an image. Extends the
  * ACommandController for the abstract constructor.
+ *
+ * <p>When the new image replaces the image it is computed from, and the model finds that no other
+ * name refers to that image or its pixels, the command may overwrite the image in place instead
+ * of creating a new one (see returnTransformedImageInPlace).
  */
 public abstract class ACommandTransform extends ACommandController {
 
@@ -34,7 +38,11 @@ public abstract class ACommandTransform extends ACommandController {
     imageNewName = scan.next();
 
     newImage = model.obtainImage(imageName);
-    newImage = returnTransformedImage(newImage);
+    if (isInPlace(imageName, imageNewName)) {
+      newImage = returnTransformedImageInPlace(newImage);
+    } else {
+      newImage = returnTransformedImage(newImage);
+    }
     model.addImage(imageNewName, newImage);
     view.writeMessage("\nTransformation performed.");
     System.out.println("\nTransformation performed.");
@@ -48,4 +56,28 @@ public abstract class ACommandTransform extends ACommandController {
    * @return a new transformed image
    */
   protected abstract IImage returnTransformedImage(IImage image);
+
+  /**
+   * Returns the transformed image when it replaces the given image, which nothing else refers
+   * to, so the transformation may overwrite it. By default a new image is created, as by
+   * returnTransformedImage.
+   *
+   * @param image the image to be transformed, which is no longer used once this returns
+   * @return the transformed image
+   */
+  protected IImage returnTransformedImageInPlace(IImage image) {
+    return returnTransformedImage(image);
+  }
+
+  /**
+   * Determines if a command may overwrite the image it transforms: the new image is stored under
+   * the name of the original image, and the model finds no other name that refers to it.
+   *
+   * @param imageName    the name of the image to be transformed
+   * @param imageNewName the name the transformed image is stored under
+   * @return true if the image may be overwritten
+   */
+  protected boolean isInPlace(String imageName, String imageNewName) {
+    return imageName.equals(imageNewName) && model.isExclusive(imageName);
+  }
 }
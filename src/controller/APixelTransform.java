@@ -0,0 +1,75 @@
+package controller;
+
+import model.DeferredImage;
+import model.ICommandTransformation;
+import model.IImage;
+import model.ImageProcessorModel;
+import model.PixelPipeline;
+import view.ImageProcessorView;
+
+/**
+ * Represents an abstract class for a command that changes each pixel of an image on its own,
+ * such as brighten, the component commands, sepia-transform and grayscale-transform. The
+ * transformed image is stored without computing it yet. When the next such command reads that
+ * image before anything else has, the commands are fused: their operations are added to one
+ * PixelPipeline that runs from the original image in a single pass, and the images in between
+ * are only computed if another command reads them later.
+ *
+ * <p>A command whose new image replaces its original image, which nothing else refers to, stores
+ * a pipeline that overwrites that image when it runs. Such a pipeline is never continued by a
+ * command that keeps its original image, since the original image changes once it runs.
+ * Extends ACommandTransform.
+ */
+public abstract class APixelTransform extends ACommandTransform {
+
+  /**
+   * Constructor for an APixelTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   */
+  public APixelTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view) {
+    super(controller, model, view);
+  }
+
+  @Override
+  protected IImage returnTransformedImage(IImage image) {
+    return transform(image, false);
+  }
+
+  @Override
+  protected IImage returnTransformedImageInPlace(IImage image) {
+    return transform(image, true);
+  }
+
+  /**
+   * Transforms an image without computing it yet, continuing the pipeline of the image if it has
+   * one that has not run.
+   *
+   * @param image   the image to be transformed
+   * @param inPlace true if the image is no longer used, so the pipeline may overwrite it
+   * @return the transformed image
+   */
+  private IImage transform(IImage image, boolean inPlace) {
+    ICommandTransformation operation = createOperation();
+    if (image instanceof DeferredImage) {
+      DeferredImage previous = (DeferredImage) image;
+      if (!previous.isComputed() && previous.getOperation() instanceof PixelPipeline
+          && (inPlace || !previous.isInPlace())) {
+        PixelPipeline pipeline = (PixelPipeline) previous.getOperation();
+        return new DeferredImage(previous.getSource(), pipeline.andThen(operation), inPlace);
+      }
+    }
+    return new DeferredImage(image, new PixelPipeline(operation), inPlace);
+  }
+
+  /**
+   * Creates the operation on each pixel of this command: a PointOperation, an ACommandGrayScale
+   * or an AColorTransform.
+   *
+   * @return the operation
+   */
+  protected abstract ICommandTransformation createOperation();
+}
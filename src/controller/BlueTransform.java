@@ -1,14 +1,14 @@
 package controller;
 
 import model.BlueGrayScale;
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import view.ImageProcessorView;
 
 /**
  * Represents the controller's operation to convert an image from the model to blue grey-scale.
  */
-public class BlueTransform extends ACommandTransform {
+public class BlueTransform extends APixelTransform {
 
   /**
    * Constructor for a BlueTransform.
@@ -23,7 +23,7 @@ public class BlueTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.grayScaleImage(new BlueGrayScale());
+  protected ICommandTransformation createOperation() {
+    return new BlueGrayScale();
   }
 }
@@ -1,17 +1,39 @@
 package controller;
 
-import model.BlurImageFilter;
+import java.io.IOException;
+import java.util.Scanner;
+import model.BinomialBlurFilter;
+import model.BorderMode;
+import model.DeferredImage;
+import model.GaussianBlurFilter;
+import model.ICommandTransformation;
 import model.IImage;
 import model.ImageProcessorModel;
+import model.IteratedBlurFilter;
 import view.ImageProcessorView;
 
 /**
- * Represents the controller's operation to blur an image from the model.
+ * Represents the controller's operation to blur an image from the model. The command is either
+ * {@code blur image-name dest-image-name}, which blurs with the 3 by 3 kernel, or
+ * {@code blur sigma image-name dest-image-name}, which applies a Gaussian blur with the given
+ * standard deviation.
+ *
+ * <p>The 3 by 3 blur is stored without computing it yet. A blur of an image that is itself such
+ * a stored blur, not read by anything since, is added to it as one operation on the original
+ * image, so the images in between are only computed if another command reads them. With a mirror
+ * or wrap border the blurs are combined into a single BinomialBlurFilter, so a run of blur
+ * commands costs two passes over the image whatever its length; with a zero or clamp border the
+ * passes run one after another, each overwriting the image of the pass before, so the edges come
+ * out exactly as blurring that many times. A blur whose new image replaces its original image,
+ * which nothing else refers to, overwrites that image when it runs, as for the commands on each
+ * pixel (see APixelTransform).
  */
 public class BlurTransform extends ACommandTransform {
 
+  private final BorderMode border;
+
   /**
-   * Constructor for a BlurTransform.
+   * First constructor for a BlurTransform. The pixels outside of the image count as zero.
    *
    * @param controller the image processor controller
    * @param model      the image processor model
@@ -19,11 +41,121 @@ public class BlurTransform extends ACommandTransform {
    */
   public BlurTransform(ImageProcessorController controller, ImageProcessorModel model,
       ImageProcessorView view) {
+    this(controller, model, view, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for a BlurTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   * @param border     how the blur reads the pixels outside of the image
+   */
+  public BlurTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view, BorderMode border) {
     super(controller, model, view);
+    this.border = border;
+  }
+
+  @Override
+  public void imageCommand(Scanner scan) throws IOException {
+    if (!scan.hasNextDouble()) {
+      super.imageCommand(scan);
+      return;
+    }
+
+    double sigma = scan.nextDouble();
+    String imageName = scan.next();
+    String imageNewName = scan.next();
+
+    IImage newImage = model.obtainImage(imageName);
+    GaussianBlurFilter filter = new GaussianBlurFilter(sigma, border);
+    if (isInPlace(imageName, imageNewName)) {
+      newImage = filter.performInPlace(newImage);
+    } else {
+      newImage = newImage.filterImage(filter);
+    }
+    model.addImage(imageNewName, newImage);
+    view.writeMessage("\nTransformation performed.");
+    System.out.println("\nTransformation performed.");
   }
 
   @Override
   protected IImage returnTransformedImage(IImage image) {
-    return image.filterImage(new BlurImageFilter());
+    return blurTimes(image, 1, border, false);
+  }
+
+  @Override
+  protected IImage returnTransformedImageInPlace(IImage image) {
+    return blurTimes(image, 1, border, true);
+  }
+
+  /**
+   * Blurs an image a number of times with the 3 by 3 blur, without computing it yet. If the image
+   * is the result of blurs with the same border mode that has not been computed, the blurs are
+   * added to them instead. With a mirror or wrap border the blurs are combined into one
+   * BinomialBlurFilter; with a zero or clamp border, where that kernel would treat the edges
+   * differently than the passes, they run one pass after another (IteratedBlurFilter).
+   *
+   * @param image   the image to be blurred
+   * @param count   the number of blurs
+   * @param border  how the pixels outside of the image are read
+   * @param inPlace true if the image is no longer used, so the blur may overwrite it
+   * @return the blurred image
+   * @throws IllegalArgumentException if the count is less than 1, or for a mirror or wrap border
+   *                                  more than the largest count of a BinomialBlurFilter
+   */
+  static IImage blurTimes(IImage image, int count, BorderMode border, boolean inPlace)
+      throws IllegalArgumentException {
+    boolean binomial = border == BorderMode.MIRROR || border == BorderMode.WRAP;
+    if (image instanceof DeferredImage) {
+      DeferredImage previous = (DeferredImage) image;
+      int previousCount = previousBlurs(previous, border, inPlace);
+      if (previousCount > 0 && (!binomial
+          || count <= BinomialBlurFilter.MAX_COUNT - previousCount)) {
+        return new DeferredImage(previous.getSource(),
+            blurs(previousCount + count, border, binomial), inPlace);
+      }
+    }
+    return new DeferredImage(image, blurs(count, border, binomial), inPlace);
+  }
+
+  /**
+   * Obtains the number of blurs of an image that is the result of blurs with a border mode which
+   * have not been computed, and that a blur may be added to.
+   *
+   * @param previous the image
+   * @param border   the border mode
+   * @param inPlace  true if the blur to be added may overwrite the image
+   * @return the number of blurs, or zero if no blur may be added to them
+   */
+  private static int previousBlurs(DeferredImage previous, BorderMode border, boolean inPlace) {
+    if (previous.isComputed() || (previous.isInPlace() && !inPlace)) {
+      return 0;
+    }
+    if (previous.getOperation() instanceof BinomialBlurFilter) {
+      BinomialBlurFilter blurs = (BinomialBlurFilter) previous.getOperation();
+      return blurs.getBorder() == border ? blurs.getCount() : 0;
+    }
+    if (previous.getOperation() instanceof IteratedBlurFilter) {
+      IteratedBlurFilter blurs = (IteratedBlurFilter) previous.getOperation();
+      return blurs.getBorder() == border ? blurs.getCount() : 0;
+    }
+    return 0;
+  }
+
+  /**
+   * Creates the operation that blurs a number of times with the 3 by 3 blur.
+   *
+   * @param count    the number of blurs
+   * @param border   how the pixels outside of the image are read
+   * @param binomial true to combine the blurs into one kernel, which gives the same edges as the
+   *                 passes only with a mirror or wrap border
+   * @return the operation
+   */
+  private static ICommandTransformation blurs(int count, BorderMode border, boolean binomial) {
+    return binomial ? new BinomialBlurFilter(count, border)
+        : new IteratedBlurFilter(count, border);
   }
 }
@@ -0,0 +1,64 @@
+package controller;
+
+import java.io.IOException;
+import java.util.Scanner;
+import model.BorderMode;
+import model.BoxBlurFilter;
+import model.IImage;
+import model.ImageProcessorModel;
+import view.ImageProcessorView;
+
+/**
+ * Represents a command for the script program to blur an image with a box of a given radius. The
+ * command is {@code box-blur radius image-name dest-image-name}, or
+ * {@code box-blur radius passes image-name dest-image-name} to stack several boxes.
+ */
+public class BoxBlurTransform extends ACommandTransform {
+
+  private final BorderMode border;
+
+  /**
+   * First constructor for a BoxBlurTransform. The pixels outside of the image count as zero.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   */
+  public BoxBlurTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view) {
+    this(controller, model, view, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for a BoxBlurTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   * @param border     how the blur reads the pixels outside of the image
+   */
+  public BoxBlurTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view, BorderMode border) {
+    super(controller, model, view);
+    this.border = border;
+  }
+
+  @Override
+  public void imageCommand(Scanner scan) throws IOException {
+    int radius = scan.nextInt();
+    int passes = scan.hasNextInt() ? scan.nextInt() : 1;
+    String imageName = scan.next();
+    String imageNewName = scan.next();
+
+    IImage newImage = model.obtainImage(imageName);
+    newImage = newImage.filterImage(new BoxBlurFilter(radius, passes, border));
+    model.addImage(imageNewName, newImage);
+    view.writeMessage("\nTransformation performed.");
+    System.out.println("\nTransformation performed.");
+  }
+
+  @Override
+  protected IImage returnTransformedImage(IImage image) {
+    return null;
+  }
+}
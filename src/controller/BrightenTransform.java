@@ -2,14 +2,17 @@ package controller;
 
 import java.io.IOException;
 import java.util.Scanner;
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
+import model.PointOperation;
 import view.ImageProcessorView;
 
 /**
  * Represents the controller's operation to brighten an image from the model.
  */
-public class BrightenTransform extends ACommandTransform {
+public class BrightenTransform extends APixelTransform {
+
+  private int increment;
 
   /**
    * Constructor for a BrightenTransform.
@@ -25,23 +28,12 @@ public class BrightenTransform extends ACommandTransform {
 
   @Override
   public void imageCommand(Scanner scan) throws IOException {
-    String imageNewName;
-    String imageName;
-    IImage newImage;
-
-    int increment = scan.nextInt();
-    imageName = scan.next();
-    imageNewName = scan.next();
-
-    newImage = model.obtainImage(imageName);
-    newImage = newImage.darkenBrightenImage(increment);
-    model.addImage(imageNewName, newImage);
-    view.writeMessage("\nTransformation performed.");
-    System.out.println("\nTransformation performed.");
+    increment = scan.nextInt();
+    super.imageCommand(scan);
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return null;
+  protected ICommandTransformation createOperation() {
+    return PointOperation.brighten(increment);
   }
 }
@@ -0,0 +1,104 @@
+package controller;
+
+import java.io.IOException;
+import java.util.Scanner;
+import model.BorderMode;
+import model.ConvolutionFilter;
+import model.ConvolutionKernel;
+import model.IImage;
+import model.ImageProcessorModel;
+import view.ImageProcessorView;
+
+/**
+ * Represents a command for the script program to filter an image with a kernel given in the
+ * script. The command is followed by the size of the kernel, its weights row by row, the name of
+ * the image and the name of the new image, for example
+ * {@code convolve 3 0 1/8 0 1/8 1/2 1/8 0 1/8 0 image-name dest-image-name}. A weight is either a
+ * decimal number or a fraction.
+ */
+public class ConvolveTransform extends ACommandTransform {
+
+  private final BorderMode border;
+
+  /**
+   * First constructor for a ConvolveTransform. The pixels outside of the image count as zero.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   */
+  public ConvolveTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view) {
+    this(controller, model, view, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for a ConvolveTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   * @param border     how the filter reads the pixels outside of the image
+   */
+  public ConvolveTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view, BorderMode border) {
+    super(controller, model, view);
+    this.border = border;
+  }
+
+  @Override
+  public void imageCommand(Scanner scan) throws IOException {
+    String imageNewName;
+    String imageName;
+    IImage newImage;
+
+    int size = scan.nextInt();
+    if (size < 1 || size % 2 == 0) {
+      throw new IllegalArgumentException("The kernel must have an odd size.");
+    }
+    double[][] kernel = new double[size][size];
+    for (int k = 0; k < size; k++) {
+      for (int l = 0; l < size; l++) {
+        kernel[k][l] = parseWeight(scan.next());
+      }
+    }
+    imageName = scan.next();
+    imageNewName = scan.next();
+
+    newImage = model.obtainImage(imageName);
+    ConvolutionFilter filter = new ConvolutionFilter(new ConvolutionKernel(kernel), border);
+    if (isInPlace(imageName, imageNewName)) {
+      newImage = filter.performInPlace(newImage);
+    } else {
+      newImage = newImage.filterImage(filter);
+    }
+    model.addImage(imageNewName, newImage);
+    view.writeMessage("\nTransformation performed.");
+    System.out.println("\nTransformation performed.");
+  }
+
+  /**
+   * Reads a weight of the kernel, written either as a decimal number or as a fraction.
+   *
+   * @param weight the weight as written in the script
+   * @return the value of the weight
+   * @throws IllegalArgumentException if the weight is not a number or a fraction
+   */
+  private static double parseWeight(String weight) throws IllegalArgumentException {
+    try {
+      int slash = weight.indexOf('/');
+      if (slash < 0) {
+        return Double.parseDouble(weight);
+      }
+      return Double.parseDouble(weight.substring(0, slash))
+          / Double.parseDouble(weight.substring(slash + 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid weight: " + weight);
+    }
+  }
+
+  @Override
+  protected IImage returnTransformedImage(IImage image) {
+    return null;
+  }
+}
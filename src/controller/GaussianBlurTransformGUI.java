@@ -0,0 +1,31 @@
+package controller;
+
+import model.GaussianBlurFilter;
+import model.IImage;
+import model.ImageProcessorModel;
+import view.IView;
+
+/**
+ * Represents a Gaussian blur transformation for an image processing model with a controller
+ * specially made for a GUI view. The view asks the user for the sigma of the blur.
+ */
+public class GaussianBlurTransformGUI extends ACommandGUITransform {
+
+  /**
+   * Public constructor for a GaussianBlurTransformGUI. Takes in a view, model,
+   * and the number of images added to
+   * the model.
+   *
+   * @param view     the image processing view.
+   * @param model    the image processing model.
+   * @param numImage the number of images stored in model thus far.
+   */
+  public GaussianBlurTransformGUI(IView view, ImageProcessorModel model, int numImage) {
+    super(view, model, numImage);
+  }
+
+  @Override
+  protected IImage returnTransformedImage(IImage image) {
+    return image.filterImage(new GaussianBlurFilter(view.blurSigma()));
+  }
+}
@@ -1,7 +1,7 @@
 package controller;
 
 import model.GreyScaleColorTransform;
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import view.ImageProcessorView;
 
@@ -9,7 +9,7 @@ import view.ImageProcessorView;
  * Represents the controller's operation to grey-scale an image from the model by matrix
  * operation.
  */
-public class GrayScaleTransform extends ACommandTransform {
+public class GrayScaleTransform extends APixelTransform {
   
   /**
    * Constructor for a GrayScaleTransform.
@@ -24,7 +24,7 @@ public class GrayScaleTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.colorTransform(new GreyScaleColorTransform());
+  protected ICommandTransformation createOperation() {
+    return new GreyScaleColorTransform();
   }
 }
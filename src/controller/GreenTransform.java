@@ -1,14 +1,14 @@
 package controller;
 
 import model.GreenGrayScale;
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import view.ImageProcessorView;
 
 /**
  * Represents the controller's operation to green grey-scale an image from the model.
  */
-public class GreenTransform extends ACommandTransform {
+public class GreenTransform extends APixelTransform {
 
   /**
    * Constructor for a GreenTransform.
@@ -23,7 +23,7 @@ public class GreenTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.grayScaleImage(new GreenGrayScale());
+  protected ICommandTransformation createOperation() {
+    return new GreenGrayScale();
   }
 }
@@ -0,0 +1,45 @@
+package controller;
+
+import java.io.IOException;
+import java.util.Scanner;
+import model.Histogram;
+import model.ImageProcessorModel;
+import utils.ImageUtil;
+import view.ImageProcessorView;
+
+/**
+ * Represents a histogram command or operation for an image processing controller. Saves how often
+ * each value appears in the channels and the intensity of an image with a specified name as a CSV
+ * file, without a GUI.
+ */
+public class HistogramCommand extends ACommandController {
+
+  /**
+   * Constructor for a HistogramCommand.
+   * @param controller the image processing controller
+   * @param model the image processing model
+   * @param view the image processing view
+   */
+  public HistogramCommand(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view) {
+    super(controller, model, view);
+  }
+
+  @Override
+  public void imageCommand(Scanner scan) throws IOException {
+    String pathName;
+    String imageName;
+
+    pathName = scan.next();
+    imageName = scan.next();
+
+    try {
+      ImageUtil.histogramToCSV(pathName, Histogram.of(model.obtainImage(imageName)));
+      view.writeMessage("\nHistogram saved.");
+    } catch (IllegalArgumentException e) {
+      view.writeMessage("\nPlease input a valid image name.");
+    } catch (IOException e) {
+      view.writeMessage("\nFile not found. Please enter a valid file path.");
+    }
+  }
+}
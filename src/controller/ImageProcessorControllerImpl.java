@@ -1,8 +1,11 @@
 package controller;
 
 import java.io.IOException;
+import java.util.Locale;
 import java.util.Scanner;
+import model.BorderMode;
 import model.ImageProcessorModel;
+import model.ParallelExecutor;
 import view.ImageProcessorView;
 
 /**
@@ -13,6 +16,29 @@ import view.ImageProcessorView;
  * controller allows the user to transform an image with commands such as blur, sharpen,
  * sepia-transform, and grayscale-transform.
  *
+ * <p>Runs of commands that change each pixel on its own are fused: each of them stores its
+ * result without computing it, and a command on such a result joins the same single pass over the
+ * original image (see APixelTransform). An image in between is only computed if a later command
+ * reads it.
+ *
+ * <p>Runs of blur commands are stored the same way and run as one operation on the original
+ * image. With the mirror or wrap border they are merged into a single blur with the equivalent
+ * binomial kernel; with the zero or clamp border the passes still run one after another, as
+ * merging them would change the pixels near the edges (see BlurTransform).
+ *
+ * <p>The command {@code border mode} chooses how the blur, blur-n, sharpen, box-blur and convolve
+ * commands after it read the pixels beyond the edges of an image: zero (the default), clamp,
+ * mirror or wrap.
+ *
+ * <p>The command {@code parallelism n} sets the number of threads the commands after it run on
+ * (see ParallelExecutor); their results do not depend on it.
+ *
+ * <p>The command {@code planar image-name dest-image-name} stores an image with one plane for
+ * each channel (see PlanarTransform).
+ *
+ * <p>The command {@code histogram file-path image-name} saves the histogram of an image as a CSV
+ * file (see Histogram).
+ *
  * <p>Communicates with view by transmitting messages about the user's transformations.
  * Also transmits error messages to the view about invalid user inputs.
  *
@@ -24,6 +50,7 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
   private final ImageProcessorModel model;
   private final Readable read;
   private final ImageProcessorView view;
+  private BorderMode border = BorderMode.ZERO;
 
   /**
    * Constructor for an ImageControllerImpl. Given a model, readable, and a view, returns an
@@ -68,6 +95,9 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
         case ("save"):
           new SaveCommand(this, model, view).imageCommand(scan);
           break;
+        case ("histogram"):
+          new HistogramCommand(this, model, view).imageCommand(scan);
+          break;
         case ("intensity-component"):
           new IntensityCommand(this, model, view).imageCommand(scan);
           break;
@@ -96,10 +126,19 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
           new BlueTransform(this, model, view).imageCommand(scan);
           break;
         case ("blur"):
-          new BlurTransform(this, model, view).imageCommand(scan);
+          new BlurTransform(this, model, view, border).imageCommand(scan);
+          break;
+        case ("blur-n"):
+          new IteratedBlurTransform(this, model, view, border).imageCommand(scan);
           break;
         case ("sharpen"):
-          new SharpenTransform(this, model, view).imageCommand(scan);
+          new SharpenTransform(this, model, view, border).imageCommand(scan);
+          break;
+        case ("box-blur"):
+          new BoxBlurTransform(this, model, view, border).imageCommand(scan);
+          break;
+        case ("convolve"):
+          new ConvolveTransform(this, model, view, border).imageCommand(scan);
           break;
         case ("sepia-transform"):
           new SepiaTransform(this, model, view).imageCommand(scan);
@@ -107,6 +146,15 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
         case ("grayscale-transform"):
           new GrayScaleTransform(this, model, view).imageCommand(scan);
           break;
+        case ("border"):
+          setBorder(scan.next());
+          break;
+        case ("parallelism"):
+          setParallelism(scan.next());
+          break;
+        case ("planar"):
+          new PlanarTransform(this, model, view).imageCommand(scan);
+          break;
         case ("downscale"):
           new DownScaleImage(this, model, view).imageCommand(scan);
           break;
@@ -149,13 +197,53 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
       view.writeMessage("sepia-transform image-name dest-image-name" + System.lineSeparator());
       view.writeMessage("grayscale-transform image-name dest-image-name" + System.lineSeparator());
       view.writeMessage("blur image-name dest-image-name" + System.lineSeparator());
+      view.writeMessage("blur sigma image-name dest-image-name" + System.lineSeparator());
       view.writeMessage("sharpen image-name dest-image-name" + System.lineSeparator());
+      view.writeMessage("blur-n count image-name dest-image-name" + System.lineSeparator());
+      view.writeMessage(
+          "box-blur radius [passes] image-name dest-image-name" + System.lineSeparator());
+      view.writeMessage(
+          "convolve size weights image-name dest-image-name" + System.lineSeparator());
+      view.writeMessage("border mode (zero, clamp, mirror or wrap)" + System.lineSeparator());
+      view.writeMessage("parallelism n" + System.lineSeparator());
+      view.writeMessage("planar image-name dest-image-name" + System.lineSeparator());
+      view.writeMessage("histogram file-path image-name" + System.lineSeparator());
       view.writeMessage("q or quit (quit the program) " + System.lineSeparator());
     } catch (IOException e) {
       throw new IllegalStateException("Transmission failed.");
     }
   }
 
+  /**
+   * Sets how the filters of the following commands read the pixels outside of an image.
+   *
+   * @param mode the name of the border mode: zero, clamp, mirror or wrap
+   * @throws IllegalStateException if an IOException occurs.
+   */
+  private void setBorder(String mode) throws IllegalStateException {
+    try {
+      border = BorderMode.valueOf(mode.toUpperCase(Locale.ROOT));
+      writeMessageController("Border mode set to " + mode + ".\n");
+    } catch (IllegalArgumentException e) {
+      writeMessageController("Please input a valid border mode.\n");
+    }
+  }
+
+  /**
+   * Sets the number of threads the following commands run on.
+   *
+   * @param threads the number of threads, at least one
+   * @throws IllegalStateException if an IOException occurs.
+   */
+  private void setParallelism(String threads) throws IllegalStateException {
+    try {
+      ParallelExecutor.setParallelism(Integer.parseInt(threads));
+      writeMessageController("Parallelism set to " + threads + ".\n");
+    } catch (IllegalArgumentException e) {
+      writeMessageController("Please input a valid parallelism.\n");
+    }
+  }
+
   /**
    * Creates the welcome message for the controller.
    *
@@ -3,6 +3,7 @@ package controller;
 import view.ImageGraphicsView;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Scanner;
 import javax.swing.JFrame;
 import javax.swing.UIManager;
@@ -10,6 +11,7 @@ import javax.swing.UIManager.LookAndFeelInfo;
 import javax.swing.UnsupportedLookAndFeelException;
 import model.ImageProcessorModel;
 import model.ImageProcessorModelImpl;
+import model.ParallelExecutor;
 import utils.ImageUtil;
 import view.ImageProcessorView;
 import view.ImageProcessorViewImpl;
@@ -20,11 +22,16 @@ import view.ImageProcessorViewImpl;
 public class ImageProcessorGuiRun {
 
   /**
-   * Main class to test run the GUI for the image processor.
+   * Main class to test run the GUI for the image processor. The arguments may start with
+   * {@code -parallelism n}, the number of threads the image operations run on.
    *
    * @param args the arguments.
    */
   public static void main(String[] args) throws IOException {
+    if (args.length >= 2 && args[0].equals("-parallelism")) {
+      ParallelExecutor.setParallelism(Integer.parseInt(args[1]));
+      args = Arrays.copyOfRange(args, 2, args.length);
+    }
     ImageProcessorModel model1;
     ImageProcessorView view1;
     ImageProcessorController controller1;
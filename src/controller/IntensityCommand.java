@@ -1,6 +1,6 @@
 package controller;
 
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import model.IntensityGreyScale;
 import view.ImageProcessorView;
@@ -9,7 +9,7 @@ import view.ImageProcessorView;
  * Represents a command that performs an intensity-grayscale transformation
  * on an image.
  */
-public class IntensityCommand extends ACommandTransform {
+public class IntensityCommand extends APixelTransform {
 
   /**
    * Constructor for a IntensityCommand.
@@ -23,7 +23,8 @@ public class IntensityCommand extends ACommandTransform {
     super(controller, model, view);
   }
 
-  protected IImage returnTransformedImage(IImage image) {
-    return image.grayScaleImage(new IntensityGreyScale());
+  @Override
+  protected ICommandTransformation createOperation() {
+    return new IntensityGreyScale();
   }
 }
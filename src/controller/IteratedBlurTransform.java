@@ -0,0 +1,64 @@
+package controller;
+
+import java.io.IOException;
+import java.util.Scanner;
+import model.BorderMode;
+import model.IImage;
+import model.ImageProcessorModel;
+import view.ImageProcessorView;
+
+/**
+ * Represents a command for the script program to blur an image a number of times with the 3 by 3
+ * blur. The command is {@code blur-n count image-name dest-image-name}. The blurs are applied
+ * together as one operation, a single BinomialBlurFilter with a mirror or wrap border, and are
+ * combined with the blur commands before and after it as for the blur command (see
+ * BlurTransform).
+ */
+public class IteratedBlurTransform extends ACommandTransform {
+
+  private final BorderMode border;
+  private int count;
+
+  /**
+   * First constructor for an IteratedBlurTransform. The pixels outside of the image count as
+   * zero.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   */
+  public IteratedBlurTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view) {
+    this(controller, model, view, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for an IteratedBlurTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   * @param border     how the blur reads the pixels outside of the image
+   */
+  public IteratedBlurTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view, BorderMode border) {
+    super(controller, model, view);
+    this.border = border;
+  }
+
+  @Override
+  public void imageCommand(Scanner scan) throws IOException {
+    count = scan.nextInt();
+    super.imageCommand(scan);
+  }
+
+  @Override
+  protected IImage returnTransformedImage(IImage image) {
+    return BlurTransform.blurTimes(image, count, border, false);
+  }
+
+  @Override
+  protected IImage returnTransformedImageInPlace(IImage image) {
+    return BlurTransform.blurTimes(image, count, border, true);
+  }
+}
@@ -1,6 +1,6 @@
 package controller;
 
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import model.LumaGrayScale;
 import view.ImageProcessorView;
@@ -8,7 +8,7 @@ import view.ImageProcessorView;
 /**
  * Represents the controller's operation to convert an image from the model to luma grey-scale.
  */
-public class LumaTransform extends ACommandTransform {
+public class LumaTransform extends APixelTransform {
 
   /**
    * Constructor for a LumaTransform.
@@ -23,7 +23,7 @@ public class LumaTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.grayScaleImage(new LumaGrayScale());
+  protected ICommandTransformation createOperation() {
+    return new LumaGrayScale();
   }
 }
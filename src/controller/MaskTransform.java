@@ -4,12 +4,16 @@ import java.io.IOException;
 import java.util.Scanner;
 import model.BlueGrayScale;
 import model.BlurImageFilter;
+import model.BorderMode;
+import model.BoxBlurFilter;
+import model.GaussianBlurFilter;
 import model.GreenGrayScale;
 import model.GreyScaleColorTransform;
 import model.ICommandTransformation;
 import model.IImage;
 import model.ImageProcessorModel;
 import model.IntensityGreyScale;
+import model.IteratedBlurFilter;
 import model.LumaGrayScale;
 import model.RedGrayScale;
 import model.SepiaColorTransform;
@@ -51,14 +55,22 @@ public class MaskTransform extends ACommandTransform {
     newImage = model.obtainImage(imageName);
     mask = model.obtainImage(imageMask);
 
-    newImage = newImage.maskImage(mask, returnCommand(command));
+    newImage = newImage.maskImage(mask, returnCommand(command, scan));
     model.addImage(imageNewName, newImage);
 
     view.writeMessage("\nTransformation performed.");
     System.out.println("\nTransformation performed.");
   }
 
-  private ICommandTransformation returnCommand(String command) {
+  /**
+   * Returns the transformation with the given name. A repeated blur reads its count, a Gaussian
+   * blur its sigma and a box blur its radius from the script after its name.
+   *
+   * @param command the name of the transformation
+   * @param scan    the scanner of the script
+   * @return the transformation
+   */
+  private ICommandTransformation returnCommand(String command, Scanner scan) {
     switch (command) {
       case ("intensity-component"):
         return new IntensityGreyScale();
@@ -74,6 +86,12 @@ public class MaskTransform extends ACommandTransform {
         return new BlueGrayScale();
       case ("blur"):
         return new BlurImageFilter();
+      case ("blur-n"):
+        return new IteratedBlurFilter(scan.nextInt(), BorderMode.ZERO);
+      case ("gaussian-blur"):
+        return new GaussianBlurFilter(scan.nextDouble());
+      case ("box-blur"):
+        return new BoxBlurFilter(scan.nextInt());
       case ("sharpen"):
         return new SharpenImageFilter();
       case ("sepia-transform"):
@@ -0,0 +1,32 @@
+package controller;
+
+import model.IImage;
+import model.ImageProcessorModel;
+import model.PlanarImage;
+import view.ImageProcessorView;
+
+/**
+ * Represents an image processor controller's operation to store an image as a PlanarImage, with
+ * one plane for each channel. The command is {@code planar image-name dest-image-name}. The
+ * component commands on a planar image share one of its planes instead of copying it, and
+ * operations on a single channel scan one plane from start to end.
+ */
+public class PlanarTransform extends ACommandTransform {
+
+  /**
+   * Constructor for a PlanarTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   */
+  public PlanarTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view) {
+    super(controller, model, view);
+  }
+
+  @Override
+  protected IImage returnTransformedImage(IImage image) {
+    return image instanceof PlanarImage ? image : new PlanarImage(image);
+  }
+}
@@ -31,6 +31,7 @@ import utils.ImageUtil;
  * - grayscale
  * - sepia
  * - blur
+ * - gaussian-blur
  * - sharpen
  * - save an image
  * - load an image
@@ -126,6 +127,9 @@ public class ProcessorControllerGUI implements ImageProcessorController, ActionL
       case "blur":
         new BlurTransformGUI(view, model, numFileAdded).imageCommand();
         break;
+      case "gaussian-blur":
+        new GaussianBlurTransformGUI(view, model, numFileAdded).imageCommand();
+        break;
       case "sepia-transform":
         new SepiaTransformGUI(view, model, numFileAdded).imageCommand();
         break;
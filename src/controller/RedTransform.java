@@ -1,6 +1,6 @@
 package controller;
 
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import model.RedGrayScale;
 import view.ImageProcessorView;
@@ -8,7 +8,7 @@ import view.ImageProcessorView;
 /**
  * Represents the controller's operation to convert an image from the model to red grey-scale.
  */
-public class RedTransform extends ACommandTransform {
+public class RedTransform extends APixelTransform {
 
   /**
    * Constructor for a ACommandTransform.
@@ -23,7 +23,7 @@ public class RedTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.grayScaleImage(new RedGrayScale());
+  protected ICommandTransformation createOperation() {
+    return new RedGrayScale();
   }
 }
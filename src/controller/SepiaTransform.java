@@ -1,6 +1,6 @@
 package controller;
 
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import model.SepiaColorTransform;
 import view.ImageProcessorView;
@@ -8,7 +8,7 @@ import view.ImageProcessorView;
 /**
  * Represents the controller's operation to convert an image from the model to sepia.
  */
-public class SepiaTransform extends ACommandTransform {
+public class SepiaTransform extends APixelTransform {
 
   /**
    * Constructor for a SepiaTransform.
@@ -23,7 +23,7 @@ public class SepiaTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.colorTransform(new SepiaColorTransform());
+  protected ICommandTransformation createOperation() {
+    return new SepiaColorTransform();
   }
 }
@@ -1,5 +1,6 @@
 package controller;
 
+import model.BorderMode;
 import model.IImage;
 import model.ImageProcessorModel;
 import model.SharpenImageFilter;
@@ -10,8 +11,10 @@ import view.ImageProcessorView;
  */
 public class SharpenTransform extends ACommandTransform {
 
+  private final BorderMode border;
+
   /**
-   * Constructor for a SharpenTransform.
+   * First constructor for a SharpenTransform. The pixels outside of the image count as zero.
    *
    * @param controller the image processor controller
    * @param model      the image processor model
@@ -19,11 +22,30 @@ public class SharpenTransform extends ACommandTransform {
    */
   public SharpenTransform(ImageProcessorController controller, ImageProcessorModel model,
       ImageProcessorView view) {
+    this(controller, model, view, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for a SharpenTransform.
+   *
+   * @param controller the image processor controller
+   * @param model      the image processor model
+   * @param view       the image processor view
+   * @param border     how the sharpening reads the pixels outside of the image
+   */
+  public SharpenTransform(ImageProcessorController controller, ImageProcessorModel model,
+      ImageProcessorView view, BorderMode border) {
     super(controller, model, view);
+    this.border = border;
   }
 
   @Override
   protected IImage returnTransformedImage(IImage image) {
-    return image.filterImage(new SharpenImageFilter());
+    return image.filterImage(new SharpenImageFilter(border));
+  }
+
+  @Override
+  protected IImage returnTransformedImageInPlace(IImage image) {
+    return new SharpenImageFilter(border).performInPlace(image);
   }
 }
@@ -1,6 +1,6 @@
 package controller;
 
-import model.IImage;
+import model.ICommandTransformation;
 import model.ImageProcessorModel;
 import model.ValueGreyScale;
 import view.ImageProcessorView;
@@ -8,7 +8,7 @@ import view.ImageProcessorView;
 /**
  * Represents the controller's operation to convert an image from the model to value grey-scale.
  */
-public class ValueTransform extends ACommandTransform {
+public class ValueTransform extends APixelTransform {
 
   /**
    * Constructor for a ValueTransform.
@@ -23,7 +23,7 @@ public class ValueTransform extends ACommandTransform {
   }
 
   @Override
-  protected IImage returnTransformedImage(IImage image) {
-    return image.grayScaleImage(new ValueGreyScale());
+  protected ICommandTransformation createOperation() {
+    return new ValueGreyScale();
   }
 }
@@ -1,19 +1,47 @@
 package model;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Represents an abstract class for an IColorTransformationImage. An concrete class that
  * extends this MUST have a matrix converter of dimensions 3 by 3. An implementation
  * of IColorTransformationImage.
+ *
+ * <p>Color transforms can be chained with andThen into a single transform that applies each of
+ * them in turn to every span of pixels, in one pass over the image. Every transform still rounds
+ * and clamps its channels before the next one reads them, so the result is exactly that of
+ * applying the transforms one after another; multiplying the matrices together instead would
+ * skip that clamping and differ by far more than one wherever a channel saturates.
+ *
+ * <p>Other than a constant or planar image, an image is transformed a row at a time by RowEngine.
+ * When the program runs with --add-modules jdk.incubator.vector and VectorColorSpan was built,
+ * the spans are transformed with the Vector API instead of the scalar loop (see IColorSpan), with
+ * the same results. An implementation of IRowKernel as well.
  */
-public abstract class AColorTransform implements ICommandTransformation {
+public abstract class AColorTransform implements ICommandTransformation, IRowKernel {
+
+  /**
+   * The number of pixels of a planar image transformed at a time by a chain of transforms.
+   */
+  private static final int SPAN = 4096;
+
+  /**
+   * The Vector API implementation of the spans, or null if it cannot be used.
+   */
+  private static final IColorSpan VECTOR = IColorSpan.load();
+
   private double[][] matrixConverter;
+  private final WeightedSum[] rows;
+  private final boolean sameRows;
+  private final AColorTransform first;
+  private final IColorSpan vector;
 
   /**
    * Constructor for an AColorTransform.
    */
   public AColorTransform() {
+    this.first = null;
     this.matrixConverter = Objects.requireNonNull(createConversionMatrix());
     int width = 0;
     int height = matrixConverter.length;
@@ -28,46 +56,291 @@ public abstract class AColorTransform implements ICommandTransformation {
     }
 
     // INVARIANT : Ensure that the matrix converter has dimensions 3 by 3.
+    this.rows = createRows(matrixConverter);
+    this.sameRows = Arrays.equals(matrixConverter[0], matrixConverter[1])
+        && Arrays.equals(matrixConverter[0], matrixConverter[2]);
+    this.vector = vectorFor(getClass());
+  }
+
+  /**
+   * Constructor for a chain of color transforms, which applies the given transforms and then the
+   * matrix of the last one.
+   *
+   * @param first the transforms applied first
+   * @param last  the transform whose own matrix is applied last
+   */
+  private AColorTransform(AColorTransform first, AColorTransform last) {
+    this.first = first;
+    this.matrixConverter = last.matrixConverter;
+    this.rows = last.rows;
+    this.sameRows = last.sameRows;
+    this.vector = vectorFor(getClass());
+  }
+
+  /**
+   * Obtains the Vector API implementation of the spans for a kind of transform. It clamps every
+   * channel as reachBound does here, so it is not used for a transform that overrides reachBound.
+   *
+   * @param type the class of the transform
+   * @return the vector implementation, or null if the scalar loop must be used
+   */
+  private static IColorSpan vectorFor(Class<?> type) {
+    if (VECTOR == null) {
+      return null;
+    }
+    for (Class<?> c = type; c != AColorTransform.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod("reachBound", int.class);
+        return null;
+      } catch (NoSuchMethodException e) {
+        // Not overridden by this class
+      }
+    }
+    return VECTOR;
+  }
+
+  /**
+   * Creates a color transform that applies this transform and then the given one, in a single
+   * pass over an image. The result is exactly that of applying one transform after the other.
+   *
+   * @param next the transform applied to the results of this one
+   * @return the new chained transform
+   * @throws IllegalArgumentException if the next transform is null
+   */
+  public AColorTransform andThen(AColorTransform next) throws IllegalArgumentException {
+    if (next == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    if (next.first != null) {
+      return new Chain(andThen(next.first), next);
+    }
+    return new Chain(this, next);
+  }
+
+  /**
+   * Represents a chain of color transforms. Its conversion matrix is that of the last transform
+   * of the chain, which is applied after the others.
+   */
+  private static final class Chain extends AColorTransform {
+
+    /**
+     * Constructor for a Chain.
+     *
+     * @param first the transforms applied first
+     * @param last  the transform whose own matrix is applied last
+     */
+    private Chain(AColorTransform first, AColorTransform last) {
+      super(first, last);
+    }
+
+    @Override
+    protected double[][] createConversionMatrix() {
+      double[][] matrix = new double[3][];
+      for (int c = 0; c < 3; c++) {
+        matrix[c] = super.matrixConverter[c].clone();
+      }
+      return matrix;
+    }
+  }
+
+  /**
+   * Creates the weighted sum of each row of the matrix.
+   *
+   * @param matrix the conversion matrix
+   * @return the three weighted sums, one per channel of the new pixel
+   */
+  private static WeightedSum[] createRows(double[][] matrix) {
+    WeightedSum[] rows = new WeightedSum[3];
+    for (int c = 0; c < 3; c++) {
+      rows[c] = new WeightedSum(matrix[c][0], matrix[c][1], matrix[c][2]);
+    }
+    return rows;
   }
 
   @Override
   public IImage performTransformation(IImage image) {
-    int width = image.getImageWidth();
-    int height = image.getImageHeight();
-
-    IPixel[][] newPixels = new RGBPixel[height][width];
-    IPixel[][] origPixels = image.getPixels();
-
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        // Get original pixel
-        IPixel origPixel = origPixels[i][j];
-        // Compute new RGB values
-        int origRed = origPixel.redChannelPixel();
-        int origGreen = origPixel.greenChannelPixel();
-        int origBlue = origPixel.blueChannelPixel();
-
-        int newRed = reachBound(Math.toIntExact(
-            Math.round((matrixConverter[0][0] * origRed)
-                + (matrixConverter[0][1] * origGreen)
-                + (matrixConverter[0][2] * origBlue))));
-
-        int newGreen = reachBound(Math.toIntExact(
-            Math.round((matrixConverter[1][0] * origRed)
-                + (matrixConverter[1][1] * origGreen)
-                + (matrixConverter[1][2] * origBlue))));
-
-        int newBlue = reachBound(Math.toIntExact(
-            Math.round((matrixConverter[2][0] * origRed)
-                + (matrixConverter[2][1] * origGreen)
-                + (matrixConverter[2][2] * origBlue))));
-
-        // Set newPixel[i][j] to new RGB pixel
-        newPixels[i][j] = new RGBPixel(newRed, newGreen, newBlue);
+    if (image instanceof ConstantImage) {
+      ConstantImage constant = (ConstantImage) image;
+      return constant.withColor(transformPixel(constant.getColor()));
+    }
+    if (image instanceof PlanarImage) {
+      return performPlanar((PlanarImage) image);
+    }
+    return RowEngine.apply(image, this);
+  }
+
+  /**
+   * Color transforms a PackedImage by overwriting its pixels; any other image gives a new image
+   * as by performTransformation.
+   *
+   * @param image an image that nothing else refers to
+   * @return the transformed image
+   */
+  @Override
+  public IImage performInPlace(IImage image) {
+    IImage computed = DeferredImage.computed(image);
+    if (computed instanceof PackedImage) {
+      return RowEngine.applyInPlace((PackedImage) computed, this);
+    }
+    return performTransformation(computed);
+  }
+
+  /**
+   * Color transforms a span of one row.
+   *
+   * @param rows        the row, alone in the array
+   * @param width       the width of the image
+   * @param destination the array the packed new pixels are written to, which may be the row
+   * @param offset      the index of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  @Override
+  public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+    transformSpan(rows[0], offset, destination, offset, length);
+  }
+
+  /**
+   * Color transforms a span of packed pixels. The source and destination may be the same array.
+   * Each new channel is the weighted sum of a row of the matrix, in 16.16 fixed-point, rounded
+   * to exactly the value of multiplying by the matrix in doubles. When the three rows of the
+   * matrix are the same, as for a grayscale matrix, only one sum is computed for each pixel. A
+   * chain of transforms applies the earlier ones to the span first. The Vector API
+   * implementation, when there is one, transforms the span instead of the loop here.
+   *
+   * @param source            the packed source pixels
+   * @param sourceOffset      the index of the first source pixel
+   * @param destination       the array the packed new pixels are written to
+   * @param destinationOffset the index of the first new pixel
+   * @param length            the number of pixels
+   */
+  void transformSpan(int[] source, int sourceOffset, int[] destination, int destinationOffset,
+      int length) {
+    if (first != null) {
+      first.transformSpan(source, sourceOffset, destination, destinationOffset, length);
+      source = destination;
+      sourceOffset = destinationOffset;
+    }
+    if (vector != null && vector.transformSpan(rows, sameRows, source, sourceOffset, destination,
+        destinationOffset, length)) {
+      return;
+    }
+    WeightedSum firstRow = rows[0];
+    if (sameRows) {
+      for (int j = 0; j < length; j++) {
+        int rgb = source[sourceOffset + j];
+        int value = reachBound(firstRow.apply((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+        destination[destinationOffset + j] = value * 0x010101;
+      }
+      return;
+    }
+
+    WeightedSum secondRow = rows[1];
+    WeightedSum thirdRow = rows[2];
+    for (int j = 0; j < length; j++) {
+      int rgb = source[sourceOffset + j];
+      int r = (rgb >> 16) & 0xFF;
+      int g = (rgb >> 8) & 0xFF;
+      int b = rgb & 0xFF;
+      destination[destinationOffset + j] = (reachBound(firstRow.apply(r, g, b)) << 16)
+          | (reachBound(secondRow.apply(r, g, b)) << 8)
+          | reachBound(thirdRow.apply(r, g, b));
+    }
+  }
+
+  /**
+   * Color transforms a single packed pixel.
+   *
+   * @param rgb the packed 0xRRGGBB pixel
+   * @return the transformed packed pixel
+   */
+  private int transformPixel(int rgb) {
+    int[] pixel = {rgb};
+    transformSpan(pixel, 0, pixel, 0, 1);
+    return pixel[0];
+  }
+
+  /**
+   * Color transforms a planar image, computing one new plane at a time. When the three rows of
+   * the matrix are the same, the single new plane is returned as a grayscale image.
+   *
+   * @param image the planar image
+   * @return a new planar or grayscale transformed image
+   */
+  private IImage performPlanar(PlanarImage image) {
+    if (first != null) {
+      return performPlanarChain(image);
+    }
+    byte[] origRed = image.redPlane();
+    byte[] origGreen = image.greenPlane();
+    byte[] origBlue = image.bluePlane();
+    byte[] newRed = new byte[origRed.length];
+    transformPlane(origRed, origGreen, origBlue, rows[0], newRed);
+    if (sameRows) {
+      return image.grayImage(newRed);
+    }
+
+    byte[] newGreen = new byte[origRed.length];
+    byte[] newBlue = new byte[origRed.length];
+    transformPlane(origRed, origGreen, origBlue, rows[1], newGreen);
+    transformPlane(origRed, origGreen, origBlue, rows[2], newBlue);
+    return new PlanarImage(image.getImageWidth(), image.getImageHeight(), newRed, newGreen,
+        newBlue);
+  }
+
+  /**
+   * Color transforms a planar image with a chain of transforms, a span of pixels at a time, so
+   * that no plane is computed for the transforms in between.
+   *
+   * @param image the planar image
+   * @return a new planar or grayscale transformed image
+   */
+  private IImage performPlanarChain(PlanarImage image) {
+    byte[] origRed = image.redPlane();
+    byte[] origGreen = image.greenPlane();
+    byte[] origBlue = image.bluePlane();
+    int area = origRed.length;
+    byte[] newRed = new byte[area];
+    byte[] newGreen = sameRows ? null : new byte[area];
+    byte[] newBlue = sameRows ? null : new byte[area];
+    int[] span = new int[Math.min(area, SPAN)];
+
+    for (int start = 0; start < area; start += span.length) {
+      int length = Math.min(span.length, area - start);
+      for (int j = 0; j < length; j++) {
+        span[j] = ARasterImage.pack(origRed[start + j] & 0xFF, origGreen[start + j] & 0xFF,
+            origBlue[start + j] & 0xFF);
       }
+      transformSpan(span, 0, span, 0, length);
+      for (int j = 0; j < length; j++) {
+        newRed[start + j] = (byte) (span[j] >> 16);
+        if (!sameRows) {
+          newGreen[start + j] = (byte) (span[j] >> 8);
+          newBlue[start + j] = (byte) span[j];
+        }
+      }
+    }
+
+    if (sameRows) {
+      return image.grayImage(newRed);
     }
+    return new PlanarImage(image.getImageWidth(), image.getImageHeight(), newRed, newGreen,
+        newBlue);
+  }
 
-    return new ImageImpl(newPixels);
+  /**
+   * Computes one new plane of a planar image from the three planes of the original.
+   *
+   * @param red   the red plane
+   * @param green the green plane
+   * @param blue  the blue plane
+   * @param row   the weighted sum of the row of the matrix for the new plane
+   * @param plane the array the new plane is written to
+   */
+  private void transformPlane(byte[] red, byte[] green, byte[] blue, WeightedSum row,
+      byte[] plane) {
+    for (int i = 0; i < plane.length; i++) {
+      plane[i] = (byte) reachBound(row.apply(red[i] & 0xFF, green[i] & 0xFF, blue[i] & 0xFF));
+    }
   }
 
   /**
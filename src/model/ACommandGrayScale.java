@@ -3,22 +3,73 @@ package model;
 /**
  * Represents an abstract class for an ICommandGrayScaleImage. A concrete class
  * that extends this performs a specific kind of grayscale operation on an image.
+ * Every grayscale operation returns a GrayImage, which stores one byte per pixel, except on a
+ * ConstantImage, whose grayscale version is another constant image. The pixels are converted by
+ * a PointOperation when they are combined with other point operations into a single pass, and a
+ * row at a time by RowEngine otherwise. An implementation of IRowKernel as well.
  */
-public abstract class ACommandGrayScale implements ICommandTransformation {
+public abstract class ACommandGrayScale implements ICommandTransformation, IRowKernel {
 
   @Override
   public IImage performTransformation(IImage image) {
-    IPixel[][] pixels = new RGBPixel[image.getImageHeight()][image.getImageWidth()];
-    for (int i = 0; i < image.getImageHeight(); i++) {
-      for (int j = 0; j < image.getImageWidth(); j++) {
-        int newValue = returnNewValue(image.getPixels(), i, j);
-        pixels[i][j] = new RGBPixel(newValue, newValue, newValue);
-      }
+    if (image instanceof PlanarImage) {
+      return performPlanar((PlanarImage) image);
     }
+    if (image instanceof ConstantImage || image instanceof GrayImage) {
+      return PointOperation.grayScale(this).performTransformation(image);
+    }
+    return RowEngine.apply(image, this);
+  }
+
+  /**
+   * Converts a span of one row to gray.
+   *
+   * @param rows        the row, alone in the array
+   * @param width       the width of the image
+   * @param destination the array the packed gray pixels are written to, which may be the row
+   * @param offset      the index of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  @Override
+  public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+    int[] row = rows[0];
+    for (int j = offset; j < offset + length; j++) {
+      int rgb = row[j];
+      destination[j] = returnNewValue((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF)
+          * 0x010101;
+    }
+  }
 
-    IImage newImage = new ImageImpl(pixels);
-    return newImage;
+  @Override
+  public boolean isGrayResult(boolean graySource) {
+    return true;
+  }
+
+  /**
+   * Creates the grayscale version of a planar image. The grayscale values are computed from the
+   * three planes in a single pass.
+   *
+   * @param image the planar image
+   * @return a new grayscale image
+   */
+  protected IImage performPlanar(PlanarImage image) {
+    byte[] red = image.redPlane();
+    byte[] green = image.greenPlane();
+    byte[] blue = image.bluePlane();
+    byte[] gray = new byte[red.length];
+    for (int i = 0; i < gray.length; i++) {
+      gray[i] = (byte) returnNewValue(red[i] & 0xFF, green[i] & 0xFF, blue[i] & 0xFF);
+    }
+    return image.grayImage(gray);
   }
 
-  protected abstract int returnNewValue(IPixel[][] pixels, int row, int col);
+  /**
+   * Returns the grayscale value of a pixel with the given components.
+   *
+   * @param red   the red component of the pixel
+   * @param green the green component of the pixel
+   * @param blue  the blue component of the pixel
+   * @return the grayscale value of the pixel
+   */
+  protected abstract int returnNewValue(int red, int green, int blue);
 }
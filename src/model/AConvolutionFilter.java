@@ -0,0 +1,134 @@
+package model;
+
+/**
+ * Represents an abstract class for a filter that convolves an image with a kernel. A concrete
+ * class that extends this provides the kernel to the constructor. Every
+ * channel of every pixel is the weighted sum of the same channel of the pixels around it. The
+ * pixels outside of the image are read through a BorderMode, zero unless another one is given.
+ * Other than a constant, grayscale or tiled image, an image is filtered a row at a time by
+ * RowEngine, which keeps just the rows under the kernel. An implementation of
+ * ICommandTransformation and IRowKernel.
+ */
+public abstract class AConvolutionFilter implements ICommandTransformation, IRowKernel {
+
+  private final ConvolutionKernel kernel;
+  private final BorderMode border;
+
+  /**
+   * First constructor for an AConvolutionFilter. The pixels outside of the image count as zero.
+   *
+   * @param kernel the kernel for which to convolve an image by.
+   * @throws IllegalArgumentException if the kernel is null
+   */
+  protected AConvolutionFilter(ConvolutionKernel kernel) throws IllegalArgumentException {
+    this(kernel, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for an AConvolutionFilter.
+   *
+   * @param kernel the kernel for which to convolve an image by.
+   * @param border how the pixels outside of the image are read
+   * @throws IllegalArgumentException if the kernel or the border mode is null
+   */
+  protected AConvolutionFilter(ConvolutionKernel kernel, BorderMode border)
+      throws IllegalArgumentException {
+    if (kernel == null || border == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.kernel = kernel;
+    this.border = border;
+  }
+
+  /**
+   * Obtains the kernel of this filter.
+   *
+   * @return the kernel
+   */
+  public ConvolutionKernel getKernel() {
+    return this.kernel;
+  }
+
+  /**
+   * Obtains how this filter reads the pixels outside of an image.
+   *
+   * @return the border mode
+   */
+  public BorderMode getBorder() {
+    return this.border;
+  }
+
+  /**
+   * Produces a new filtered image based off the given one. A kernel of at least 31 by 31 pixels
+   * is applied through the Fourier transform (see FourierConvolution), which gives exactly the
+   * same image in far less time; a constant image is always filtered directly.
+   *
+   * @param image the image to be filtered.
+   * @return a new IImage that is the filtered version of the given one.
+   */
+  @Override
+  public IImage performTransformation(IImage image) {
+    if (image instanceof ConstantImage) {
+      return ((ConstantImage) image).convolve(kernel, border);
+    }
+    if (kernel.getSize() >= FourierConvolution.MIN_KERNEL_SIZE) {
+      return new FourierConvolution(kernel).convolve(image, border);
+    }
+    if (image instanceof GrayImage) {
+      return ((GrayImage) image).convolve(kernel, border);
+    }
+    if (image instanceof TiledImage) {
+      return ((TiledImage) image).convolve(kernel, border);
+    }
+    return RowEngine.apply(image, this);
+  }
+
+  /**
+   * Filters a PackedImage by overwriting its rows, keeping only the rows under the kernel; any
+   * other image, or a kernel applied through the Fourier transform, gives a new image as by
+   * performTransformation.
+   *
+   * @param image an image that nothing else refers to
+   * @return the filtered image
+   */
+  @Override
+  public IImage performInPlace(IImage image) {
+    IImage computed = DeferredImage.computed(image);
+    if (computed instanceof PackedImage
+        && kernel.getSize() < FourierConvolution.MIN_KERNEL_SIZE) {
+      return RowEngine.applyInPlace((PackedImage) computed, this);
+    }
+    return performTransformation(computed);
+  }
+
+  @Override
+  public int getReach() {
+    return kernel.getSize() / 2;
+  }
+
+  /**
+   * Filters a span of one row through the kernel.
+   *
+   * @param rows        the rows under the kernel, null where a row counts as zero
+   * @param width       the number of columns of the rows inside of the image
+   * @param destination the array the filtered pixels are written to
+   * @param offset      the column of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  @Override
+  public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+    kernel.apply(rows, width, offset, destination, offset, length, border);
+  }
+
+  /**
+   * Determines if every filtered pixel is gray: the kernel weighs the three channels the same,
+   * so a gray image stays gray.
+   *
+   * @param graySource true if every pixel of the original image is gray
+   * @return true if the original image is gray
+   */
+  @Override
+  public boolean isGrayResult(boolean graySource) {
+    return graySource;
+  }
+}
@@ -0,0 +1,405 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Represents an abstract class for an IRasterImage. Implements every operation of an image in
+ * terms of reading and writing whole rows of packed 0xRRGGBB pixels, so a concrete class only
+ * decides how the pixels are stored. No IPixel objects are created while an operation runs.
+ */
+public abstract class ARasterImage implements IRasterImage {
+
+  protected final int width;
+  protected final int height;
+
+  /**
+   * Constructor for an ARasterImage.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @throws IllegalArgumentException if the dimensions are not positive
+   */
+  public ARasterImage(int width, int height) throws IllegalArgumentException {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Packs the three components of a pixel into a single 0xRRGGBB integer.
+   *
+   * @param red   the red component (0 - 255)
+   * @param green the green component (0 - 255)
+   * @param blue  the blue component (0 - 255)
+   * @return the packed pixel
+   */
+  public static int pack(int red, int green, int blue) {
+    return (red << 16) | (green << 8) | blue;
+  }
+
+  /**
+   * Obtains the red component of a packed pixel.
+   *
+   * @param rgb the packed pixel
+   * @return the red component
+   */
+  public static int red(int rgb) {
+    return (rgb >> 16) & 0xFF;
+  }
+
+  /**
+   * Obtains the green component of a packed pixel.
+   *
+   * @param rgb the packed pixel
+   * @return the green component
+   */
+  public static int green(int rgb) {
+    return (rgb >> 8) & 0xFF;
+  }
+
+  /**
+   * Obtains the blue component of a packed pixel.
+   *
+   * @param rgb the packed pixel
+   * @return the blue component
+   */
+  public static int blue(int rgb) {
+    return rgb & 0xFF;
+  }
+
+  /**
+   * Clamps a component value to the range 0 - 255.
+   *
+   * @param value the value to be clamped
+   * @return the clamped value
+   */
+  static int clamp(int value) {
+    if (value > 255) {
+      return 255;
+    } else if (value < 0) {
+      return 0;
+    }
+    return value;
+  }
+
+  /**
+   * Returns the image whose storage this image reads its pixels from. Views and masked images
+   * keep reading the image they were made from, every other image reads its own storage.
+   *
+   * @return the image holding the pixels of this image
+   */
+  IRasterImage storage() {
+    return this;
+  }
+
+  /**
+   * Checks that a pixel is inside of this image.
+   *
+   * @param x the column of the pixel
+   * @param y the row of the pixel
+   * @throws IllegalArgumentException if the pixel is outside of the image
+   */
+  protected void checkPixel(int x, int y) throws IllegalArgumentException {
+    if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+      throw new IllegalArgumentException("The pixel is outside of the image.");
+    }
+  }
+
+  @Override
+  public void copyTo(int[] destination) throws IllegalArgumentException {
+    if (destination == null || destination.length < (long) width * height) {
+      throw new IllegalArgumentException("The array is too short for the image.");
+    }
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      getRow(i, row);
+      System.arraycopy(row, 0, destination, i * width, width);
+    }
+  }
+
+  /**
+   * Mirrors this image from left to right. No pixel is copied; the result is a view of this image.
+   *
+   * @return a view of this image flipped horizontally
+   */
+  @Override
+  public IImage flipImageHorizontal() {
+    return ViewImage.remap(this, width, height, 0, 1, 0, width - 1, 0, -1);
+  }
+
+  /**
+   * Mirrors this image from top to bottom. No pixel is copied; the result is a view of this image.
+   *
+   * @return a view of this image flipped vertically
+   */
+  @Override
+  public IImage flipImageVertical() {
+    return ViewImage.remap(this, width, height, height - 1, -1, 0, 0, 0, 1);
+  }
+
+  /**
+   * Crops this image to a rectangle. No pixel is copied; the result is a view of this image.
+   *
+   * @param x      the column of the left edge of the rectangle
+   * @param y      the row of the top edge of the rectangle
+   * @param width  the width of the rectangle
+   * @param height the height of the rectangle
+   * @return a view of the rectangle of this image
+   * @throws IllegalArgumentException if the rectangle is empty or not inside of this image
+   */
+  public IImage crop(int x, int y, int width, int height) throws IllegalArgumentException {
+    if (x < 0 || y < 0 || width < 1 || height < 1 || x + width > this.width
+        || y + height > this.height) {
+      throw new IllegalArgumentException("The rectangle is not inside of the image.");
+    }
+    return ViewImage.remap(this, width, height, y, 1, 0, x, 0, 1);
+  }
+
+  /**
+   * Swaps the rows and columns of this image. No pixel is copied; the result is a view of this
+   * image.
+   *
+   * @return a view of this image transposed
+   */
+  public IImage transpose() {
+    return ViewImage.remap(this, height, width, 0, 0, 1, 0, 1, 0);
+  }
+
+  @Override
+  public IImage darkenBrightenImage(int increment) {
+    return PointOperation.brighten(increment).performTransformation(this);
+  }
+
+  @Override
+  public IImage grayScaleImage(ACommandGrayScale command) {
+    return command.performTransformation(this);
+  }
+
+  @Override
+  public int getImageWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getImageHeight() {
+    return this.height;
+  }
+
+  /**
+   * Obtains the pixels of an image. The pixels are stored packed, so this creates a new IPixel
+   * for every pixel and should be avoided on large images.
+   *
+   * @return a new 2D array of pixels
+   */
+  @Override
+  public IPixel[][] getPixels() {
+    IPixel[][] image = new IPixel[height][width];
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      getRow(i, row);
+      for (int j = 0; j < width; j++) {
+        image[i][j] = new RGBPixel(red(row[j]), green(row[j]), blue(row[j]));
+      }
+    }
+    return image;
+  }
+
+  @Override
+  public IImage filterImage(ICommandTransformation command) {
+    return command.performTransformation(this);
+  }
+
+  @Override
+  public IImage colorTransform(AColorTransform command) {
+    return command.performTransformation(this);
+  }
+
+  /**
+   * Returns a down-scaled version of this image. Uses the same bilinear mapping as ImageImpl,
+   * computing the rows of the new image in parallel (see DownScaler).
+   *
+   * @param width  the new (smaller) width of the image
+   * @param height the new (smaller) height of the image
+   * @return a down-scaled IImage
+   * @throws IllegalArgumentException if dimensions are greater than original or negative.
+   */
+  @Override
+  public IImage downScale(double width, double height) throws IllegalArgumentException {
+    if (width > this.width || height > this.height || width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Dimensions are greater than original photo "
+          + "or negative.");
+    }
+
+    double origWidth = this.width;
+    double origHeight = this.height;
+    int scaledWidth = Math.toIntExact(Math.round(origWidth * (width / origWidth)));
+    int scaledHeight = Math.toIntExact(Math.round(origHeight * (height / origHeight)));
+    IRasterImage scaled = createBlank(scaledWidth, scaledHeight);
+    new DownScaler(this.width, this.height, scaledWidth, scaledHeight).scale(this,
+        scaled::setRow);
+    return scaled;
+  }
+
+  /**
+   * This method returns a mosaiced image by the given number of seeds. Every pixel takes the
+   * average color of the pixels that share its closest seed.
+   *
+   * @param seeds the number of seeds in the mosaic.
+   * @return a new image with the edits made.
+   * @throws IllegalArgumentException if the number of seeds is not between 1 and the number of
+   *                                  pixels in the image.
+   */
+  @Override
+  public IImage createMosaic(int seeds) throws IllegalArgumentException {
+    long area = (long) width * height;
+    if (seeds < 1 || seeds > area) {
+      throw new IllegalArgumentException("Invalid number of seeds.");
+    }
+
+    // Assign seeds to random, distinct positions
+    int[] seedRows = new int[seeds];
+    int[] seedCols = new int[seeds];
+    for (int s = 0; s < seeds; s++) {
+      long index = (long) (Math.random() * area);
+      while (isSeed(index, seedRows, seedCols, s)) {
+        index = (long) (Math.random() * area);
+      }
+      seedRows[s] = (int) (index / width);
+      seedCols[s] = (int) (index % width);
+    }
+
+    // Accumulate the totals of the pixels closest to each seed
+    long[] totals = new long[seeds * 3];
+    long[] sizes = new long[seeds];
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      getRow(i, row);
+      for (int j = 0; j < width; j++) {
+        int closest = closestSeed(i, j, seedRows, seedCols);
+        totals[closest * 3] += red(row[j]);
+        totals[closest * 3 + 1] += green(row[j]);
+        totals[closest * 3 + 2] += blue(row[j]);
+        sizes[closest]++;
+      }
+    }
+
+    // Every pixel takes the average color of its seed
+    int[] averages = new int[seeds];
+    for (int s = 0; s < seeds; s++) {
+      averages[s] = pack((int) (totals[s * 3] / sizes[s]), (int) (totals[s * 3 + 1] / sizes[s]),
+          (int) (totals[s * 3 + 2] / sizes[s]));
+    }
+    IRasterImage result = createBlank(width, height);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        row[j] = averages[closestSeed(i, j, seedRows, seedCols)];
+      }
+      result.setRow(i, row);
+    }
+    return result;
+  }
+
+  /**
+   * Determines if a position is already taken by one of the first seeds.
+   *
+   * @param index    the position as an index into the image
+   * @param seedRows the rows of the seeds
+   * @param seedCols the columns of the seeds
+   * @param count    the number of seeds placed so far
+   * @return true if a seed is already at the position
+   */
+  private boolean isSeed(long index, int[] seedRows, int[] seedCols, int count) {
+    for (int s = 0; s < count; s++) {
+      if ((long) seedRows[s] * width + seedCols[s] == index) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the seed closest to a pixel. Ties go to the seed placed first.
+   *
+   * @param row      the row of the pixel
+   * @param col      the column of the pixel
+   * @param seedRows the rows of the seeds
+   * @param seedCols the columns of the seeds
+   * @return the index of the closest seed
+   */
+  private static int closestSeed(int row, int col, int[] seedRows, int[] seedCols) {
+    int closest = 0;
+    long closestDistance = Long.MAX_VALUE;
+    for (int s = 0; s < seedRows.length; s++) {
+      long dRow = row - seedRows[s];
+      long dCol = col - seedCols[s];
+      long distance = dRow * dRow + dCol * dCol;
+      if (distance < closestDistance) {
+        closestDistance = distance;
+        closest = s;
+      }
+    }
+    return closest;
+  }
+
+  @Override
+  public IImage maskImage(IImage mask, ICommandTransformation transform)
+      throws IllegalArgumentException {
+    if (this.width != mask.getImageWidth() || this.height != mask.getImageHeight()) {
+      throw new IllegalArgumentException("Mask does not have same dimensions as original image.");
+    }
+
+    // Rows the mask does not touch are shared with this image, and an operation on each pixel
+    // alone is only computed for the rows it touches
+    IRowKernel kernel = MaskedImage.pixelKernel(transform);
+    if (kernel != null) {
+      return MaskedImage.mask(this, mask, kernel);
+    }
+    return MaskedImage.mask(this, mask, transform.performTransformation(this));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof IImage)) {
+      return false;
+    }
+
+    IImage other = (IImage) o;
+    if (this.width != other.getImageWidth() || this.height != other.getImageHeight()) {
+      return false;
+    }
+
+    // Same tolerance as ImageImpl: the value of each pixel may differ by one
+    int[] row = new int[width];
+    int[] otherRow = new int[width];
+    for (int i = 0; i < height; i++) {
+      getRow(i, row);
+      other.getRow(i, otherRow);
+      for (int j = 0; j < width; j++) {
+        if (Math.abs(value(row[j]) - value(otherRow[j])) > 1) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates the value (maximum component) of a packed pixel.
+   *
+   * @param rgb the packed pixel
+   * @return the value of the pixel
+   */
+  static int value(int rgb) {
+    return Math.max(red(rgb), Math.max(green(rgb), blue(rgb)));
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.width, this.height);
+  }
+}
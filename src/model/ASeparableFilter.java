@@ -0,0 +1,257 @@
+package model;
+
+/**
+ * Represents an abstract class for a blur with a separable kernel: a kernel that is the product
+ * of the same symmetric one-dimensional kernel across and down. The image is blurred with the
+ * one-dimensional kernel across each row and then down each column, which costs time
+ * proportional to the radius for every pixel rather than to its square. Pixels outside of the
+ * image are read through a BorderMode. A concrete class that extends this provides the weights
+ * to the constructor.
+ *
+ * <p>The weights are fixed-point numbers with 14 fractional bits that add up to exactly one, so a
+ * region of a single color keeps its color. The rows blurred across are kept with 6 fractional
+ * bits, in a ring of just the rows under the kernel, so each channel of the result is within one
+ * of the exact blur. The rows are blurred across as RowEngine prepares them, and down each column
+ * as it computes each row. An implementation of ICommandTransformation and IRowKernel.
+ */
+public abstract class ASeparableFilter implements ICommandTransformation, IRowKernel {
+
+  /**
+   * The number of fractional bits of the weights.
+   */
+  protected static final int WEIGHT_BITS = 14;
+  private static final int ROW_BITS = 6;
+
+  private final int radius;
+  private final int[] weights;
+  private final BorderMode border;
+
+  /**
+   * Constructor for an ASeparableFilter.
+   *
+   * @param weights the 2 * radius + 1 fixed-point weights of the one-dimensional kernel, which
+   *                add up to one
+   * @param border  how the pixels outside of the image are read
+   * @throws IllegalArgumentException if the weights or the border mode are null, or there is not
+   *                                  an odd number of weights
+   */
+  protected ASeparableFilter(int[] weights, BorderMode border) throws IllegalArgumentException {
+    if (weights == null || weights.length % 2 == 0 || border == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.weights = weights.clone();
+    this.radius = weights.length / 2;
+    this.border = border;
+  }
+
+  /**
+   * Creates fixed-point weights from a one-dimensional kernel. The weights are scaled to add up
+   * to one and rounded; any rounding error is added to the center weight, so that they add up to
+   * exactly one.
+   *
+   * @param kernel the 2 * radius + 1 weights of the kernel, in any scale
+   * @return the fixed-point weights
+   */
+  protected static int[] toFixed(double[] kernel) {
+    double total = 0;
+    for (double weight : kernel) {
+      total += weight;
+    }
+    int[] fixed = new int[kernel.length];
+    int sum = 0;
+    for (int i = 0; i < kernel.length; i++) {
+      fixed[i] = (int) Math.round(kernel[i] / total * (1 << WEIGHT_BITS));
+      sum += fixed[i];
+    }
+    fixed[kernel.length / 2] += (1 << WEIGHT_BITS) - sum;
+    return fixed;
+  }
+
+  /**
+   * Obtains the number of pixels the kernel reaches on each side of a pixel.
+   *
+   * @return the radius of the kernel
+   */
+  public int getRadius() {
+    return this.radius;
+  }
+
+  /**
+   * Obtains how this blur reads the pixels outside of an image.
+   *
+   * @return the border mode
+   */
+  public BorderMode getBorder() {
+    return this.border;
+  }
+
+  /**
+   * Produces a new blurred image based off the given one, a row at a time through RowEngine. A
+   * grayscale image stays grayscale and any other raster image keeps its kind of storage.
+   *
+   * @param image the image to be blurred.
+   * @return a new IImage that is the blurred version of the given one.
+   */
+  @Override
+  public IImage performTransformation(IImage image) {
+    return RowEngine.apply(image, this);
+  }
+
+  /**
+   * Blurs a PackedImage by overwriting its rows, keeping only the rows under the kernel; any
+   * other image gives a new image as by performTransformation.
+   *
+   * @param image an image that nothing else refers to
+   * @return the blurred image
+   */
+  @Override
+  public IImage performInPlace(IImage image) {
+    IImage computed = DeferredImage.computed(image);
+    if (computed instanceof PackedImage) {
+      return RowEngine.applyInPlace((PackedImage) computed, this);
+    }
+    return performTransformation(computed);
+  }
+
+  @Override
+  public int getReach() {
+    return this.radius;
+  }
+
+  /**
+   * Obtains the length of a row blurred across, which keeps three channels for every pixel.
+   *
+   * @param width the width of the image
+   * @return three times the width
+   */
+  @Override
+  public int getPreparedLength(int width) {
+    return 3 * width;
+  }
+
+  /**
+   * Blurs a row across, which is done once for every row of the image.
+   *
+   * @param row      the packed pixels of the row
+   * @param width    the width of the image
+   * @param prepared the array the fixed-point channels of the blurred row are written to
+   */
+  @Override
+  public void prepareRow(int[] row, int width, int[] prepared) {
+    blurRow(row, width, prepared);
+  }
+
+  /**
+   * Blurs a span of the rows blurred across down each column.
+   *
+   * @param rows        the rows blurred across, null where a row counts as zero
+   * @param width       the width of the image
+   * @param destination the array the packed blurred pixels are written to
+   * @param offset      the column of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  @Override
+  public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+    blurColumns(rows, destination, offset, length);
+  }
+
+  /**
+   * Determines if every blurred pixel is gray, which it is when the image is gray.
+   *
+   * @param graySource true if every pixel of the original image is gray
+   * @return true if the original image is gray
+   */
+  @Override
+  public boolean isGrayResult(boolean graySource) {
+    return graySource;
+  }
+
+  /**
+   * Blurs one row of packed pixels across, keeping each channel with 6 fractional bits. The
+   * pixels whose kernel lies inside of the row are summed without any check; only the pixels
+   * within the radius of either end map their neighbours through the border mode.
+   *
+   * @param row      the packed pixels of the row
+   * @param width    the width of the row
+   * @param channels the array the red, green and blue sums of each pixel are written to
+   */
+  private void blurRow(int[] row, int width, int[] channels) {
+    int size = weights.length;
+    int shift = WEIGHT_BITS - ROW_BITS;
+    int round = 1 << (shift - 1);
+    int interiorStart = Math.min(width, radius);
+    int interiorEnd = Math.max(interiorStart, width - radius);
+    for (int j = 0; j < width; j++) {
+      if (j == interiorStart) {
+        for (; j < interiorEnd; j++) {
+          int left = j - radius;
+          int redSum = 0;
+          int greenSum = 0;
+          int blueSum = 0;
+          for (int l = 0; l < size; l++) {
+            int rgb = row[left + l];
+            int weight = weights[l];
+            redSum += weight * ((rgb >> 16) & 0xFF);
+            greenSum += weight * ((rgb >> 8) & 0xFF);
+            blueSum += weight * (rgb & 0xFF);
+          }
+          channels[3 * j] = (redSum + round) >> shift;
+          channels[3 * j + 1] = (greenSum + round) >> shift;
+          channels[3 * j + 2] = (blueSum + round) >> shift;
+        }
+        if (j == width) {
+          break;
+        }
+      }
+
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      for (int l = 0; l < size; l++) {
+        int column = border.map(j - radius + l, width);
+        if (column < 0) {
+          continue;
+        }
+        int rgb = row[column];
+        int weight = weights[l];
+        redSum += weight * ((rgb >> 16) & 0xFF);
+        greenSum += weight * ((rgb >> 8) & 0xFF);
+        blueSum += weight * (rgb & 0xFF);
+      }
+      channels[3 * j] = (redSum + round) >> shift;
+      channels[3 * j + 1] = (greenSum + round) >> shift;
+      channels[3 * j + 2] = (blueSum + round) >> shift;
+    }
+  }
+
+  /**
+   * Blurs the rows under the kernel down each column into a span of a row of packed pixels.
+   *
+   * @param sources     the rows blurred across, or null for rows outside of the image
+   * @param destination the array the packed pixels are written to
+   * @param offset      the column of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  private void blurColumns(int[][] sources, int[] destination, int offset, int length) {
+    int shift = WEIGHT_BITS + ROW_BITS;
+    int round = 1 << (shift - 1);
+    for (int j = offset; j < offset + length; j++) {
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      for (int k = 0; k < sources.length; k++) {
+        int[] source = sources[k];
+        if (source == null) {
+          continue;
+        }
+        int weight = weights[k];
+        redSum += weight * source[3 * j];
+        greenSum += weight * source[3 * j + 1];
+        blueSum += weight * source[3 * j + 2];
+      }
+      destination[j] = ARasterImage.pack(ARasterImage.clamp((redSum + round) >> shift),
+          ARasterImage.clamp((greenSum + round) >> shift),
+          ARasterImage.clamp((blueSum + round) >> shift));
+    }
+  }
+}
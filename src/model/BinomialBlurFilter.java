@@ -0,0 +1,94 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents an operation to blur an image as many times as given with the 3 by 3 blur, in a
+ * single pass. The 3 by 3 blur is the product of the kernel (1/4, 1/2, 1/4) across and down, so
+ * blurring n times is the same as blurring once with that kernel convolved with itself n times:
+ * the binomial kernel of 2n + 1 weights C(2n, k) / 4^n. The binomial kernel is applied across and
+ * down the image as for every ASeparableFilter, so n blurs cost two passes over the image and no
+ * image in between.
+ *
+ * <p>Blurring once gives exactly the 3 by 3 blur. Blurring more times rounds each channel only
+ * once instead of after every blur, so the result is within one of the exact n-fold blur. With a
+ * mirror or wrap border, the pixels outside of the image are the same for every one of the n
+ * blurs, so the result is also that of blurring n times; with a zero or clamp border, each blur
+ * would treat the edges of the blurred image again, and the pixels near the edges differ. Weights
+ * too small to show in 14 fractional bits are left out, so a large count reaches less than three
+ * times the square root of the count away from each pixel. Extends ASeparableFilter.
+ */
+public class BinomialBlurFilter extends ASeparableFilter {
+
+  /**
+   * The largest number of blurs combined into one kernel.
+   */
+  public static final int MAX_COUNT = 500;
+
+  private final int count;
+
+  /**
+   * First constructor for BinomialBlurFilter. The pixels outside of the image count as zero.
+   *
+   * @param count the number of times to blur
+   * @throws IllegalArgumentException if the count is not between 1 and MAX_COUNT
+   */
+  public BinomialBlurFilter(int count) throws IllegalArgumentException {
+    this(count, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for BinomialBlurFilter.
+   *
+   * @param count  the number of times to blur
+   * @param border how the pixels outside of the image are read
+   * @throws IllegalArgumentException if the count is not between 1 and MAX_COUNT, or the border
+   *                                  mode is null
+   */
+  public BinomialBlurFilter(int count, BorderMode border) throws IllegalArgumentException {
+    super(createWeights(count), border);
+    this.count = count;
+  }
+
+  /**
+   * Creates the fixed-point weights of the binomial kernel of a number of blurs, without the
+   * weights at either end that round to zero.
+   *
+   * @param count the number of blurs
+   * @return the weights
+   * @throws IllegalArgumentException if the count is not between 1 and MAX_COUNT
+   */
+  private static int[] createWeights(int count) throws IllegalArgumentException {
+    if (count < 1 || count > MAX_COUNT) {
+      throw new IllegalArgumentException("The count must be between 1 and " + MAX_COUNT + ".");
+    }
+    // Convolve (1/4, 1/2, 1/4) with itself, which keeps every weight a fraction of one
+    double[] binomial = new double[2 * count + 1];
+    binomial[count] = 1;
+    for (int n = 1; n <= count; n++) {
+      double previous = 0;
+      for (int k = count - n; k <= count + n; k++) {
+        double current = binomial[k];
+        double next = k + 1 < binomial.length ? binomial[k + 1] : 0;
+        binomial[k] = previous / 4 + current / 2 + next / 4;
+        previous = current;
+      }
+    }
+
+    int[] fixed = toFixed(binomial);
+    int first = 0;
+    while (fixed[first] == 0) {
+      first++;
+    }
+    return Arrays.copyOfRange(fixed, first, fixed.length - first);
+  }
+
+  /**
+   * Obtains the number of times this filter blurs an image.
+   *
+   * @return the number of blurs
+   */
+  public int getCount() {
+    return this.count;
+  }
+}
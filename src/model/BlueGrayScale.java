@@ -7,7 +7,18 @@ package model;
 public class BlueGrayScale extends ACommandGrayScale {
 
   @Override
-  protected int returnNewValue(IPixel[][] pixels, int row, int col) {
-    return pixels[row][col].blueChannelPixel();
+  protected int returnNewValue(int red, int green, int blue) {
+    return blue;
+  }
+
+  /**
+   * Returns the blue plane of a planar image as a gray image without copying it.
+   *
+   * @param image the planar image
+   * @return a new GrayImage whose values are the blue plane, shared without copying
+   */
+  @Override
+  protected IImage performPlanar(PlanarImage image) {
+    return image.grayImage(image.bluePlane());
   }
 }
@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * Represents how a filter reads the pixels beyond the edges of an image. Filters never copy an
+ * image into a larger one with a border: they run a loop without any check over the pixels whose
+ * neighbourhood lies inside of the image, and map the positions outside of it with a border mode
+ * only near the edges.
+ */
+public enum BorderMode {
+
+  /**
+   * Pixels outside of the image are black, which darkens the edges of a blurred image. This is
+   * how the filters have always treated the edges.
+   */
+  ZERO,
+
+  /**
+   * Pixels outside of the image repeat the nearest pixel on the edge.
+   */
+  CLAMP,
+
+  /**
+   * Pixels outside of the image reflect the image about the pixels on its edge, without
+   * repeating them: the pixel one before the first is the second one.
+   */
+  MIRROR,
+
+  /**
+   * Pixels outside of the image repeat the image from its opposite edge, as if it were tiled.
+   */
+  WRAP;
+
+  /**
+   * Maps a row or column, which may be outside of the image, to the one whose pixels are read for
+   * it.
+   *
+   * @param index the row or column
+   * @param size  the height or width of the image
+   * @return a row or column inside of the image, or -1 if the pixels there count as zero
+   */
+  public int map(int index, int size) {
+    if (index >= 0 && index < size) {
+      return index;
+    }
+    switch (this) {
+      case CLAMP:
+        return index < 0 ? 0 : size - 1;
+      case MIRROR:
+        if (size == 1) {
+          return 0;
+        }
+        int period = 2 * (size - 1);
+        int reflected = Math.floorMod(index, period);
+        return reflected < size ? reflected : period - reflected;
+      case WRAP:
+        return Math.floorMod(index, size);
+      default:
+        return -1;
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package model;
+
+/**
+ * Represents an operation to blur an image by averaging the square of pixels around each pixel,
+ * reaching a given radius in every direction. The average is computed with running sums: moving
+ * along a row adds the pixel entering the square and subtracts the one leaving it, and moving
+ * down adds the row entering the square and subtracts the row leaving it. Every pixel therefore
+ * costs the same time whatever the radius, which suits wide background blurs.
+ *
+ * <p>Stacking several box blurs, each applied to the result of the one before, gives a smoother
+ * blur that comes close to a Gaussian blur; three passes are usually enough. Pixels outside of
+ * the image are read through a BorderMode, zero unless another one is given, and every average
+ * is rounded to the nearest whole value. Implements ICommandTransformation.
+ */
+public class BoxBlurFilter implements ICommandTransformation {
+
+  /**
+   * The largest radius, for which the sums of a channel over the square still fit in an int.
+   */
+  public static final int MAX_RADIUS = 1000;
+
+  private final int radius;
+  private final int passes;
+  private final BorderMode border;
+
+  /**
+   * First constructor for BoxBlurFilter. Blurs with a single box.
+   *
+   * @param radius the number of pixels the box reaches on each side of a pixel
+   * @throws IllegalArgumentException if the radius is not between 1 and MAX_RADIUS
+   */
+  public BoxBlurFilter(int radius) throws IllegalArgumentException {
+    this(radius, 1);
+  }
+
+  /**
+   * Second constructor for BoxBlurFilter. Blurs with a stack of boxes of the same radius.
+   *
+   * @param radius the number of pixels each box reaches on each side of a pixel
+   * @param passes the number of boxes applied one after the other
+   * @throws IllegalArgumentException if the radius is not between 1 and MAX_RADIUS or there is
+   *                                  not at least one pass
+   */
+  public BoxBlurFilter(int radius, int passes) throws IllegalArgumentException {
+    this(radius, passes, BorderMode.ZERO);
+  }
+
+  /**
+   * Third constructor for BoxBlurFilter. Blurs with a stack of boxes of the same radius, reading
+   * the pixels outside of the image through a border mode.
+   *
+   * @param radius the number of pixels each box reaches on each side of a pixel
+   * @param passes the number of boxes applied one after the other
+   * @param border how the pixels outside of the image are read
+   * @throws IllegalArgumentException if the radius is not between 1 and MAX_RADIUS, there is not
+   *                                  at least one pass, or the border mode is null
+   */
+  public BoxBlurFilter(int radius, int passes, BorderMode border)
+      throws IllegalArgumentException {
+    if (border == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    if (radius < 1 || radius > MAX_RADIUS) {
+      throw new IllegalArgumentException("The radius must be between 1 and " + MAX_RADIUS + ".");
+    }
+    if (passes < 1) {
+      throw new IllegalArgumentException("There must be at least one pass.");
+    }
+    this.radius = radius;
+    this.passes = passes;
+    this.border = border;
+  }
+
+  /**
+   * Obtains the number of pixels the box reaches on each side of a pixel.
+   *
+   * @return the radius
+   */
+  public int getRadius() {
+    return this.radius;
+  }
+
+  /**
+   * Obtains the number of boxes applied one after the other.
+   *
+   * @return the number of passes
+   */
+  public int getPasses() {
+    return this.passes;
+  }
+
+  /**
+   * Obtains how this blur reads the pixels outside of an image.
+   *
+   * @return the border mode
+   */
+  public BorderMode getBorder() {
+    return this.border;
+  }
+
+  /**
+   * Produces a new blurred image based off the given one. A grayscale image stays grayscale and
+   * any other raster image keeps its kind of storage.
+   *
+   * @param image the image to be blurred.
+   * @return a new IImage that is the blurred version of the given one.
+   */
+  @Override
+  public IImage performTransformation(IImage image) {
+    IImage blurred = image;
+    for (int pass = 0; pass < passes; pass++) {
+      blurred = blurOnce(blurred);
+    }
+    return blurred;
+  }
+
+  /**
+   * Blurs an image with a single box, in bands of rows that may run in parallel.
+   *
+   * @param image the image
+   * @return a new blurred image
+   */
+  private IImage blurOnce(IImage image) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    RowWriter writer = new RowWriter(image, width, height);
+    ParallelExecutor.forEachBand(height, width, 1 + 8 * radius,
+        (start, end) -> blurBand(image, writer, start, end));
+    return writer.image();
+  }
+
+  /**
+   * Blurs a band of rows of an image with a single box. The sums down each column start from the
+   * rows of the box above the first row of the band, so every band gives the same sums as
+   * running down the whole image.
+   *
+   * @param image  the image
+   * @param writer the writer the blurred rows are stored with
+   * @param start  the first row of the band
+   * @param end    the row after the last row of the band
+   */
+  private void blurBand(IImage image, RowWriter writer, int start, int end) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    int area = (2 * radius + 1) * (2 * radius + 1);
+
+    int[] row = new int[width];
+    int[] rowSums = new int[3 * width];
+    int[] columnSums = new int[3 * width];
+    int[] newRow = new int[width];
+
+    for (int k = start - radius; k < start + radius; k++) {
+      addRow(image, border.map(k, height), row, rowSums, columnSums, 1);
+    }
+
+    for (int i = start; i < end; i++) {
+      addRow(image, border.map(i + radius, height), row, rowSums, columnSums, 1);
+      for (int j = 0; j < width; j++) {
+        newRow[j] = ARasterImage.pack(average(columnSums[3 * j], area),
+            average(columnSums[3 * j + 1], area), average(columnSums[3 * j + 2], area));
+      }
+      writer.setRow(i, newRow);
+      // The row leaving the box is summed across again rather than kept for the whole height
+      addRow(image, border.map(i - radius, height), row, rowSums, columnSums, -1);
+    }
+  }
+
+  /**
+   * Sums a row of an image across with a running sum, and adds the sums to or subtracts them from
+   * the sums down each column. The columns entering and leaving the box are read through the
+   * border mode only within the radius of either end of the row.
+   *
+   * @param image      the image
+   * @param i          the index of the row, or -1 for a row that counts as zero
+   * @param row        a buffer for the packed pixels of the row
+   * @param rowSums    a buffer for the red, green and blue sums across the row
+   * @param columnSums the red, green and blue sums down each column
+   * @param sign       1 to add the row, -1 to subtract it
+   */
+  private void addRow(IImage image, int i, int[] row, int[] rowSums, int[] columnSums,
+      int sign) {
+    if (i < 0) {
+      return;
+    }
+    int width = row.length;
+    image.getRow(i, row);
+    int red = 0;
+    int green = 0;
+    int blue = 0;
+    for (int j = -radius; j < radius; j++) {
+      int column = border.map(j, width);
+      if (column >= 0) {
+        red += ARasterImage.red(row[column]);
+        green += ARasterImage.green(row[column]);
+        blue += ARasterImage.blue(row[column]);
+      }
+    }
+    for (int j = 0; j < width; j++) {
+      int enteringColumn = j + radius < width ? j + radius : border.map(j + radius, width);
+      if (enteringColumn >= 0) {
+        int entering = row[enteringColumn];
+        red += ARasterImage.red(entering);
+        green += ARasterImage.green(entering);
+        blue += ARasterImage.blue(entering);
+      }
+      rowSums[3 * j] = red;
+      rowSums[3 * j + 1] = green;
+      rowSums[3 * j + 2] = blue;
+      int leavingColumn = j - radius >= 0 ? j - radius : border.map(j - radius, width);
+      if (leavingColumn >= 0) {
+        int leaving = row[leavingColumn];
+        red -= ARasterImage.red(leaving);
+        green -= ARasterImage.green(leaving);
+        blue -= ARasterImage.blue(leaving);
+      }
+    }
+    for (int j = 0; j < rowSums.length; j++) {
+      columnSums[j] += sign * rowSums[j];
+    }
+  }
+
+  /**
+   * Divides a sum by the area of the box, rounding half up.
+   *
+   * @param sum  the sum of a channel over the box
+   * @param area the number of pixels in the box
+   * @return the average value of the channel
+   */
+  private static int average(int sum, int area) {
+    return (sum + area / 2) / area;
+  }
+}
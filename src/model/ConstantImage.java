@@ -0,0 +1,226 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents an Image in which every pixel has the same color. Only the dimensions and the
+ * packed 0xRRGGBB color are stored, so the image takes up the same memory at any size.
+ *
+ * <p>Operations that treat every pixel alike short-circuit: flipping returns the image itself,
+ * and brightening, grayscaling or color transforming it returns another constant image. A filter
+ * treats the pixels outside of the image as zero, so only the pixels near the edges differ from
+ * the rest; a filtered constant image computes a single row for all of the rows away from the
+ * top and bottom edges and shares it between them. Extends ARasterImage.
+ */
+public class ConstantImage extends ARasterImage {
+
+  private final int color;
+
+  /**
+   * First constructor for ConstantImage.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param color  the packed 0xRRGGBB color of every pixel
+   * @throws IllegalArgumentException if the dimensions are not positive
+   */
+  public ConstantImage(int width, int height, int color) throws IllegalArgumentException {
+    super(width, height);
+    this.color = color & 0xFFFFFF;
+  }
+
+  /**
+   * Second constructor for ConstantImage.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixel  the pixel to be replicated across the image
+   * @throws IllegalArgumentException if the dimensions are not positive or the pixel is null
+   */
+  public ConstantImage(int width, int height, IPixel pixel) throws IllegalArgumentException {
+    this(width, height, packed(pixel));
+  }
+
+  /**
+   * Packs a pixel, checking that it is not null.
+   *
+   * @param pixel the pixel
+   * @return the packed pixel
+   */
+  private static int packed(IPixel pixel) {
+    if (pixel == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    return pack(pixel.redChannelPixel(), pixel.greenChannelPixel(), pixel.blueChannelPixel());
+  }
+
+  /**
+   * Obtains the color of every pixel of this image.
+   *
+   * @return the packed 0xRRGGBB color
+   */
+  public int getColor() {
+    return this.color;
+  }
+
+  /**
+   * Creates a constant image with the same dimensions as this one and another color.
+   *
+   * @param color the packed 0xRRGGBB color
+   * @return this image if the color is the same, otherwise a new constant image
+   */
+  ConstantImage withColor(int color) {
+    return color == this.color ? this : new ConstantImage(width, height, color);
+  }
+
+  @Override
+  public IImage flipImageHorizontal() {
+    return this;
+  }
+
+  @Override
+  public IImage flipImageVertical() {
+    return this;
+  }
+
+  @Override
+  public IImage crop(int x, int y, int width, int height) throws IllegalArgumentException {
+    if (x < 0 || y < 0 || width < 1 || height < 1 || x + width > this.width
+        || y + height > this.height) {
+      throw new IllegalArgumentException("The rectangle is not inside of the image.");
+    }
+    return new ConstantImage(width, height, color);
+  }
+
+  @Override
+  public IImage transpose() {
+    return width == height ? this : new ConstantImage(height, width, color);
+  }
+
+  /**
+   * Creates a mosaic of this image. Every seed averages pixels of the same color, so the mosaic
+   * is the image itself.
+   *
+   * @param seeds the number of seeds in the mosaic.
+   * @return this image
+   * @throws IllegalArgumentException if the number of seeds is not between 1 and the number of
+   *                                  pixels in the image.
+   */
+  @Override
+  public IImage createMosaic(int seeds) throws IllegalArgumentException {
+    if (seeds < 1 || seeds > (long) width * height) {
+      throw new IllegalArgumentException("Invalid number of seeds.");
+    }
+    return this;
+  }
+
+  /**
+   * Applies a kernel to this image. With any border mode but zero, every pixel outside of the
+   * image has the color of the image too, so every pixel is filtered the same and the result is
+   * a constant image. With the zero border, every row away from the top and bottom edges sees the
+   * same pixels, so it is computed once and shared. If the result has a single color, it is a
+   * constant image again.
+   *
+   * @param kernel the kernel
+   * @param border how the pixels outside of the image are read
+   * @return a new filtered image
+   */
+  IImage convolve(ConvolutionKernel kernel, BorderMode border) {
+    int size = kernel.getSize();
+    int half = size / 2;
+    int[] constant = new int[width];
+    Arrays.fill(constant, color);
+    int[][] sources = new int[size][];
+    if (border != BorderMode.ZERO) {
+      Arrays.fill(sources, constant);
+      int[] pixel = new int[1];
+      kernel.apply(sources, width, 0, pixel, 1, border);
+      return withColor(pixel[0]);
+    }
+    int[][] rows = new int[height][];
+    int[] inner = null;
+    for (int i = 0; i < height; i++) {
+      boolean isInner = i >= half && i < height - half;
+      if (isInner && inner != null) {
+        rows[i] = inner;
+        continue;
+      }
+      for (int k = 0; k < size; k++) {
+        int row = i + k - half;
+        sources[k] = row < 0 || row >= height ? null : constant;
+      }
+      rows[i] = new int[width];
+      kernel.apply(sources, width, 0, rows[i], width, border);
+      if (isInner) {
+        inner = rows[i];
+      }
+    }
+
+    int first = rows[0][0];
+    int[] previous = null;
+    for (int[] row : rows) {
+      // The shared inner row only needs to be checked once
+      if (row == previous) {
+        continue;
+      }
+      for (int rgb : row) {
+        if (rgb != first) {
+          return MaskedImage.withRows(this, rows);
+        }
+      }
+      previous = row;
+    }
+    return new ConstantImage(width, height, first);
+  }
+
+  /**
+   * Obtains the pixels of this image. Every entry of the array is the same pixel.
+   *
+   * @return a new 2D array of pixels
+   */
+  @Override
+  public IPixel[][] getPixels() {
+    IPixel pixel = new RGBPixel(red(color), green(color), blue(color));
+    IPixel[][] image = new IPixel[height][width];
+    for (IPixel[] row : image) {
+      Arrays.fill(row, pixel);
+    }
+    return image;
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    return color;
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    Arrays.fill(buffer, 0, width, color);
+  }
+
+  @Override
+  public void copyTo(int[] destination) throws IllegalArgumentException {
+    if (destination == null || destination.length < (long) width * height) {
+      throw new IllegalArgumentException("The array is too short for the image.");
+    }
+    Arrays.fill(destination, 0, width * height, color);
+  }
+
+  /**
+   * A constant image has no storage for its pixels, so writing a row is not supported.
+   *
+   * @param row    the index of the row
+   * @param buffer the packed pixels of the row
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setRow(int row, int[] buffer) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException("A constant image cannot be written.");
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return new PackedImage(width, height);
+  }
+}
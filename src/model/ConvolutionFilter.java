@@ -0,0 +1,41 @@
+package model;
+
+/**
+ * Represents an operation to filter an image with any kernel, such as one given by the user in a
+ * script. Extends AConvolutionFilter.
+ */
+public class ConvolutionFilter extends AConvolutionFilter {
+
+  /**
+   * First constructor for ConvolutionFilter. The pixels outside of the image count as zero.
+   *
+   * @param kernel the kernel to filter images with
+   * @throws IllegalArgumentException if the kernel is null
+   */
+  public ConvolutionFilter(ConvolutionKernel kernel) throws IllegalArgumentException {
+    super(kernel);
+  }
+
+  /**
+   * Second constructor for ConvolutionFilter. The pixels outside of the image count as zero.
+   *
+   * @param kernel the weights of the kernel, row by row
+   * @throws IllegalArgumentException if the kernel is null, not square, of even size, or has a
+   *                                  weight that is not finite
+   */
+  public ConvolutionFilter(double[][] kernel) throws IllegalArgumentException {
+    this(new ConvolutionKernel(kernel));
+  }
+
+  /**
+   * Third constructor for ConvolutionFilter.
+   *
+   * @param kernel the kernel to filter images with
+   * @param border how the pixels outside of the image are read
+   * @throws IllegalArgumentException if the kernel or the border mode is null
+   */
+  public ConvolutionFilter(ConvolutionKernel kernel, BorderMode border)
+      throws IllegalArgumentException {
+    super(kernel, border);
+  }
+}
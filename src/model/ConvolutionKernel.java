@@ -0,0 +1,518 @@
+package model;
+
+/**
+ * Represents a square kernel of odd size, whose weights are applied to the pixels around each
+ * pixel of an image to filter it. The weight in the middle of the kernel is applied to the pixel
+ * itself. Pixels outside of the image are read through a BorderMode. The pixels whose neighbourhood
+ * lies inside of the image are filtered by a loop without any bounds check, and only the pixels
+ * near the edges map their neighbours through the border mode, so the image is never copied into
+ * a larger array with a border.
+ *
+ * <p>The three channels of a packed pixel are summed in the same pass, in the order of the rows
+ * and columns of the kernel, then rounded and clamped between 0 and 255. When every weight is a
+ * whole number of 1/2, 1/4, ... 1/65536 (as for the blur and sharpen kernels), the sums are kept
+ * in fixed-point integers instead of doubles. The fixed-point sums are exact, so they round to
+ * exactly the same channel values as the double sums would.
+ *
+ * <p>Any other kernel is summed in fixed-point too, with each weight rounded to the nearest
+ * multiple of 2 to the power of minus the most fractional bits (from 24 down to 8) for which the
+ * sums cannot overflow. The error of such a sum is bounded by the rounding of the weights, times
+ * 255 for each of them. A fixed-point sum is rounded half up like Math.round; only when its
+ * fraction is within that bound of one half, where the two sums could round differently, is the
+ * pixel summed again in doubles. The filtered channels are therefore always exactly those of the
+ * double sums.
+ */
+public final class ConvolutionKernel {
+
+  /**
+   * The largest number of fractional bits tried when a double kernel is converted to fixed-point.
+   */
+  private static final int MAX_FRACTION_BITS = 16;
+
+  /**
+   * The most and fewest fractional bits of the weights of a kernel that is rounded to fixed-point.
+   */
+  private static final int MAX_ROUNDED_BITS = 24;
+  private static final int MIN_ROUNDED_BITS = 8;
+
+  private final int size;
+  private final double[] weights;
+  private final int[] fixedWeights;
+  private final int shift;
+  private final int tolerance;
+
+  /**
+   * First constructor for ConvolutionKernel.
+   *
+   * @param kernel the weights of the kernel, row by row
+   * @throws IllegalArgumentException if the kernel is null, not square, of even size, or has a
+   *                                  weight that is not finite
+   */
+  public ConvolutionKernel(double[][] kernel) throws IllegalArgumentException {
+    this.size = checkedSize(kernel);
+    this.weights = new double[size * size];
+    for (int k = 0; k < size; k++) {
+      if (kernel[k] == null || kernel[k].length != size) {
+        throw new IllegalArgumentException("The kernel must be square.");
+      }
+      for (int l = 0; l < size; l++) {
+        if (!Double.isFinite(kernel[k][l])) {
+          throw new IllegalArgumentException("The weights of the kernel must be finite.");
+        }
+        weights[k * size + l] = kernel[k][l];
+      }
+    }
+
+    int[] fixed = null;
+    int bits = 0;
+    while (fixed == null && bits <= MAX_FRACTION_BITS) {
+      fixed = toFixed(weights, bits);
+      bits++;
+    }
+    bits--;
+    int error = 0;
+
+    // Otherwise, round the weights with as many fractional bits as the sums allow
+    if (fixed == null) {
+      bits = MAX_ROUNDED_BITS;
+      while (fixed == null && bits >= MIN_ROUNDED_BITS) {
+        fixed = toRounded(weights, bits);
+        bits--;
+      }
+      bits++;
+      error = fixed == null ? 0 : roundingError(weights, fixed, bits);
+    }
+    this.fixedWeights = fixed;
+    this.shift = bits;
+    this.tolerance = error;
+  }
+
+  /**
+   * Second constructor for ConvolutionKernel. Each weight of the kernel is the given integer
+   * divided by 2 to the power of the shift.
+   *
+   * @param kernel the fixed-point weights of the kernel, row by row
+   * @param shift  the number of fractional bits of the weights
+   * @throws IllegalArgumentException if the kernel is null, not square or of even size, or if the
+   *                                  shift is not between 0 and 30
+   */
+  public ConvolutionKernel(int[][] kernel, int shift) throws IllegalArgumentException {
+    if (shift < 0 || shift > 30) {
+      throw new IllegalArgumentException("The shift must be between 0 and 30.");
+    }
+    this.size = checkedSize(kernel);
+    this.weights = new double[size * size];
+    int[] fixed = new int[size * size];
+    for (int k = 0; k < size; k++) {
+      if (kernel[k] == null || kernel[k].length != size) {
+        throw new IllegalArgumentException("The kernel must be square.");
+      }
+      for (int l = 0; l < size; l++) {
+        fixed[k * size + l] = kernel[k][l];
+        weights[k * size + l] = kernel[k][l] / (double) (1 << shift);
+      }
+    }
+    // Sums that could overflow an int are done with the doubles instead
+    this.fixedWeights = fits(fixed, shift) ? fixed : null;
+    this.shift = shift;
+    this.tolerance = 0;
+  }
+
+  /**
+   * Checks that a kernel has an odd number of rows.
+   *
+   * @param rows the rows of the kernel
+   * @return the number of rows
+   */
+  private static int checkedSize(Object[] rows) {
+    if (rows == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    if (rows.length % 2 == 0) {
+      throw new IllegalArgumentException("The kernel must have an odd size.");
+    }
+    return rows.length;
+  }
+
+  /**
+   * Converts weights to fixed-point integers with the given number of fractional bits.
+   *
+   * @param weights the weights
+   * @param bits    the number of fractional bits
+   * @return the fixed-point weights, or null if some weight is not a whole number of them or the
+   *         sums could overflow
+   */
+  private static int[] toFixed(double[] weights, int bits) {
+    double scale = 1L << bits;
+    int[] fixed = new int[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      double scaled = weights[i] * scale;
+      if (scaled != Math.rint(scaled) || Math.abs(scaled) > Integer.MAX_VALUE) {
+        return null;
+      }
+      fixed[i] = (int) scaled;
+    }
+    return fits(fixed, bits) ? fixed : null;
+  }
+
+  /**
+   * Rounds weights to the nearest fixed-point integers with the given number of fractional bits.
+   *
+   * @param weights the weights
+   * @param bits    the number of fractional bits
+   * @return the fixed-point weights, or null if the sums could overflow
+   */
+  private static int[] toRounded(double[] weights, int bits) {
+    double scale = 1L << bits;
+    int[] fixed = new int[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      double scaled = Math.rint(weights[i] * scale);
+      if (Math.abs(scaled) > Integer.MAX_VALUE) {
+        return null;
+      }
+      fixed[i] = (int) scaled;
+    }
+    return fits(fixed, bits) ? fixed : null;
+  }
+
+  /**
+   * Bounds the distance between a sum of rounded fixed-point weights times channel values and the
+   * sum of the exact weights, in units of the last fractional bit. One unit is added for the error
+   * of the double sums themselves.
+   *
+   * @param weights the exact weights
+   * @param fixed   the rounded fixed-point weights
+   * @param bits    the number of fractional bits
+   * @return the bound on the error of a sum
+   */
+  private static int roundingError(double[] weights, int[] fixed, int bits) {
+    double scale = 1L << bits;
+    double error = 0;
+    for (int i = 0; i < weights.length; i++) {
+      error += Math.abs(weights[i] * scale - fixed[i]) * 255;
+    }
+    return (int) Math.ceil(error) + 1;
+  }
+
+  /**
+   * Determines if the sums of fixed-point weights times channel values always fit in an int.
+   *
+   * @param fixed the fixed-point weights
+   * @param shift the number of fractional bits
+   * @return true if no sum can overflow
+   */
+  private static boolean fits(int[] fixed, int shift) {
+    long bound = 1L << shift;
+    for (int weight : fixed) {
+      bound += Math.abs((long) weight) * 255;
+    }
+    return bound <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Obtains the number of rows and columns of this kernel.
+   *
+   * @return the size of the kernel
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Obtains one weight of this kernel.
+   *
+   * @param row    the row of the weight
+   * @param column the column of the weight
+   * @return the weight
+   * @throws IllegalArgumentException if the row or column is outside of the kernel
+   */
+  public double getWeight(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= size || column < 0 || column >= size) {
+      throw new IllegalArgumentException("The weight is outside of the kernel.");
+    }
+    return weights[row * size + column];
+  }
+
+  /**
+   * Determines if this kernel sums exactly in fixed-point integers.
+   *
+   * @return true if the sums are exact fixed-point sums
+   */
+  boolean isFixedPoint() {
+    return fixedWeights != null && tolerance == 0;
+  }
+
+  /**
+   * Determines if a fixed-point sum of rounded weights could round differently from the double
+   * sum, because its fraction is within the error of the sum of one half.
+   *
+   * @param sum  the fixed-point sum
+   * @param half half of one in fixed-point
+   * @return true if the pixel has to be summed in doubles
+   */
+  private boolean isNearHalf(int sum, int half) {
+    int fraction = (sum + half) & ((1 << shift) - 1);
+    return fraction <= tolerance || fraction >= (1 << shift) - tolerance;
+  }
+
+  /**
+   * Rounds a sum of a channel and clamps it between 0 and 255.
+   *
+   * @param sum the sum
+   * @return the channel value
+   */
+  private static int round(double sum) {
+    long value = Math.round(sum);
+    return value < 0 ? 0 : value > 255 ? 255 : (int) value;
+  }
+
+  /**
+   * Shifts a fixed-point sum of a channel back to a whole number, rounding half up exactly like
+   * Math.round, and clamps it between 0 and 255.
+   *
+   * @param sum  the fixed-point sum
+   * @param half half of one in fixed-point, or zero if there are no fractional bits
+   * @return the channel value
+   */
+  private int round(int sum, int half) {
+    return ARasterImage.clamp((sum + half) >> shift);
+  }
+
+  /**
+   * Filters a span of one row of packed pixels. The source rows are the rows of the image from
+   * half of the kernel above the filtered row to half of the kernel below it; a row that counts
+   * as zero is null. Destination pixel j is centered on column offset + j of the source rows.
+   * Columns of the source rows outside of [0, sourceWidth) are read through the border mode.
+   *
+   * <p>The pixels whose columns under the kernel are all inside of the source rows are filtered
+   * by a loop without any check. Only the pixels near the ends of the span gather the columns of
+   * the border into a small block of rows first.
+   *
+   * @param sources     the source rows, one per row of the kernel
+   * @param sourceWidth the number of columns of the source rows inside of the image
+   * @param offset      the column of the source rows under the first destination pixel
+   * @param destination the array the filtered pixels are written to
+   * @param length      the number of pixels to filter
+   * @param border      how the columns outside of the source rows are read
+   */
+  void apply(int[][] sources, int sourceWidth, int offset, int[] destination, int length,
+      BorderMode border) {
+    apply(sources, sourceWidth, offset, destination, 0, length, border);
+  }
+
+  /**
+   * Filters a span of one row of packed pixels into a span of a destination row that starts at
+   * any index, as apply does from the start of the destination.
+   *
+   * @param sources           the source rows, one per row of the kernel
+   * @param sourceWidth       the number of columns of the source rows inside of the image
+   * @param offset            the column of the source rows under the first destination pixel
+   * @param destination       the array the filtered pixels are written to
+   * @param destinationOffset the index of the first filtered pixel in the destination
+   * @param length            the number of pixels to filter
+   * @param border            how the columns outside of the source rows are read
+   */
+  void apply(int[][] sources, int sourceWidth, int offset, int[] destination,
+      int destinationOffset, int length, BorderMode border) {
+    int half = size / 2;
+    int interiorStart = Math.min(length, Math.max(0, half - offset));
+    int interiorEnd = Math.max(interiorStart, Math.min(length, sourceWidth - half - offset));
+    int[][] block = interiorStart > 0 || interiorEnd < length ? new int[size][size] : null;
+
+    for (int j = 0; j < interiorStart; j++) {
+      destination[destinationOffset + j] = applyEdge(sources, sourceWidth, offset + j, border,
+          block);
+    }
+    for (int j = interiorStart; j < interiorEnd; j++) {
+      destination[destinationOffset + j] = applyInterior(sources, offset + j - half);
+    }
+    for (int j = interiorEnd; j < length; j++) {
+      destination[destinationOffset + j] = applyEdge(sources, sourceWidth, offset + j, border,
+          block);
+    }
+  }
+
+  /**
+   * Filters a pixel whose columns under the kernel are all inside of the source rows.
+   *
+   * @param sources the source rows, null where a row counts as zero
+   * @param left    the column of the source rows under the first column of the kernel
+   * @return the filtered packed pixel
+   */
+  private int applyInterior(int[][] sources, int left) {
+    return fixedWeights != null ? applyFixed(sources, left) : applyDouble(sources, left);
+  }
+
+  /**
+   * Filters a pixel near the end of a span by gathering the pixels under the kernel, with the
+   * columns outside of the source rows read through the border mode, into a block of rows.
+   *
+   * @param sources     the source rows, null where a row counts as zero
+   * @param sourceWidth the number of columns of the source rows inside of the image
+   * @param center      the column of the source rows under the center of the kernel
+   * @param border      how the columns outside of the source rows are read
+   * @param block       a block of rows as wide as the kernel to gather the pixels into
+   * @return the filtered packed pixel
+   */
+  private int applyEdge(int[][] sources, int sourceWidth, int center, BorderMode border,
+      int[][] block) {
+    int half = size / 2;
+    int[][] rows = new int[size][];
+    for (int k = 0; k < size; k++) {
+      int[] source = sources[k];
+      if (source == null) {
+        continue;
+      }
+      rows[k] = block[k];
+      for (int l = 0; l < size; l++) {
+        int column = border.map(center - half + l, sourceWidth);
+        block[k][l] = column < 0 ? 0 : source[column];
+      }
+    }
+    return applyInterior(rows, 0);
+  }
+
+  /**
+   * Sums the channels of the pixels under the kernel in fixed-point. If the weights were rounded
+   * and a sum is too close to one half to be rounded with certainty, the pixel is summed in
+   * doubles instead.
+   *
+   * @param sources the source rows, null where a row counts as zero
+   * @param left    the column of the source rows under the first column of the kernel
+   * @return the filtered packed pixel
+   */
+  private int applyFixed(int[][] sources, int left) {
+    int redSum = 0;
+    int greenSum = 0;
+    int blueSum = 0;
+    for (int k = 0; k < size; k++) {
+      int[] source = sources[k];
+      if (source == null) {
+        continue;
+      }
+      int w = k * size;
+      for (int l = 0; l < size; l++) {
+        int rgb = source[left + l];
+        int weight = fixedWeights[w + l];
+        redSum += weight * ((rgb >> 16) & 0xFF);
+        greenSum += weight * ((rgb >> 8) & 0xFF);
+        blueSum += weight * (rgb & 0xFF);
+      }
+    }
+    int half = shift == 0 ? 0 : 1 << (shift - 1);
+    if (tolerance > 0 && (isNearHalf(redSum, half) || isNearHalf(greenSum, half)
+        || isNearHalf(blueSum, half))) {
+      return applyDouble(sources, left);
+    }
+    return ARasterImage.pack(round(redSum, half), round(greenSum, half), round(blueSum, half));
+  }
+
+  /**
+   * Sums the channels of the pixels under the kernel in doubles.
+   *
+   * @param sources the source rows, null where a row counts as zero
+   * @param left    the column of the source rows under the first column of the kernel
+   * @return the filtered packed pixel
+   */
+  private int applyDouble(int[][] sources, int left) {
+    double redSum = 0;
+    double greenSum = 0;
+    double blueSum = 0;
+    for (int k = 0; k < size; k++) {
+      int[] source = sources[k];
+      if (source == null) {
+        continue;
+      }
+      int w = k * size;
+      for (int l = 0; l < size; l++) {
+        int rgb = source[left + l];
+        double weight = weights[w + l];
+        redSum += weight * ((rgb >> 16) & 0xFF);
+        greenSum += weight * ((rgb >> 8) & 0xFF);
+        blueSum += weight * (rgb & 0xFF);
+      }
+    }
+    return ARasterImage.pack(round(redSum), round(greenSum), round(blueSum));
+  }
+
+  /**
+   * Filters a whole plane of one byte per pixel, such as the values of a grayscale image. The
+   * values under the kernel of a pixel away from the edges are summed straight from the plane;
+   * near the edges they are gathered through the border mode first.
+   *
+   * @param plane  the values of the plane, row by row
+   * @param width  the width of the plane
+   * @param height the height of the plane
+   * @param border how the values outside of the plane are read
+   * @return the filtered values
+   */
+  byte[] applyPlane(byte[] plane, int width, int height, BorderMode border) {
+    int half = size / 2;
+    byte[] result = new byte[plane.length];
+    int[][] block = new int[size][size];
+    int[][] rows = new int[size][];
+    int interiorStart = Math.min(width, half);
+    int interiorEnd = Math.max(interiorStart, width - half);
+
+    for (int i = 0; i < height; i++) {
+      boolean interiorRow = i >= half && i < height - half;
+      for (int j = 0; j < width; j++) {
+        if (interiorRow && j == interiorStart) {
+          for (; j < interiorEnd; j++) {
+            result[i * width + j] = (byte) planeInterior(plane, width, (i - half) * width
+                + j - half);
+          }
+          if (j == width) {
+            break;
+          }
+        }
+
+        // Gather the values under the kernel as gray pixels, through the border mode
+        for (int k = 0; k < size; k++) {
+          int row = border.map(i + k - half, height);
+          rows[k] = row < 0 ? null : block[k];
+          for (int l = 0; row >= 0 && l < size; l++) {
+            int column = border.map(j + l - half, width);
+            block[k][l] = column < 0 ? 0 : (plane[row * width + column] & 0xFF) * 0x010101;
+          }
+        }
+        result[i * width + j] = (byte) applyInterior(rows, 0);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Filters a value of a plane whose values under the kernel are all inside of the plane.
+   *
+   * @param plane the values of the plane, row by row
+   * @param width the width of the plane
+   * @param start the index of the value under the first row and column of the kernel
+   * @return the filtered value
+   */
+  private int planeInterior(byte[] plane, int width, int start) {
+    if (fixedWeights != null) {
+      int roundHalf = shift == 0 ? 0 : 1 << (shift - 1);
+      int fixedSum = 0;
+      for (int k = 0; k < size; k++) {
+        int rowStart = start + k * width;
+        int w = k * size;
+        for (int l = 0; l < size; l++) {
+          fixedSum += fixedWeights[w + l] * (plane[rowStart + l] & 0xFF);
+        }
+      }
+      if (tolerance == 0 || !isNearHalf(fixedSum, roundHalf)) {
+        return round(fixedSum, roundHalf);
+      }
+    }
+    double sum = 0;
+    for (int k = 0; k < size; k++) {
+      int rowStart = start + k * width;
+      int w = k * size;
+      for (int l = 0; l < size; l++) {
+        sum += weights[w + l] * (plane[rowStart + l] & 0xFF);
+      }
+    }
+    return round(sum);
+  }
+}
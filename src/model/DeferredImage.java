@@ -0,0 +1,219 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Represents the result of an operation on every pixel of an image that has not been computed
+ * yet. The operation runs the first time the pixels of the image are needed, and its result is
+ * kept; until then only the original image and the operation are stored. The operation, such as
+ * a color transform or a blur, leaves the dimensions of the image unchanged, so they are known
+ * without running it.
+ *
+ * <p>This lets a script chain such operations: a color transform of an image whose color
+ * transform has not run yet can start from the original image and run both in a single pass, as
+ * can a blur of an image whose blur has not run yet, and the image in between is only computed
+ * if something reads it. Every operation of IImage
+ * runs on the computed result.
+ *
+ * <p>An image created to overwrite its original image runs the operation in place
+ * (ICommandTransformation.performInPlace), so computing it does not take the memory of a second
+ * image. Only the holder of the only reference to the original image may create one, and the
+ * original image must only be read through it from then on. Implements IImage.
+ */
+public final class DeferredImage implements IImage {
+
+  private final IImage source;
+  private final ICommandTransformation operation;
+  private final boolean inPlace;
+  private IImage result;
+
+  /**
+   * First constructor for DeferredImage. The original image is left unchanged.
+   *
+   * @param source    the image the operation is applied to
+   * @param operation an operation that keeps the dimensions of the image
+   * @throws IllegalArgumentException if the image or the operation is null
+   */
+  public DeferredImage(IImage source, ICommandTransformation operation)
+      throws IllegalArgumentException {
+    this(source, operation, false);
+  }
+
+  /**
+   * Second constructor for DeferredImage.
+   *
+   * @param source    the image the operation is applied to
+   * @param operation an operation that keeps the dimensions of the image
+   * @param inPlace   true if the operation may overwrite the original image, which nothing else
+   *                  refers to
+   * @throws IllegalArgumentException if the image or the operation is null
+   */
+  public DeferredImage(IImage source, ICommandTransformation operation, boolean inPlace)
+      throws IllegalArgumentException {
+    if (source == null || operation == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.source = source;
+    this.operation = operation;
+    this.inPlace = inPlace;
+  }
+
+  /**
+   * Obtains the image the operation is applied to.
+   *
+   * @return the original image
+   */
+  public IImage getSource() {
+    return this.source;
+  }
+
+  /**
+   * Obtains the operation that computes this image.
+   *
+   * @return the operation
+   */
+  public ICommandTransformation getOperation() {
+    return this.operation;
+  }
+
+  /**
+   * Determines if computing this image may overwrite the original image. The original image of
+   * such an image must not be used for anything else, so another operation can only be chained
+   * onto it by one that overwrites it as well.
+   *
+   * @return true if the operation runs in place
+   */
+  public boolean isInPlace() {
+    return this.inPlace;
+  }
+
+  /**
+   * Determines if the pixels of this image have been computed.
+   *
+   * @return true if the operation has run
+   */
+  public synchronized boolean isComputed() {
+    return this.result != null;
+  }
+
+  /**
+   * Obtains the computed image, running the operation the first time.
+   *
+   * @return the result of the operation on the original image
+   */
+  public synchronized IImage image() {
+    if (result == null) {
+      result = Objects.requireNonNull(inPlace ? operation.performInPlace(source)
+          : operation.performTransformation(source));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the image holding the pixels of an image: the computed image of a DeferredImage,
+   * which is computed if it has not been, and otherwise the image itself. An operation that
+   * overwrites an image nothing else refers to overwrites the computed image of a DeferredImage,
+   * which nothing else refers to either.
+   *
+   * @param image the image
+   * @return the image holding its pixels
+   */
+  static IImage computed(IImage image) {
+    return image instanceof DeferredImage ? ((DeferredImage) image).image() : image;
+  }
+
+  /**
+   * Returns the image holding the pixels this image is computed from, or has been computed into.
+   *
+   * @return the original image before the operation runs, otherwise the computed image
+   */
+  synchronized IImage storage() {
+    return result == null ? source : result;
+  }
+
+  @Override
+  public IImage flipImageHorizontal() {
+    return image().flipImageHorizontal();
+  }
+
+  @Override
+  public IImage flipImageVertical() {
+    return image().flipImageVertical();
+  }
+
+  @Override
+  public IImage darkenBrightenImage(int increment) {
+    return image().darkenBrightenImage(increment);
+  }
+
+  @Override
+  public IImage grayScaleImage(ACommandGrayScale command) {
+    return image().grayScaleImage(command);
+  }
+
+  @Override
+  public int getImageWidth() {
+    return source.getImageWidth();
+  }
+
+  @Override
+  public IImage createMosaic(int seeds) {
+    return image().createMosaic(seeds);
+  }
+
+  @Override
+  public int getImageHeight() {
+    return source.getImageHeight();
+  }
+
+  @Override
+  public IPixel[][] getPixels() {
+    return image().getPixels();
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    return image().getRGB(x, y);
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    image().getRow(row, buffer);
+  }
+
+  @Override
+  public void copyTo(int[] destination) throws IllegalArgumentException {
+    image().copyTo(destination);
+  }
+
+  @Override
+  public IImage filterImage(ICommandTransformation command) {
+    return image().filterImage(command);
+  }
+
+  @Override
+  public IImage colorTransform(AColorTransform command) {
+    return image().colorTransform(command);
+  }
+
+  @Override
+  public IImage downScale(double width, double height) throws IllegalArgumentException {
+    return image().downScale(width, height);
+  }
+
+  @Override
+  public IImage maskImage(IImage mask, ICommandTransformation transform)
+      throws IllegalArgumentException {
+    return image().maskImage(mask, transform);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || image().equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return image().hashCode();
+  }
+}
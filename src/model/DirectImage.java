@@ -0,0 +1,145 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Represents an Image whose packed 0xRRGGBB pixels live outside of the Java heap, in direct
+ * buffers. A single direct buffer holds at most 1 GB, so the rows of the image are split into
+ * bands of whole rows, each with its own buffer; this lets an image grow past two gigapixels.
+ * Only a row at a time is ever copied onto the heap while an operation runs, and the result of
+ * every operation is another DirectImage.
+ *
+ * <p>An image should be closed once it is no longer needed. Closing only drops the references to
+ * the buffers, and any later use of the image throws an IllegalStateException; the memory of a
+ * buffer is given back by the buffer itself once the garbage collector finds nothing refers to it
+ * any more, not when the image is closed. Extends ARasterImage.
+ */
+public class DirectImage extends ARasterImage implements AutoCloseable {
+
+  private static final int MAX_BAND_BYTES = 1 << 30;
+
+  private final int maxBandBytes;
+  private final int rowsPerBand;
+  private IntBuffer[] bands;
+
+  /**
+   * Constructor for DirectImage. Creates a black image of the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @throws IllegalArgumentException if the dimensions are not positive
+   */
+  public DirectImage(int width, int height) throws IllegalArgumentException {
+    this(width, height, MAX_BAND_BYTES);
+  }
+
+  /**
+   * Creates a black image whose bands hold at most the given number of bytes.
+   *
+   * @param width        the width of the image
+   * @param height       the height of the image
+   * @param maxBandBytes the largest size of a band in bytes; a band always holds at least a row
+   * @throws IllegalArgumentException if the dimensions are not positive
+   */
+  DirectImage(int width, int height, int maxBandBytes) throws IllegalArgumentException {
+    super(width, height);
+    this.maxBandBytes = maxBandBytes;
+    this.rowsPerBand = Math.max(1, maxBandBytes / (width * 4));
+    int bandCount = (height + rowsPerBand - 1) / rowsPerBand;
+    this.bands = new IntBuffer[bandCount];
+    for (int b = 0; b < bandCount; b++) {
+      int rows = Math.min(rowsPerBand, height - b * rowsPerBand);
+      bands[b] = ByteBuffer.allocateDirect(rows * width * 4)
+          .order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+  }
+
+  /**
+   * Second constructor for DirectImage. Copies the pixels of any other image, a row at a time.
+   *
+   * @param image the image to be copied
+   * @throws IllegalArgumentException if the image is null
+   */
+  public DirectImage(IImage image) throws IllegalArgumentException {
+    this(checkedWidth(image), image.getImageHeight());
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      image.getRow(i, row);
+      setRow(i, row);
+    }
+  }
+
+  /**
+   * Returns the width of an image, checking that the image is not null.
+   *
+   * @param image the image
+   * @return the width of the image
+   */
+  private static int checkedWidth(IImage image) {
+    if (image == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    return image.getImageWidth();
+  }
+
+  /**
+   * Returns the band that holds a row, checking that the image is still open.
+   *
+   * @param row the index of the row
+   * @return the buffer of the band
+   * @throws IllegalStateException if the image has been closed
+   */
+  private IntBuffer band(int row) throws IllegalStateException {
+    IntBuffer[] bands = this.bands;
+    if (bands == null) {
+      throw new IllegalStateException("The image has been closed.");
+    }
+    return bands[row / rowsPerBand];
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    return band(y).get((y % rowsPerBand) * width + x);
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    IntBuffer band = band(row);
+    band.get((row % rowsPerBand) * width, buffer, 0, width);
+  }
+
+  @Override
+  public void setRow(int row, int[] buffer) {
+    IntBuffer band = band(row);
+    band.put((row % rowsPerBand) * width, buffer, 0, width);
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return new DirectImage(width, height, maxBandBytes);
+  }
+
+  /**
+   * Determines if this image has been closed.
+   *
+   * @return true if the image has been closed
+   */
+  public boolean isClosed() {
+    return this.bands == null;
+  }
+
+  /**
+   * Closes this image by dropping the references to its buffers. This does not release their
+   * memory at once: each buffer frees its memory when the garbage collector collects it, which
+   * this makes possible as soon as no other image (such as a view of this one) refers to it.
+   * The memory is not freed explicitly, since a row read by another thread while this image is
+   * closed would then read memory that has been freed. Closing an image twice has no effect.
+   */
+  @Override
+  public void close() {
+    this.bands = null;
+  }
+}
@@ -0,0 +1,153 @@
+package model;
+
+/**
+ * Computes a down-scaled image with the bilinear mapping of the downscale command. Every row of
+ * the new image reads the same columns of the original image with the same weights, so the
+ * columns and weights are computed once for every column of the new image and reused for every
+ * row, and the rows are computed in parallel bands (see ParallelExecutor), each reading the two
+ * rows of the original image around each of its rows.
+ *
+ * <p>Each component of a new pixel is computed as before: the two pixels of each row are mixed by
+ * the position between their columns and the two results by the position between the rows,
+ * truncating after each step, and a component that comes out as zero takes the value of the pixel
+ * above and to the left of the position instead.
+ */
+final class DownScaler {
+
+  /**
+   * Stores a row of the new image.
+   */
+  interface RowSink {
+
+    /**
+     * Stores a row of the new image. Different threads may store different rows.
+     *
+     * @param row    the index of the row
+     * @param pixels the packed pixels of the row, which may be reused once this returns
+     */
+    void setRow(int row, int[] pixels);
+  }
+
+  private final int origWidth;
+  private final int origHeight;
+  private final int scaledWidth;
+  private final int scaledHeight;
+  private final int[] floorX;
+  private final int[] ceilingX;
+  private final double[] xHigh;
+  private final double[] xLow;
+
+  /**
+   * Constructor for DownScaler, which computes the columns and weights of every column of the new
+   * image.
+   *
+   * @param origWidth    the width of the original image
+   * @param origHeight   the height of the original image
+   * @param scaledWidth  the width of the new image
+   * @param scaledHeight the height of the new image
+   */
+  DownScaler(int origWidth, int origHeight, int scaledWidth, int scaledHeight) {
+    this.origWidth = origWidth;
+    this.origHeight = origHeight;
+    this.scaledWidth = scaledWidth;
+    this.scaledHeight = scaledHeight;
+    this.floorX = new int[scaledWidth];
+    this.ceilingX = new int[scaledWidth];
+    this.xHigh = new double[scaledWidth];
+    this.xLow = new double[scaledWidth];
+    for (int j = 0; j < scaledWidth; j++) {
+      double xPosn = ((double) j / (double) scaledWidth) * origWidth;
+      floorX[j] = (int) Math.floor(xPosn);
+      ceilingX[j] = (int) Math.ceil(xPosn);
+      xHigh[j] = xPosn - floorX[j];
+      xLow[j] = ceilingX[j] - xPosn;
+    }
+  }
+
+  /**
+   * Computes every row of the new image from an image of the original dimensions.
+   *
+   * @param image the original image
+   * @param sink  where the new rows are stored
+   */
+  void scale(IImage image, RowSink sink) {
+    ParallelExecutor.forEachBand(scaledHeight, Math.max(scaledWidth, origWidth), 1,
+        (start, end) -> scaleRows(image, sink, start, end));
+  }
+
+  /**
+   * Computes a band of rows of the new image. A row of the original image that the previous row
+   * of the band read as well is not read again.
+   *
+   * @param image the original image
+   * @param sink  where the new rows are stored
+   * @param start the first row of the band
+   * @param end   the row after the last row of the band
+   */
+  private void scaleRows(IImage image, RowSink sink, int start, int end) {
+    int[] floorRow = new int[origWidth];
+    int[] ceilingRow = new int[origWidth];
+    int[] scaledRow = new int[scaledWidth];
+    int floorRead = -1;
+    int ceilingRead = -1;
+
+    for (int i = start; i < end; i++) {
+      double yPosn = ((double) i / (double) scaledHeight) * origHeight;
+      int floorY = (int) Math.floor(yPosn);
+      int ceilingY = (int) Math.ceil(yPosn);
+      if (floorY == ceilingRead) {
+        int[] swap = floorRow;
+        floorRow = ceilingRow;
+        ceilingRow = swap;
+        floorRead = ceilingRead;
+        ceilingRead = -1;
+      }
+      if (floorY != floorRead) {
+        image.getRow(floorY, floorRow);
+        floorRead = floorY;
+      }
+      if (ceilingY != ceilingRead) {
+        if (ceilingY == floorY) {
+          System.arraycopy(floorRow, 0, ceilingRow, 0, origWidth);
+        } else {
+          image.getRow(ceilingY, ceilingRow);
+        }
+        ceilingRead = ceilingY;
+      }
+      scaleRow(floorRow, ceilingRow, yPosn - floorY, ceilingY - yPosn, scaledRow);
+      sink.setRow(i, scaledRow);
+    }
+  }
+
+  /**
+   * Computes one row of the new image from the two rows of the original image around it.
+   *
+   * @param floorRow   the row of the original image above the position
+   * @param ceilingRow the row of the original image below the position
+   * @param yHigh      the weight of the row below
+   * @param yLow       the weight of the row above
+   * @param scaledRow  the array the packed new pixels are written to
+   */
+  private void scaleRow(int[] floorRow, int[] ceilingRow, double yHigh, double yLow,
+      int[] scaledRow) {
+    for (int j = 0; j < scaledWidth; j++) {
+      int pixelA = floorRow[floorX[j]];
+      int pixelB = floorRow[ceilingX[j]];
+      int pixelC = ceilingRow[floorX[j]];
+      int pixelD = ceilingRow[ceilingX[j]];
+      double high = xHigh[j];
+      double low = xLow[j];
+
+      int result = 0;
+      for (int shift = 16; shift >= 0; shift -= 8) {
+        int a = (pixelA >> shift) & 0xFF;
+        int m = (int) (((pixelB >> shift) & 0xFF) * high + a * low);
+        int n = (int) (((pixelD >> shift) & 0xFF) * high + ((pixelC >> shift) & 0xFF) * low);
+        int c = (int) (n * yHigh + m * yLow);
+        // If the floor and ceiling are equal the weights vanish, so keep the original value
+        result |= (c == 0 ? a : c) << shift;
+      }
+      scaledRow[j] = result;
+    }
+  }
+}
@@ -0,0 +1,319 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Applies a large kernel to an image through the fast Fourier transform, which costs time in
+ * proportion to the logarithm of the size of the kernel for every pixel rather than to its area.
+ *
+ * <p>The image is cut into square blocks, and each block is transformed together with the kernel
+ * padded to a power of two large enough that the block and the kernel do not wrap around. The
+ * filtered blocks overlap by the size of the kernel, and are added into a ring of rows just tall
+ * enough for one row of blocks and the kernel (overlap-add), so the memory used grows with the
+ * width of the image but not with its height. The red and green channels are transformed as the
+ * real and imaginary parts of one complex block, and the blue channel on its own. With a border
+ * mode other than zero, the blocks cover the pixels the border mode puts around the image too.
+ *
+ * <p>The sums of the transform differ from the direct sums by far less than a millionth. Each is
+ * rounded half up and clamped like the direct sums; only when one is close enough to one half
+ * that the two could round differently is the pixel summed again directly by the kernel. The
+ * filtered image is therefore always exactly the one the kernel gives.
+ */
+final class FourierConvolution {
+
+  /**
+   * The size of the smallest kernel that is applied through the Fourier transform.
+   */
+  static final int MIN_KERNEL_SIZE = 31;
+
+  /**
+   * The distance from one half, relative to the largest sum of a channel, below which a pixel is
+   * summed again directly.
+   */
+  private static final double GUARD = 1e-6;
+
+  private final ConvolutionKernel kernel;
+  private final int size;
+  private final int half;
+  private final int n;
+  private final int block;
+  private final double[] cos;
+  private final double[] sin;
+  private final int[] reverse;
+  private final double[] kernelRe;
+  private final double[] kernelIm;
+  private final double guard;
+
+  /**
+   * Constructor for FourierConvolution. Transforms the kernel once for every block.
+   *
+   * @param kernel the kernel
+   */
+  FourierConvolution(ConvolutionKernel kernel) {
+    this.kernel = kernel;
+    this.size = kernel.getSize();
+    this.half = size / 2;
+    this.n = Math.max(64, Integer.highestOneBit(4 * (size - 1) - 1) << 1);
+    this.block = n - size + 1;
+
+    this.cos = new double[n / 2];
+    this.sin = new double[n / 2];
+    for (int k = 0; k < n / 2; k++) {
+      cos[k] = Math.cos(2 * Math.PI * k / n);
+      sin[k] = Math.sin(2 * Math.PI * k / n);
+    }
+    this.reverse = new int[n];
+    int bits = Integer.numberOfTrailingZeros(n);
+    for (int i = 0; i < n; i++) {
+      reverse[i] = Integer.reverse(i) >>> (32 - bits);
+    }
+
+    // The kernel is flipped, since it is applied as a weighted sum around each pixel, and scaled
+    // by the 1 / (n * n) of the inverse transform
+    this.kernelRe = new double[n * n];
+    this.kernelIm = new double[n * n];
+    double absoluteSum = 0;
+    for (int k = 0; k < size; k++) {
+      for (int l = 0; l < size; l++) {
+        double weight = kernel.getWeight(size - 1 - k, size - 1 - l);
+        kernelRe[k * n + l] = weight / ((double) n * n);
+        absoluteSum += Math.abs(weight);
+      }
+    }
+    transform(kernelRe, kernelIm, size, false);
+    this.guard = GUARD * (1 + 255 * absoluteSum);
+  }
+
+  /**
+   * Applies the kernel to an image.
+   *
+   * @param image  the image
+   * @param border how the pixels outside of the image are read
+   * @return a new filtered image, with the same kind of storage as the image
+   */
+  IImage convolve(IImage image, BorderMode border) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    RowWriter writer = new RowWriter(image, width, height);
+
+    // The pixels that contribute to the image, including those the border mode adds around it
+    int margin = border == BorderMode.ZERO ? 0 : half;
+    int endRow = height + margin;
+    int endColumn = width + margin;
+
+    double[] redGreenRe = new double[n * n];
+    double[] redGreenIm = new double[n * n];
+    double[] blueRe = new double[n * n];
+    double[] blueIm = new double[n * n];
+    double[][] sums = new double[n][3 * width];
+    int[][] band = new int[block][width];
+    int[] newRow = new int[width];
+    int[] pixel = new int[1];
+    int[][] sources = new int[size][];
+    int[][] sourceRows = new int[size][width];
+    int nextRow = 0;
+
+    for (int y0 = -margin; y0 < endRow; y0 += block) {
+      int rows = Math.min(block, endRow - y0);
+      for (int p = 0; p < rows; p++) {
+        int row = border.map(y0 + p, height);
+        if (row < 0) {
+          Arrays.fill(band[p], 0);
+        } else {
+          image.getRow(row, band[p]);
+        }
+      }
+
+      for (int x0 = -margin; x0 < endColumn; x0 += block) {
+        int columns = Math.min(block, endColumn - x0);
+        Arrays.fill(redGreenRe, 0);
+        Arrays.fill(redGreenIm, 0);
+        Arrays.fill(blueRe, 0);
+        Arrays.fill(blueIm, 0);
+        for (int q = 0; q < columns; q++) {
+          int column = border.map(x0 + q, width);
+          if (column < 0) {
+            continue;
+          }
+          for (int p = 0; p < rows; p++) {
+            int rgb = band[p][column];
+            redGreenRe[p * n + q] = (rgb >> 16) & 0xFF;
+            redGreenIm[p * n + q] = (rgb >> 8) & 0xFF;
+            blueRe[p * n + q] = rgb & 0xFF;
+          }
+        }
+
+        transform(redGreenRe, redGreenIm, rows, false);
+        transform(blueRe, blueIm, rows, false);
+        multiply(redGreenRe, redGreenIm);
+        multiply(blueRe, blueIm);
+        transform(redGreenRe, redGreenIm, n, true);
+        transform(blueRe, blueIm, n, true);
+
+        // Add the filtered block to the rows and columns of the image it reaches
+        for (int m = 0; m < rows + size - 1; m++) {
+          int i = y0 - half + m;
+          if (i < 0 || i >= height) {
+            continue;
+          }
+          double[] sum = sums[i % n];
+          int first = Math.max(0, half - x0);
+          int last = Math.min(columns + size - 1, width - x0 + half);
+          for (int l = first; l < last; l++) {
+            int j = 3 * (x0 - half + l);
+            sum[j] += redGreenRe[m * n + l];
+            sum[j + 1] += redGreenIm[m * n + l];
+            sum[j + 2] += blueRe[m * n + l];
+          }
+        }
+      }
+
+      // The next row of blocks only reaches the rows from half a kernel above it
+      int finished = y0 + block >= endRow ? height : Math.min(height, y0 + block - half);
+      for (; nextRow < finished; nextRow++) {
+        double[] sum = sums[nextRow % n];
+        boolean loaded = false;
+        for (int j = 0; j < width; j++) {
+          double red = sum[3 * j];
+          double green = sum[3 * j + 1];
+          double blue = sum[3 * j + 2];
+          if (isNearHalf(red) || isNearHalf(green) || isNearHalf(blue)) {
+            if (!loaded) {
+              loadRows(image, nextRow, border, sources, sourceRows);
+              loaded = true;
+            }
+            kernel.apply(sources, width, j, pixel, 1, border);
+            newRow[j] = pixel[0];
+          } else {
+            newRow[j] = ARasterImage.pack(round(red), round(green), round(blue));
+          }
+        }
+        Arrays.fill(sum, 0);
+        writer.setRow(nextRow, newRow);
+      }
+    }
+    return writer.image();
+  }
+
+  /**
+   * Reads the rows of an image under the kernel of one row, for the pixels summed directly.
+   *
+   * @param image      the image
+   * @param row        the row being filtered
+   * @param border     how the rows outside of the image are read
+   * @param sources    the array the rows under the kernel are put in, null for rows of zeros
+   * @param sourceRows the buffers the rows are read into
+   */
+  private void loadRows(IImage image, int row, BorderMode border, int[][] sources,
+      int[][] sourceRows) {
+    for (int k = 0; k < size; k++) {
+      int source = border.map(row + k - half, image.getImageHeight());
+      if (source < 0) {
+        sources[k] = null;
+      } else {
+        image.getRow(source, sourceRows[k]);
+        sources[k] = sourceRows[k];
+      }
+    }
+  }
+
+  /**
+   * Determines if a sum of the transform could round differently from the direct sum.
+   *
+   * @param sum the sum
+   * @return true if the sum is within the guard of one half
+   */
+  private boolean isNearHalf(double sum) {
+    double shifted = sum + 0.5;
+    double fraction = shifted - Math.floor(shifted);
+    return fraction < guard || fraction > 1 - guard;
+  }
+
+  /**
+   * Rounds a sum of a channel half up and clamps it between 0 and 255.
+   *
+   * @param sum the sum
+   * @return the channel value
+   */
+  private static int round(double sum) {
+    long value = Math.round(sum);
+    return value < 0 ? 0 : value > 255 ? 255 : (int) value;
+  }
+
+  /**
+   * Multiplies a transformed block by the transformed kernel.
+   *
+   * @param re the real parts of the block
+   * @param im the imaginary parts of the block
+   */
+  private void multiply(double[] re, double[] im) {
+    for (int i = 0; i < re.length; i++) {
+      double a = re[i];
+      double b = im[i];
+      re[i] = a * kernelRe[i] - b * kernelIm[i];
+      im[i] = a * kernelIm[i] + b * kernelRe[i];
+    }
+  }
+
+  /**
+   * Transforms an n by n block in place, across each row and then down each column. The inverse
+   * transform is not scaled.
+   *
+   * @param re      the real parts, row by row
+   * @param im      the imaginary parts, row by row
+   * @param rows    the number of rows from the top that are not all zero
+   * @param inverse true for the inverse transform
+   */
+  private void transform(double[] re, double[] im, int rows, boolean inverse) {
+    for (int r = 0; r < rows; r++) {
+      transform(re, im, r * n, 1, inverse);
+    }
+    for (int c = 0; c < n; c++) {
+      transform(re, im, c, n, inverse);
+    }
+  }
+
+  /**
+   * Transforms n complex values spaced evenly in an array in place, with the radix-2
+   * Cooley-Tukey algorithm.
+   *
+   * @param re      the real parts
+   * @param im      the imaginary parts
+   * @param offset  the index of the first value
+   * @param stride  the distance between two values
+   * @param inverse true for the inverse transform
+   */
+  private void transform(double[] re, double[] im, int offset, int stride, boolean inverse) {
+    for (int i = 0; i < n; i++) {
+      int j = reverse[i];
+      if (j > i) {
+        int a = offset + i * stride;
+        int b = offset + j * stride;
+        double swap = re[a];
+        re[a] = re[b];
+        re[b] = swap;
+        swap = im[a];
+        im[a] = im[b];
+        im[b] = swap;
+      }
+    }
+    for (int length = 2; length <= n; length <<= 1) {
+      int halfLength = length >> 1;
+      int step = n / length;
+      for (int start = 0; start < n; start += length) {
+        for (int k = 0; k < halfLength; k++) {
+          double wr = cos[k * step];
+          double wi = inverse ? sin[k * step] : -sin[k * step];
+          int a = offset + (start + k) * stride;
+          int b = a + halfLength * stride;
+          double tr = re[b] * wr - im[b] * wi;
+          double ti = re[b] * wi + im[b] * wr;
+          re[b] = re[a] - tr;
+          im[b] = im[a] - ti;
+          re[a] += tr;
+          im[a] += ti;
+        }
+      }
+    }
+  }
+}
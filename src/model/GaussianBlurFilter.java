@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * Represents an operation to blur an image with a Gaussian kernel of any standard deviation
+ * (sigma) up to 100, past which the fixed-point weights are too coarse to keep the shape of the
+ * Gaussian. The kernel reaches three sigmas away from each pixel. A Gaussian kernel is separable,
+ * so it is applied across and then down the image as for every ASeparableFilter, and each channel
+ * of the result is within one of the exact Gaussian blur. Pixels outside of the image are read
+ * through a BorderMode, zero unless another one is given. Extends ASeparableFilter.
+ */
+public class GaussianBlurFilter extends ASeparableFilter {
+
+  private static final double MAX_SIGMA = 100;
+
+  private final double sigma;
+
+  /**
+   * First constructor for GaussianBlurFilter. The pixels outside of the image count as zero.
+   *
+   * @param sigma the standard deviation of the Gaussian, in pixels
+   * @throws IllegalArgumentException if sigma is not a positive number up to 100
+   */
+  public GaussianBlurFilter(double sigma) throws IllegalArgumentException {
+    this(sigma, BorderMode.ZERO);
+  }
+
+  /**
+   * Second constructor for GaussianBlurFilter.
+   *
+   * @param sigma  the standard deviation of the Gaussian, in pixels
+   * @param border how the pixels outside of the image are read
+   * @throws IllegalArgumentException if sigma is not a positive number up to 100, or the
+   *                                  border mode is null
+   */
+  public GaussianBlurFilter(double sigma, BorderMode border) throws IllegalArgumentException {
+    super(createWeights(sigma), border);
+    this.sigma = sigma;
+  }
+
+  /**
+   * Creates the fixed-point weights of a one-dimensional Gaussian kernel, reaching three sigmas
+   * away from the center.
+   *
+   * @param sigma the standard deviation
+   * @return the 2 * radius + 1 weights
+   * @throws IllegalArgumentException if sigma is not a positive number up to 100
+   */
+  private static int[] createWeights(double sigma) throws IllegalArgumentException {
+    if (!(sigma > 0) || sigma > MAX_SIGMA) {
+      throw new IllegalArgumentException("Sigma must be a positive number up to 100.");
+    }
+    int radius = (int) Math.ceil(3 * sigma);
+    double[] gaussian = new double[2 * radius + 1];
+    for (int i = -radius; i <= radius; i++) {
+      gaussian[i + radius] = Math.exp(-(i * i) / (2 * sigma * sigma));
+    }
+    return toFixed(gaussian);
+  }
+
+  /**
+   * Obtains the standard deviation of this blur.
+   *
+   * @return sigma, in pixels
+   */
+  public double getSigma() {
+    return this.sigma;
+  }
+}
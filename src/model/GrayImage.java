@@ -0,0 +1,173 @@
+package model;
+
+/**
+ * Represents a grayscale Image that stores a single unsigned byte per pixel. Every pixel has the
+ * same value in all three channels, so a grayscale image takes up a twelfth of the memory of an
+ * ImageImpl of RGBPixels and a quarter of a PackedImage. The grayscale commands return this kind
+ * of image, and filtering, brightening and masking it only ever work on one channel.
+ *
+ * <p>The values are never written after an image is created, so images may share them. Any
+ * operation that can produce a color, such as a color transformation, reads the image through
+ * ARasterImage and returns a PackedImage. Extends ARasterImage.
+ */
+public class GrayImage extends ARasterImage {
+
+  private final byte[] values;
+
+  /**
+   * First constructor for GrayImage. Wraps the given values without copying them.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param values the gray values, row by row, one unsigned byte per pixel
+   * @throws IllegalArgumentException if the dimensions are invalid or do not match the values
+   */
+  public GrayImage(int width, int height, byte[] values) throws IllegalArgumentException {
+    super(width, height);
+    if (values == null || values.length != width * height) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.values = values;
+  }
+
+  /**
+   * Second constructor for GrayImage. Creates a black image of the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @throws IllegalArgumentException if the dimensions are invalid
+   */
+  public GrayImage(int width, int height) throws IllegalArgumentException {
+    this(width, height, new byte[checkedArea(width, height)]);
+  }
+
+  /**
+   * Returns the values of this image. The values are shared, so they must not be written.
+   *
+   * @return the gray values, row by row
+   */
+  byte[] values() {
+    return this.values;
+  }
+
+  /**
+   * Counts how often each value from 0 - 255 appears in this image. As every channel holds the
+   * same value, this is the histogram of each of the channels as well as of the intensity.
+   *
+   * @return an array of 256 frequencies indexed by value
+   */
+  public int[] countValues() {
+    int[] frequencies = new int[256];
+    for (byte value : values) {
+      frequencies[value & 0xFF]++;
+    }
+    return frequencies;
+  }
+
+  /**
+   * Applies a kernel to this image. Values outside of the image are read through the border
+   * mode, and every sum is rounded and clamped to 0 - 255, exactly as the filters do for each
+   * channel of a color image.
+   *
+   * @param kernel the kernel
+   * @param border how the values outside of the image are read
+   * @return a new filtered grayscale image
+   */
+  GrayImage convolve(ConvolutionKernel kernel, BorderMode border) {
+    return new GrayImage(width, height, kernel.applyPlane(values, width, height, border));
+  }
+
+  /**
+   * Masks this image. When the mask and the transformed image are grayscale as well, the result
+   * is built from the values directly and stays grayscale.
+   *
+   * @param mask      the mask; the transformed pixel is taken wherever the mask is black
+   * @param transform the transformation to be applied
+   * @return a new masked image
+   * @throws IllegalArgumentException if the mask does not have the same dimensions
+   */
+  @Override
+  public IImage maskImage(IImage mask, ICommandTransformation transform)
+      throws IllegalArgumentException {
+    if (!(mask instanceof GrayImage)) {
+      return super.maskImage(mask, transform);
+    }
+    if (this.width != mask.getImageWidth() || this.height != mask.getImageHeight()) {
+      throw new IllegalArgumentException("Mask does not have same dimensions as original image.");
+    }
+
+    IImage transformed = transform.performTransformation(this);
+    if (!(transformed instanceof GrayImage)) {
+      return super.maskImage(mask, image -> transformed);
+    }
+    byte[] maskValues = ((GrayImage) mask).values;
+    byte[] transformedValues = ((GrayImage) transformed).values;
+    byte[] result = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = maskValues[i] == 0 ? transformedValues[i] : values[i];
+    }
+    return new GrayImage(width, height, result);
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    return (values[y * width + x] & 0xFF) * 0x010101;
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    int offset = row * width;
+    for (int j = 0; j < width; j++) {
+      buffer[j] = (values[offset + j] & 0xFF) * 0x010101;
+    }
+  }
+
+  /**
+   * Writes one row of packed pixels into the image. Only the gray images created by this class
+   * are written, so every pixel must have the same value in all three channels.
+   *
+   * @param row    the index of the row
+   * @param buffer the packed pixels of the row
+   * @throws IllegalArgumentException if a pixel of the row is not gray
+   */
+  @Override
+  public void setRow(int row, int[] buffer) throws IllegalArgumentException {
+    int offset = row * width;
+    for (int j = 0; j < width; j++) {
+      int rgb = buffer[j];
+      int value = blue(rgb);
+      if (red(rgb) != value || green(rgb) != value) {
+        throw new IllegalArgumentException("A grayscale image can only hold gray pixels.");
+      }
+      values[offset + j] = (byte) value;
+    }
+  }
+
+  /**
+   * Creates a new black image. Most operations on a grayscale image can produce colors, so the
+   * new image is a PackedImage.
+   *
+   * @param width  the width of the new image
+   * @param height the height of the new image
+   * @return a new blank PackedImage
+   */
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return new PackedImage(width, height);
+  }
+
+  /**
+   * Computes the area of an image, checking that its dimensions are positive.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @return the number of pixels of the image
+   */
+  private static int checkedArea(int width, int height) {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    return Math.multiplyExact(width, height);
+  }
+}
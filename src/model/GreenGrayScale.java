@@ -7,7 +7,18 @@ package model;
 public class GreenGrayScale extends ACommandGrayScale {
 
   @Override
-  protected int returnNewValue(IPixel[][] pixels, int row, int col) {
-    return pixels[row][col].greenChannelPixel();
+  protected int returnNewValue(int red, int green, int blue) {
+    return green;
+  }
+
+  /**
+   * Returns the green plane of a planar image as a gray image without copying it.
+   *
+   * @param image the planar image
+   * @return a new GrayImage whose values are the green plane, shared without copying
+   */
+  @Override
+  protected IImage performPlanar(PlanarImage image) {
+    return image.grayImage(image.greenPlane());
   }
 }
@@ -0,0 +1,155 @@
+package model;
+
+/**
+ * Represents how often each value from 0 - 255 appears in the red, green and blue channels of an
+ * image and in its intensity, the average of the three channels of a pixel rounded down.
+ *
+ * <p>All four are counted in a single pass over the image. The rows are split into bands that
+ * are counted in parallel (see ParallelExecutor), each band into counters of its own that are
+ * added to the totals once the band is done, so no counter is shared while counting. The values
+ * of a grayscale image are counted once, as every channel and the intensity hold the same value,
+ * and the planes of a PlanarImage are read directly.
+ */
+public final class Histogram {
+
+  private final int[] red;
+  private final int[] green;
+  private final int[] blue;
+  private final int[] intensity;
+
+  /**
+   * Constructor for Histogram.
+   *
+   * @param red       the frequencies of the red values
+   * @param green     the frequencies of the green values
+   * @param blue      the frequencies of the blue values
+   * @param intensity the frequencies of the intensities
+   */
+  private Histogram(int[] red, int[] green, int[] blue, int[] intensity) {
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+    this.intensity = intensity;
+  }
+
+  /**
+   * Counts the values of an image. An image that has not been computed yet is computed first.
+   *
+   * @param image the image
+   * @return the histogram of the image
+   * @throws IllegalArgumentException if the image is null
+   */
+  public static Histogram of(IImage image) throws IllegalArgumentException {
+    if (image == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    IImage source = DeferredImage.computed(image);
+    if (source instanceof GrayImage) {
+      int[] values = ((GrayImage) source).countValues();
+      return new Histogram(values, values.clone(), values.clone(), values.clone());
+    }
+
+    int width = source.getImageWidth();
+    PlanarImage planar = source instanceof PlanarImage ? (PlanarImage) source : null;
+    int[][] totals = new int[4][256];
+    ParallelExecutor.forEachBand(source.getImageHeight(), width, 1, (start, end) -> {
+      int[] red = new int[256];
+      int[] green = new int[256];
+      int[] blue = new int[256];
+      int[] intensity = new int[256];
+      if (planar != null) {
+        // Scan the band of each plane from start to end, without packing the pixels
+        byte[] redPlane = planar.redPlane();
+        byte[] greenPlane = planar.greenPlane();
+        byte[] bluePlane = planar.bluePlane();
+        for (int k = start * width; k < end * width; k++) {
+          count(redPlane[k] & 0xFF, greenPlane[k] & 0xFF, bluePlane[k] & 0xFF, red, green, blue,
+              intensity);
+        }
+      } else {
+        int[] row = new int[width];
+        for (int i = start; i < end; i++) {
+          source.getRow(i, row);
+          for (int j = 0; j < width; j++) {
+            count(ARasterImage.red(row[j]), ARasterImage.green(row[j]),
+                ARasterImage.blue(row[j]), red, green, blue, intensity);
+          }
+        }
+      }
+      synchronized (totals) {
+        add(totals[0], red);
+        add(totals[1], green);
+        add(totals[2], blue);
+        add(totals[3], intensity);
+      }
+    });
+    return new Histogram(totals[0], totals[1], totals[2], totals[3]);
+  }
+
+  /**
+   * Counts one pixel.
+   *
+   * @param r         the red component of the pixel
+   * @param g         the green component of the pixel
+   * @param b         the blue component of the pixel
+   * @param red       the frequencies of the red values
+   * @param green     the frequencies of the green values
+   * @param blue      the frequencies of the blue values
+   * @param intensity the frequencies of the intensities
+   */
+  private static void count(int r, int g, int b, int[] red, int[] green, int[] blue,
+      int[] intensity) {
+    red[r]++;
+    green[g]++;
+    blue[b]++;
+    intensity[(r + g + b) / 3]++;
+  }
+
+  /**
+   * Adds the counts of a band to the totals.
+   *
+   * @param totals the totals
+   * @param counts the counts of the band
+   */
+  private static void add(int[] totals, int[] counts) {
+    for (int v = 0; v < 256; v++) {
+      totals[v] += counts[v];
+    }
+  }
+
+  /**
+   * Obtains how often each red value appears.
+   *
+   * @return an array of 256 frequencies indexed by value
+   */
+  public int[] getRed() {
+    return red.clone();
+  }
+
+  /**
+   * Obtains how often each green value appears.
+   *
+   * @return an array of 256 frequencies indexed by value
+   */
+  public int[] getGreen() {
+    return green.clone();
+  }
+
+  /**
+   * Obtains how often each blue value appears.
+   *
+   * @return an array of 256 frequencies indexed by value
+   */
+  public int[] getBlue() {
+    return blue.clone();
+  }
+
+  /**
+   * Obtains how often each intensity appears.
+   *
+   * @return an array of 256 frequencies indexed by value
+   */
+  public int[] getIntensity() {
+    return intensity.clone();
+  }
+}
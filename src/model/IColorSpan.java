@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * Represents a way of applying the weighted sums of a color matrix to a span of packed pixels in
+ * place of the scalar loop of AColorTransform, with exactly the same results.
+ *
+ * <p>The only implementation, VectorColorSpan, uses the incubating Vector API. It is kept in the
+ * src-vector directory rather than in src, so that the rest of the program builds without the
+ * jdk.incubator.vector module, and load only creates it when that module is present at run time.
+ */
+interface IColorSpan {
+
+  /**
+   * Applies the weighted sums of a matrix to a span of packed pixels, clamping each new channel
+   * between 0 and 255. The source and destination may be the same array.
+   *
+   * @param rows              the weighted sums of the rows of the matrix
+   * @param sameRows          true if the three rows are the same, so only one sum is computed
+   * @param source            the packed source pixels
+   * @param sourceOffset      the index of the first source pixel
+   * @param destination       the array the packed new pixels are written to
+   * @param destinationOffset the index of the first new pixel
+   * @param length            the number of pixels
+   * @return true if the span was transformed, false if it is left to the scalar loop
+   */
+  boolean transformSpan(WeightedSum[] rows, boolean sameRows, int[] source, int sourceOffset,
+      int[] destination, int destinationOffset, int length);
+
+  /**
+   * Creates the vector implementation if the jdk.incubator.vector module is present at run time
+   * (with --add-modules jdk.incubator.vector) and the class was built.
+   *
+   * @return the vector implementation, or null if it cannot be used
+   */
+  static IColorSpan load() {
+    if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      return null;
+    }
+    try {
+      return (IColorSpan) Class.forName("model.VectorColorSpan").getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
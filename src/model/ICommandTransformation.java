@@ -11,4 +11,18 @@ public interface ICommandTransformation {
    * @return an image that has been converted to gray scale.
    */
   public IImage performTransformation(IImage image);
+
+  /**
+   * Applies this transformation to the given image, overwriting the pixels of the image itself
+   * where the transformation and the kind of image allow it, instead of creating a new image.
+   * The caller must hold the only reference to the image and to its pixels, since they change.
+   * An image that has not been computed yet (a DeferredImage) is computed first. By default a new
+   * image is created, as by performTransformation.
+   *
+   * @param image an image that nothing else refers to
+   * @return the transformed image, which is the given image if it was overwritten
+   */
+  default IImage performInPlace(IImage image) {
+    return performTransformation(image);
+  }
 }
\ No newline at end of file
@@ -52,11 +52,35 @@ public interface IImage {
   public int getImageHeight();
 
   /**
-   * Obtains the 2d array of pixels that make up an image.
+   * Obtains the 2d array of pixels that make up an image. The array is a copy, so this should
+   * not be called inside of a loop; getRGB, getRow and copyTo read pixels without copying.
    * @return 2d array of pixels.
    */
   public IPixel[][] getPixels();
 
+  /**
+   * Obtains one pixel of an image as a packed 0xRRGGBB integer.
+   * @param x the column of the pixel
+   * @param y the row of the pixel
+   * @return the packed pixel
+   * @throws IllegalArgumentException if the pixel is outside of the image
+   */
+  public int getRGB(int x, int y) throws IllegalArgumentException;
+
+  /**
+   * Copies one row of an image into the given buffer as packed 0xRRGGBB pixels.
+   * @param row the index of the row
+   * @param buffer the buffer to copy the row into, at least as long as the image is wide
+   */
+  public void getRow(int row, int[] buffer);
+
+  /**
+   * Copies every pixel of an image, row by row, into the given array as packed 0xRRGGBB pixels.
+   * @param destination the array to copy the pixels into, at least as long as the image has pixels
+   * @throws IllegalArgumentException if the array is too short
+   */
+  public void copyTo(int[] destination) throws IllegalArgumentException;
+
   /**
    * Given an operation/command to filter an image, returns the
    * new filtered image.
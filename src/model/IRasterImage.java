@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * Represents an image whose pixels can be read and written a row at a time as packed 0xRRGGBB
+ * integers. Operations on a raster image only ever hold a few rows in memory, so they work the
+ * same way whether the pixels are stored on the heap or off of it. Rows are read through getRow,
+ * which every IImage offers.
+ */
+public interface IRasterImage extends IImage {
+
+  /**
+   * Writes one row of packed 0xRRGGBB pixels into the image. Only meant for filling an image
+   * that was just created by createBlank; other images may share their storage.
+   * @param row the index of the row
+   * @param buffer the packed pixels of the row, at least as long as the image is wide
+   */
+  public void setRow(int row, int[] buffer);
+
+  /**
+   * Creates a new black image with the same kind of storage as this one.
+   * @param width the width of the new image
+   * @param height the height of the new image
+   * @return a new blank image
+   */
+  public IRasterImage createBlank(int width, int height);
+}
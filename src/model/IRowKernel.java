@@ -0,0 +1,81 @@
+package model;
+
+/**
+ * Represents an operation that computes an image a span of a row at a time from the rows of the
+ * original image around that row. An operation only computes the pixels of a span: RowEngine
+ * reads the rows of the image, keeps the rows the operation reads in a ring of buffers it reuses,
+ * maps the rows beyond the top and bottom edges through the border mode and stores the new rows,
+ * so every operation that implements this shares the same loop.
+ *
+ * <p>An operation on each pixel alone has a reach of zero and reads the rows of the image as they
+ * are. A filter reads the rows within its reach above and below the row it computes, each of them
+ * prepared once when it is read, for instance blurred across for a separable blur.
+ */
+public interface IRowKernel {
+
+  /**
+   * Obtains the number of rows this operation reads above and below the row it computes.
+   *
+   * @return the reach, zero for an operation on each pixel alone
+   */
+  default int getReach() {
+    return 0;
+  }
+
+  /**
+   * Obtains how this operation reads the rows and columns outside of an image.
+   *
+   * @return the border mode
+   */
+  default BorderMode getBorder() {
+    return BorderMode.ZERO;
+  }
+
+  /**
+   * Obtains the length of a row once it is prepared. Only used for an operation with a reach.
+   *
+   * @param width the width of the image
+   * @return the number of values of a prepared row
+   */
+  default int getPreparedLength(int width) {
+    return width;
+  }
+
+  /**
+   * Prepares a row of the image to be read by computeSpan. By default the row is copied as it
+   * is. Only used for an operation with a reach.
+   *
+   * @param row      the packed pixels of the row
+   * @param width    the width of the image
+   * @param prepared the array of getPreparedLength values the prepared row is written to
+   */
+  default void prepareRow(int[] row, int width, int[] prepared) {
+    System.arraycopy(row, 0, prepared, 0, width);
+  }
+
+  /**
+   * Computes a span of one row of the new image. The rows are the prepared rows of the image
+   * from the reach above the row to the reach below it, null where a row counts as zero. New
+   * pixel offset + j is computed from column offset + j of the rows; columns outside of
+   * [0, width) are read through the border mode. An operation with a reach of zero may be given
+   * the same array as its row and its destination, and any width as long as the span fits in it.
+   *
+   * @param rows        the prepared rows under the operation, 2 * reach + 1 of them
+   * @param width       the number of columns of the rows inside of the image
+   * @param destination the array the packed new pixels are written to
+   * @param offset      the column of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  void computeSpan(int[][] rows, int width, int[] destination, int offset, int length);
+
+  /**
+   * Determines if every pixel this operation computes is gray, so that the new image can be
+   * stored as a GrayImage. By default it is not.
+   *
+   * @param graySource true if every pixel of the original image is gray
+   * @return true if every new pixel is gray
+   */
+  default boolean isGrayResult(boolean graySource) {
+    return false;
+  }
+}
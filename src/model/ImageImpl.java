@@ -60,11 +60,13 @@ public class ImageImpl implements IImage {
     int width = this.getImageWidth();
     int height = this.getImageHeight();
     IPixel[][] pixels = new IPixel[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        pixels[i][j] = this.image[i][width - 1 - j];
+    ParallelExecutor.forEachBand(height, width, 1, (start, end) -> {
+      for (int i = start; i < end; i++) {
+        for (int j = 0; j < width; j++) {
+          pixels[i][j] = this.image[i][width - 1 - j];
+        }
       }
-    }
+    });
 
     return new ImageImpl(pixels);
   }
@@ -79,11 +81,13 @@ public class ImageImpl implements IImage {
     int width = this.getImageWidth();
     int height = this.getImageHeight();
     IPixel[][] pixels = new IPixel[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        pixels[i][j] = this.image[height - 1 - i][j];
+    ParallelExecutor.forEachBand(height, width, 1, (start, end) -> {
+      for (int i = start; i < end; i++) {
+        for (int j = 0; j < width; j++) {
+          pixels[i][j] = this.image[height - 1 - i][j];
+        }
       }
-    }
+    });
     IImage newImage = new ImageImpl(pixels);
     return newImage;
   }
@@ -95,16 +99,7 @@ public class ImageImpl implements IImage {
    */
   @Override
   public IImage darkenBrightenImage(int increment) {
-    int width = this.getImageWidth();
-    int height = this.getImageHeight();
-    IPixel[][] pixels = new IPixel[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        pixels[i][j] = this.image[i][j].brightenDarkenPixel(increment);
-      }
-    }
-
-    return new ImageImpl(pixels);
+    return PointOperation.brighten(increment).performTransformation(this);
   }
 
   /**
@@ -125,11 +120,7 @@ public class ImageImpl implements IImage {
    */
   @Override
   public int getImageWidth() {
-    int width = 0;
-    for (IPixel p : this.image[0]) {
-      width++;
-    }
-    return width;
+    return this.width;
   }
 
 
@@ -153,6 +144,46 @@ public class ImageImpl implements IImage {
     return this.image.clone();
   }
 
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+      throw new IllegalArgumentException("The pixel is outside of the image.");
+    }
+    return packPixel(this.image[y][x]);
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    IPixel[] pixels = this.image[row];
+    for (int j = 0; j < this.width; j++) {
+      buffer[j] = packPixel(pixels[j]);
+    }
+  }
+
+  @Override
+  public void copyTo(int[] destination) throws IllegalArgumentException {
+    if (destination == null || destination.length < this.width * this.height) {
+      throw new IllegalArgumentException("The array is too short for the image.");
+    }
+    for (int i = 0; i < this.height; i++) {
+      IPixel[] pixels = this.image[i];
+      for (int j = 0; j < this.width; j++) {
+        destination[i * this.width + j] = packPixel(pixels[j]);
+      }
+    }
+  }
+
+  /**
+   * Packs the components of a pixel into a single 0xRRGGBB integer.
+   *
+   * @param pixel the pixel
+   * @return the packed pixel
+   */
+  private static int packPixel(IPixel pixel) {
+    return ARasterImage.pack(pixel.redChannelPixel(), pixel.greenChannelPixel(),
+        pixel.blueChannelPixel());
+  }
+
   @Override
   public IImage filterImage(ICommandTransformation command) {
     return command.performTransformation(this);
@@ -177,29 +208,16 @@ public class ImageImpl implements IImage {
     // Compute dimensions of down-scaled image
     int scaledWidth = Math.toIntExact(Math.round(this.getImageWidth() * widthFactor));
     int scaledHeight = Math.toIntExact(Math.round(this.getImageHeight() * heightFactor));
-    double origWidth = (double) this.getImageWidth();
-    double origHeight = (double) this.getImageHeight();
 
-    // Grab pixels
-    IPixel[][] origPixels = this.getPixels();
+    // Compute the new rows from the packed rows of this image, in parallel bands
     IPixel[][] newPixels = new IPixel[scaledHeight][scaledWidth];
-
-    // Compute new floating positions of pixels from original photo
-    for (int i = 0; i < scaledHeight; i++) {
-      for (int j = 0; j < scaledWidth; j++) {
-        // Map the position in T to the position in S
-        double xPosn = clampDoublePosn(((double) j / (double) scaledWidth) * origWidth,
-            origWidth);
-        double yPosn = clampDoublePosn(((double) i / (double) scaledHeight) * origHeight,
-            origHeight);
-
-        // Return int array of size three, for each RGB value
-        IPixel newPixel = downScaleMappedValues(xPosn, yPosn, origPixels);
-
-        // Set new X and Y Posn to the new Pixel.
-        newPixels[i][j] = newPixel;
-      }
-    }
+    new DownScaler(this.width, this.height, scaledWidth, scaledHeight).scale(this,
+        (row, pixels) -> {
+          for (int j = 0; j < scaledWidth; j++) {
+            newPixels[row][j] = new RGBPixel(ARasterImage.red(pixels[j]),
+                ARasterImage.green(pixels[j]), ARasterImage.blue(pixels[j]));
+          }
+        });
 
     // New Downscaled image
     return new ImageImpl(newPixels);
@@ -213,7 +231,11 @@ public class ImageImpl implements IImage {
    * @return - a new image with the edits made.
    */
   public ImageImpl createMosaic(int seeds) {
-	IPixel[][] temp = this.getPixels();
+    // Copy every row, since the rows of this image may be shared with other images
+    IPixel[][] temp = new IPixel[this.height][];
+    for (int i = 0; i < this.height; i++) {
+      temp[i] = this.image[i].clone();
+    }
 
     // assign seeds to random positions
     Position2D[] seedLocations = generateRandomSeeds(seeds);
@@ -383,107 +405,6 @@ public class ImageImpl implements IImage {
     return answer;
   }
 
-
-  /**
-   * Clamps an estimated index to the maximum or minimum of an image's dimensions.
-   *
-   * @param value   the value to be clamped
-   * @param maximum the maximum index of an image
-   * @return the value, either clamped, or its original value
-   */
-  private double clampDoublePosn(double value, double maximum) {
-    if (value > maximum) {
-      return maximum - 1;
-    } else if (value < 0) {
-      return 0.00;
-    } else {
-      return value;
-    }
-  }
-
-  /**
-   * Returns the mapped pixel for a down-scaled image.
-   *
-   * @param newXPosn the x-position of the pixel in the original image.
-   * @param newYPosn the y-position of the pixel in the original image.
-   * @param pixels   the pixels of the original image.
-   * @return the mapped pixel for a down-scaled image.
-   */
-  private IPixel downScaleMappedValues(double newXPosn, double newYPosn, IPixel[][] pixels) {
-
-    int ceilingX = (int) Math.ceil(newXPosn);
-    int floorX = (int) Math.floor(newXPosn);
-    int ceilingY = (int) Math.ceil(newYPosn);
-    int floorY = (int) Math.floor(newYPosn);
-
-    // Compute four surrounding pixel posn's
-    IPixel origPixel = pixels[floorY][floorX];
-    IPixel pixelA = pixels[floorY][floorX];
-    IPixel pixelB = pixels[floorY][ceilingX];
-    IPixel pixelC = pixels[ceilingY][floorX];
-    IPixel pixelD = pixels[ceilingY][ceilingX];
-
-    // Compute m
-    int mR = computeMDownScale(pixelB.redChannelPixel(), pixelA.redChannelPixel(), newXPosn);
-    int mG = computeMDownScale(pixelB.greenChannelPixel(), pixelA.greenChannelPixel(), newXPosn);
-    int mB = computeMDownScale(pixelB.blueChannelPixel(), pixelA.blueChannelPixel(), newXPosn);
-    // Compute n
-    int nR = computeNDownScale(pixelD.redChannelPixel(), pixelC.redChannelPixel(), newXPosn);
-    int nG = computeNDownScale(pixelD.greenChannelPixel(), pixelC.greenChannelPixel(), newXPosn);
-    int nB = computeNDownScale(pixelD.blueChannelPixel(), pixelC.blueChannelPixel(), newXPosn);
-
-    // Compute value c
-    int cR = floorCeilEqualsZero((int) (nR * (newYPosn - Math.floor(newYPosn)) +
-        mR * (Math.ceil(newYPosn) - newYPosn)), origPixel.redChannelPixel());
-    int cG = floorCeilEqualsZero((int) (nG * (newYPosn - Math.floor(newYPosn)) +
-        mG * (Math.ceil(newYPosn) - newYPosn)), origPixel.greenChannelPixel());
-    int cB = floorCeilEqualsZero((int) (nB * (newYPosn - Math.floor(newYPosn)) +
-        mB * (Math.ceil(newYPosn) - newYPosn)), origPixel.blueChannelPixel());
-
-    return new RGBPixel(cR, cG, cB); // return new pixel
-  }
-
-  /**
-   * Given a component value and the current x-position of a pixel in S (original image), returns
-   * the n value.
-   *
-   * @param component1 one of the RGB values of a pixel
-   * @param component2 one of the RGB values of another pixel
-   * @return the n-value of a component
-   */
-  private int computeNDownScale(int component1, int component2, double xPosn) {
-    return (int) (component1 * (xPosn - Math.floor(xPosn)) +
-        component2 * (Math.ceil(xPosn) - xPosn));
-  }
-
-  /**
-   * Given a component value and the current x-position of a pixel in S (original image), returns
-   * the m value.
-   *
-   * @param component1 one of the RGB values of a pixel
-   * @param component2 one of the RGB values of another pixel
-   * @return the m-value of a component
-   */
-  private int computeMDownScale(int component1, int component2, double xPosn) {
-    return (int) (component1 * (xPosn - Math.floor(xPosn)) +
-        component2 * (Math.ceil(xPosn) - xPosn));
-  }
-
-  /**
-   * If the floor and ceiling happen to be equal and the result is zero, returns the value of the
-   * original pixel.
-   *
-   * @param value the value
-   * @return the floored value
-   */
-  private int floorCeilEqualsZero(int value, int originalValue) {
-    if (value == 0) {
-      return originalValue;
-    } else {
-      return value;
-    }
-  }
-
   @Override
   public IImage maskImage(IImage mask, ICommandTransformation transform)
       throws IllegalArgumentException {
@@ -498,29 +419,51 @@ public class ImageImpl implements IImage {
 
     // Create transformed image
     IImage transformedImage = transform.performTransformation(this);
-    IPixel[][] origPixels = this.getPixels();
-    IPixel[][] transPixels = transformedImage.getPixels();
-    IPixel[][] maskPixels = mask.getPixels();
-    IPixel[][] newPixels = new IPixel[maskHeight][maskWidth];
-
-    // Recur through mask to determine when to replace base pixels with transformed pixels
-    for (int i = 0; i < maskHeight; i++) {
-      for (int j = 0; j < maskWidth; j++) {
-        // Check if black pixel, then set to pixel in transformed image
-        if (maskPixels[i][j].intensityPixel() == 0) {
-          newPixels[i][j] = transPixels[i][j];
+    IPixel[][] newPixels = new IPixel[maskHeight][];
+
+    // Rows without any black pixel in the mask are shared with this image, not copied
+    ParallelExecutor.forEachBand(maskHeight, maskWidth, 1, (start, end) -> {
+      int[] maskRow = new int[maskWidth];
+      int[] transRow = new int[maskWidth];
+      for (int i = start; i < end; i++) {
+        mask.getRow(i, maskRow);
+        if (!hasBlackPixel(maskRow, maskWidth)) {
+          newPixels[i] = this.image[i];
+          continue;
         }
-        // Otherwise, do not change the pixel from original
-        else {
-          newPixels[i][j] = origPixels[i][j];
+
+        transformedImage.getRow(i, transRow);
+        newPixels[i] = this.image[i].clone();
+        for (int j = 0; j < maskWidth; j++) {
+          // Check if black pixel, then set to pixel in transformed image
+          if (MaskedImage.isBlack(maskRow[j])) {
+            newPixels[i][j] = new RGBPixel(ARasterImage.red(transRow[j]),
+                ARasterImage.green(transRow[j]), ARasterImage.blue(transRow[j]));
+          }
         }
       }
-    }
+    });
 
     // return resulting photo
     return new ImageImpl(newPixels);
   }
 
+  /**
+   * Determines if a row of a mask has any black pixel, that is a pixel with an intensity of zero.
+   *
+   * @param maskRow the packed pixels of the row
+   * @param width   the width of the row
+   * @return true if the row has a black pixel
+   */
+  private static boolean hasBlackPixel(int[] maskRow, int width) {
+    for (int j = 0; j < width; j++) {
+      if (MaskedImage.isBlack(maskRow[j])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -534,14 +477,16 @@ public class ImageImpl implements IImage {
 
     IImage other = (IImage) o;
 
-    if (this.getPixels().length != other.getPixels().length) {
+    if (this.height != other.getImageHeight() || this.width != other.getImageWidth()) {
       return false;
     }
 
-    for (int i = 0; i < this.getPixels().length; i++) {
-      for (int j = 0; j < this.getImageWidth(); j++) {
-        if (Math.abs(this.getPixels()[i][j].valuePixel()
-            - other.getPixels()[i][j].valuePixel()) > 1) {
+    // Read the other image a row at a time instead of copying its pixels
+    int[] otherRow = new int[this.width];
+    for (int i = 0; i < this.height; i++) {
+      other.getRow(i, otherRow);
+      for (int j = 0; j < this.width; j++) {
+        if (Math.abs(this.image[i][j].valuePixel() - ARasterImage.value(otherRow[j])) > 1) {
           return false;
         }
       }
@@ -552,6 +497,6 @@ public class ImageImpl implements IImage {
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.getPixels());
+    return Objects.hash(this.width, this.height);
   }
 }
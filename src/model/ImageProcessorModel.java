@@ -26,4 +26,16 @@ public interface ImageProcessorModel {
    * @return number of images.
    */
   public int countImages();
+
+  /**
+   * Determines if the image stored under a name may be overwritten in place: its pixels can be
+   * written, and no image stored under any other name refers to it or to its pixels. By default
+   * no image may be overwritten.
+   *
+   * @param imageName the name of the image
+   * @return true if the image can only be reached through the given name
+   */
+  default boolean isExclusive(String imageName) {
+    return false;
+  }
 }
@@ -34,14 +34,83 @@ public class ImageProcessorModelImpl implements ImageProcessorModel {
   }
 
   /**
-   * Adds an IImage with a String name to the map of stored images.
+   * Adds an IImage with a String name to the map of stored images. The model owns the images it
+   * stores: if the image replaces one that must be closed (such as a DirectImage), or a view or
+   * masked image of one, and that image is not stored under any other name, the replaced image
+   * is closed.
    *
    * @param image     the image to be added to map.
    * @param nameImage the name of the image to be added to map.
    */
   @Override
   public void addImage(String nameImage, IImage image) {
-    storedImages.put(nameImage, image);
+    IImage replaced = storage(storedImages.put(nameImage, image));
+    if (replaced instanceof AutoCloseable && !isStored(replaced)) {
+      try {
+        ((AutoCloseable) replaced).close();
+      } catch (Exception e) {
+        throw new IllegalStateException("Unable to release image " + nameImage + ".");
+      }
+    }
+  }
+
+  /**
+   * Determines if the given image is still stored under any name, either itself or as the
+   * storage of a stored view or masked image. Images are compared by identity, since two
+   * distinct images may hold equal pixels.
+   *
+   * @param image the image to look for
+   * @return true if the image is stored
+   */
+  private boolean isStored(IImage image) {
+    for (IImage stored : storedImages.values()) {
+      if (stored == image || storage(stored) == image) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the image holding the pixels of the given image, which may be the image itself. An
+   * image that has not been computed yet holds on to the image it is computed from.
+   *
+   * @param image the image
+   * @return the image whose storage the given image reads
+   */
+  private static IImage storage(IImage image) {
+    if (image instanceof ARasterImage) {
+      return ((ARasterImage) image).storage();
+    }
+    if (image instanceof DeferredImage) {
+      return storage(((DeferredImage) image).storage());
+    }
+    return image;
+  }
+
+  /**
+   * Determines if the image stored under a name may be overwritten in place. Only the pixels of a
+   * PackedImage are overwritten, since its array is never shared with another image; the image
+   * may be stored itself or be an image not yet computed from it. No image stored under any other
+   * name may be it, or a view, masked image or image not yet computed from it.
+   *
+   * @param imageName the name of the image
+   * @return true if the image can only be reached through the given name
+   */
+  @Override
+  public boolean isExclusive(String imageName) {
+    IImage image = storedImages.get(imageName);
+    IImage storage = storage(image);
+    if (!(storage instanceof PackedImage)) {
+      return false;
+    }
+    for (Map.Entry<String, IImage> entry : storedImages.entrySet()) {
+      if (!entry.getKey().equals(imageName)
+          && (entry.getValue() == image || storage(entry.getValue()) == storage)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
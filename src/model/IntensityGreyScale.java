@@ -7,7 +7,7 @@ package model;
 public class IntensityGreyScale extends ACommandGrayScale {
 
   @Override
-  protected int returnNewValue(IPixel[][] pixels, int row, int col) {
-    return pixels[row][col].intensityPixel();
+  protected int returnNewValue(int red, int green, int blue) {
+    return (red + green + blue) / 3;
   }
 }
@@ -0,0 +1,73 @@
+package model;
+
+/**
+ * Represents an operation to blur an image as many times as given with the 3 by 3 blur, one pass
+ * after another, so the result is exactly that of blurring the image that many times. Each pass
+ * after the first overwrites the image the pass before it created (see
+ * ICommandTransformation.performInPlace), so no image in between is kept.
+ *
+ * <p>With a zero or clamp border, every pass treats the edges of the image it blurs again, so
+ * BinomialBlurFilter, which blurs once with the combined kernel, differs from the passes near the
+ * edges; this filter is used for those border modes instead. Implements ICommandTransformation.
+ */
+public class IteratedBlurFilter implements ICommandTransformation {
+
+  private final int count;
+  private final BlurImageFilter blur;
+
+  /**
+   * Constructor for IteratedBlurFilter.
+   *
+   * @param count  the number of times to blur
+   * @param border how the pixels outside of the image are read by every pass
+   * @throws IllegalArgumentException if the count is less than one or the border mode is null
+   */
+  public IteratedBlurFilter(int count, BorderMode border) throws IllegalArgumentException {
+    if (count < 1) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.count = count;
+    this.blur = new BlurImageFilter(border);
+  }
+
+  /**
+   * Obtains the number of times this filter blurs an image.
+   *
+   * @return the number of blurs
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Obtains how every pass reads the pixels outside of an image.
+   *
+   * @return the border mode
+   */
+  public BorderMode getBorder() {
+    return blur.getBorder();
+  }
+
+  @Override
+  public IImage performTransformation(IImage image) {
+    return blurRest(blur.performTransformation(image));
+  }
+
+  @Override
+  public IImage performInPlace(IImage image) {
+    return blurRest(blur.performInPlace(image));
+  }
+
+  /**
+   * Blurs the image of the first pass the remaining number of times, overwriting it.
+   *
+   * @param image the image of the first pass, which nothing else refers to
+   * @return the blurred image
+   */
+  private IImage blurRest(IImage image) {
+    for (int n = 1; n < count; n++) {
+      image = blur.performInPlace(image);
+    }
+    return image;
+  }
+}
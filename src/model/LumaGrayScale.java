@@ -2,12 +2,13 @@ package model;
 
 /**
  * Represents a command to convert an image to luma-grayscale. An implementation of
- * ICommandGrayScaleImage.
+ * ICommandGrayScaleImage. The luma is summed in fixed-point, and rounds to exactly the same
+ * value as the weighted sum in doubles.
  */
 public class LumaGrayScale extends ACommandGrayScale {
 
   @Override
-  protected int returnNewValue(IPixel[][] pixels, int row, int col) {
-    return pixels[row][col].lumaPixel();
+  protected int returnNewValue(int red, int green, int blue) {
+    return WeightedSum.LUMA.apply(red, green, blue);
   }
 }
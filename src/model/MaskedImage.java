@@ -0,0 +1,220 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents the result of masking a raster image. Only the rows that the mask touches are
+ * stored; every other row is read from the original image, which is never written after it is
+ * created. Masking a masked image again keeps the same original image and only adds the rows the
+ * new mask touches, so a chain of masks costs memory for the masked rows alone. An operation on
+ * each pixel alone (see IRowKernel) is only computed for the rows the mask touches; any other
+ * transformation still runs on the whole image first. Extends ARasterImage.
+ */
+public class MaskedImage extends ARasterImage {
+
+  private final IRasterImage base;
+  private final int[][] rows;
+
+  /**
+   * Constructor for MaskedImage.
+   *
+   * @param base the image whose rows are read where no row is stored
+   * @param rows the stored rows, one per row of the image, null where the base row is used
+   */
+  private MaskedImage(IRasterImage base, int[][] rows) {
+    super(base.getImageWidth(), base.getImageHeight());
+    this.base = base;
+    this.rows = rows;
+  }
+
+  /**
+   * Masks a raster image. The transformed pixel is taken wherever the mask is black, that is
+   * where its intensity is zero; the rows of the transformed image are only read where the mask
+   * has a black pixel. Bands of rows may be masked in parallel.
+   *
+   * @param image       the image to be masked
+   * @param mask        the mask, with the same dimensions as the image
+   * @param transformed the transformed image, with the same dimensions as the image
+   * @return the masked image, or the image itself if the mask has no black pixel
+   */
+  static IRasterImage mask(IRasterImage image, IImage mask, IImage transformed) {
+    return mask(image, mask, transformed, null);
+  }
+
+  /**
+   * Masks a raster image with an operation on each pixel alone. The operation is only computed
+   * for the rows the mask has a black pixel in, from the first black pixel of each row on, so no
+   * transformed image is ever made.
+   *
+   * @param image  the image to be masked
+   * @param mask   the mask, with the same dimensions as the image
+   * @param kernel the operation, with a reach of zero
+   * @return the masked image, or the image itself if the mask has no black pixel
+   */
+  static IRasterImage mask(IRasterImage image, IImage mask, IRowKernel kernel) {
+    return mask(image, mask, null, kernel);
+  }
+
+  /**
+   * Masks a raster image with either a transformed image or an operation on each pixel alone.
+   *
+   * @param image       the image to be masked
+   * @param mask        the mask, with the same dimensions as the image
+   * @param transformed the transformed image, or null to compute the pixels with the kernel
+   * @param kernel      the operation with a reach of zero, used if there is no transformed image
+   * @return the masked image, or the image itself if the mask has no black pixel
+   */
+  private static IRasterImage mask(IRasterImage image, IImage mask, IImage transformed,
+      IRowKernel kernel) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    IRasterImage base = image;
+    int[][] rows = new int[height][];
+    if (image instanceof MaskedImage) {
+      base = ((MaskedImage) image).base;
+      rows = ((MaskedImage) image).rows.clone();
+    }
+
+    int[][] newRows = rows;
+    AtomicBoolean changed = new AtomicBoolean();
+    ParallelExecutor.forEachBand(height, width, 1, (start, end) -> {
+      int[] maskRow = new int[width];
+      int[] transformedRow = new int[width];
+      int[][] kernelRows = {transformedRow};
+      for (int i = start; i < end; i++) {
+        mask.getRow(i, maskRow);
+        int first = firstBlack(maskRow, width);
+        if (first == width) {
+          continue;
+        }
+
+        int[] row = new int[width];
+        image.getRow(i, row);
+        if (transformed != null) {
+          transformed.getRow(i, transformedRow);
+        } else {
+          System.arraycopy(row, 0, transformedRow, 0, width);
+          kernel.computeSpan(kernelRows, width, transformedRow, first, width - first);
+        }
+        for (int j = first; j < width; j++) {
+          if (isBlack(maskRow[j])) {
+            row[j] = transformedRow[j];
+          }
+        }
+        newRows[i] = row;
+        changed.set(true);
+      }
+    });
+
+    if (!changed.get()) {
+      return image;
+    }
+    return new MaskedImage(base, rows);
+  }
+
+  /**
+   * Creates an image from rows that were computed elsewhere. Several rows may be the same array,
+   * since no row is ever written.
+   *
+   * @param base the image whose rows are read where no row is given
+   * @param rows the rows, one per row of the base, null where the base row is used
+   * @return the new image
+   */
+  static IRasterImage withRows(IRasterImage base, int[][] rows) {
+    return new MaskedImage(base, rows);
+  }
+
+  /**
+   * Obtains the operation on each pixel alone that a transformation is, which a mask only needs
+   * to compute where it is black.
+   *
+   * @param transform the transformation
+   * @return the transformation as an IRowKernel with a reach of zero, or null if it is not one
+   */
+  static IRowKernel pixelKernel(ICommandTransformation transform) {
+    if (transform instanceof IRowKernel && ((IRowKernel) transform).getReach() == 0) {
+      return (IRowKernel) transform;
+    }
+    return null;
+  }
+
+  /**
+   * Finds the first black pixel of a row of a mask.
+   *
+   * @param maskRow the packed pixels of the row
+   * @param width   the width of the row
+   * @return the column of the first black pixel, or the width if there is none
+   */
+  private static int firstBlack(int[] maskRow, int width) {
+    for (int j = 0; j < width; j++) {
+      if (isBlack(maskRow[j])) {
+        return j;
+      }
+    }
+    return width;
+  }
+
+  /**
+   * Determines if a pixel of a mask is black, that is if its intensity is zero.
+   *
+   * @param rgb the packed pixel of the mask
+   * @return true if the pixel is black
+   */
+  static boolean isBlack(int rgb) {
+    return (red(rgb) + green(rgb) + blue(rgb)) / 3 == 0;
+  }
+
+  /**
+   * Counts the rows this image stores itself rather than reading from its base.
+   *
+   * @return the number of stored rows
+   */
+  int storedRows() {
+    int count = 0;
+    for (int[] row : rows) {
+      if (row != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  IRasterImage storage() {
+    return base instanceof ARasterImage ? ((ARasterImage) base).storage() : base;
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    int[] row = rows[y];
+    return row == null ? base.getRGB(x, y) : row[x];
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    int[] stored = rows[row];
+    if (stored == null) {
+      base.getRow(row, buffer);
+    } else {
+      System.arraycopy(stored, 0, buffer, 0, width);
+    }
+  }
+
+  /**
+   * Rows may be shared with other images, so writing a row is not supported.
+   *
+   * @param row    the index of the row
+   * @param buffer the packed pixels of the row
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setRow(int row, int[] buffer) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException("A masked image cannot be written.");
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return base.createBlank(width, height);
+  }
+}
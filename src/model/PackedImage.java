@@ -0,0 +1,147 @@
+package model;
+
+/**
+ * Represents an Image whose pixels are stored in one contiguous array of packed integers. Each
+ * pixel takes up a single int laid out as 0xRRGGBB (the top byte is unused), and pixels are
+ * stored row by row. Unlike ImageImpl, no IPixel objects are created while an operation runs,
+ * so an image costs about 4 bytes per pixel. Extends ARasterImage.
+ */
+public class PackedImage extends ARasterImage {
+
+  private final int[] pixels;
+
+  /**
+   * First constructor for PackedImage. Wraps the given array of packed pixels without copying it.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the packed 0xRRGGBB pixels of the image, row by row
+   * @throws IllegalArgumentException if the dimensions are invalid or do not match the array
+   */
+  public PackedImage(int width, int height, int[] pixels) throws IllegalArgumentException {
+    super(width, height);
+    if (pixels == null || pixels.length != width * height) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.pixels = pixels;
+  }
+
+  /**
+   * Second constructor for PackedImage. Creates a black image of the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @throws IllegalArgumentException if the dimensions are invalid
+   */
+  public PackedImage(int width, int height) throws IllegalArgumentException {
+    this(width, height, new int[checkedArea(width, height)]);
+  }
+
+  /**
+   * Third constructor for PackedImage. Copies the values of a 2D array of pixels.
+   *
+   * @param image 2D array of pixels that make up an image.
+   * @throws IllegalArgumentException if the array is null or empty
+   */
+  public PackedImage(IPixel[][] image) throws IllegalArgumentException {
+    this(columns(image), image.length);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        IPixel pixel = image[i][j];
+        pixels[i * width + j] = pack(pixel.redChannelPixel(), pixel.greenChannelPixel(),
+            pixel.blueChannelPixel());
+      }
+    }
+  }
+
+  /**
+   * Returns the backing array of this image. Operations in the model read and write it directly,
+   * so it must not be handed out of the package.
+   *
+   * @return the packed pixels, row by row
+   */
+  int[] packedPixels() {
+    return this.pixels;
+  }
+
+  /**
+   * Returns a copy of the packed pixels of this image.
+   *
+   * @return a new array of the packed 0xRRGGBB pixels, row by row
+   */
+  public int[] copyPixels() {
+    return this.pixels.clone();
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    return pixels[y * width + x];
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    System.arraycopy(pixels, row * width, buffer, 0, width);
+  }
+
+  @Override
+  public void copyTo(int[] destination) throws IllegalArgumentException {
+    if (destination == null || destination.length < pixels.length) {
+      throw new IllegalArgumentException("The array is too short for the image.");
+    }
+    System.arraycopy(pixels, 0, destination, 0, pixels.length);
+  }
+
+  @Override
+  public void setRow(int row, int[] buffer) {
+    System.arraycopy(buffer, 0, pixels, row * width, width);
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return new PackedImage(width, height);
+  }
+
+  /**
+   * Returns the packed pixels of any image. The array of a PackedImage is shared, any other image
+   * is copied into a new array.
+   *
+   * @param image the image
+   * @return the packed pixels of the image, row by row
+   */
+  static int[] toPacked(IImage image) {
+    if (image instanceof PackedImage) {
+      return ((PackedImage) image).pixels;
+    }
+    int[] packed = new int[checkedArea(image.getImageWidth(), image.getImageHeight())];
+    image.copyTo(packed);
+    return packed;
+  }
+
+  /**
+   * Computes the area of an image, checking that its dimensions are positive.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @return the number of pixels of the image
+   */
+  private static int checkedArea(int width, int height) {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    return Math.multiplyExact(width, height);
+  }
+
+  /**
+   * Obtains the number of columns of a 2D array of pixels.
+   *
+   * @param image the 2D array of pixels
+   * @return the number of columns
+   */
+  private static int columns(IPixel[][] image) {
+    if (image == null || image.length == 0 || image[0] == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    return image[0].length;
+  }
+}
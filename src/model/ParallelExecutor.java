@@ -0,0 +1,165 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the work of an operation on an image in parallel, as bands of rows (or of rows of tiles)
+ * on a ForkJoinPool. Every band computes its own rows from the original image, reading the rows
+ * around it that a filter needs (its halo) itself, and writes only its own rows, so the result
+ * does not depend on the number of bands or the order they run in: it is exactly the image a
+ * single band gives.
+ *
+ * <p>The degree of parallelism applies to every operation, and is the number of processors
+ * unless it is set otherwise. With a parallelism of one, or for an image too small to be worth
+ * splitting, an operation runs in a single band on the calling thread.
+ */
+public final class ParallelExecutor {
+
+  /**
+   * The fewest pixels worth giving a band of their own.
+   */
+  static final int MIN_BAND_PIXELS = 1 << 16;
+
+  /**
+   * The number of bands given to each thread, so that a thread that finishes early takes some of
+   * the work of the others.
+   */
+  private static final int BANDS_PER_THREAD = 4;
+
+  private static int parallelism = Runtime.getRuntime().availableProcessors();
+  private static ForkJoinPool pool;
+
+  /**
+   * Represents the work on one band of an image.
+   */
+  interface Band {
+
+    /**
+     * Does the work on the rows of one band.
+     *
+     * @param start the first row of the band
+     * @param end   the row after the last row of the band
+     */
+    void run(int start, int end);
+  }
+
+  /**
+   * Constructor for ParallelExecutor, which is never instantiated.
+   */
+  private ParallelExecutor() {
+  }
+
+  /**
+   * Sets the number of threads an operation on an image runs on. It may be set while operations
+   * are running: an operation that has started keeps the pool it started on, and only the
+   * operations after it use a pool of the new parallelism. The previous pool is never given work
+   * again, so it is not shut down but left to finish what it is running, after which its idle
+   * threads end on their own.
+   *
+   * @param parallelism the number of threads, one to run every operation on the calling thread
+   * @throws IllegalArgumentException if the parallelism is less than one
+   */
+  public static synchronized void setParallelism(int parallelism)
+      throws IllegalArgumentException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be at least one.");
+    }
+    if (parallelism != ParallelExecutor.parallelism) {
+      pool = null;
+    }
+    ParallelExecutor.parallelism = parallelism;
+  }
+
+  /**
+   * Obtains the number of threads an operation on an image runs on.
+   *
+   * @return the parallelism
+   */
+  public static synchronized int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Obtains the pool of the current parallelism, creating it the first time it is needed.
+   *
+   * @return the pool, or null to run on the calling thread
+   */
+  private static synchronized ForkJoinPool pool() {
+    if (parallelism == 1) {
+      return null;
+    }
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+    return pool;
+  }
+
+  /**
+   * Splits rows into bands. There are a few bands for each thread, unless that would leave a band
+   * with fewer rows than the least given, or fewer pixels than are worth a band of their own.
+   *
+   * @param count     the number of rows
+   * @param rowPixels the number of pixels of each row
+   * @param minRows   the fewest rows of a band, such as a few times the halo of a filter
+   * @return the first row of every band, followed by the number of rows
+   */
+  static int[] split(int count, long rowPixels, int minRows) {
+    int threads = getParallelism();
+    long bands = Math.min((long) threads * BANDS_PER_THREAD, count / Math.max(1, minRows));
+    bands = Math.min(bands, count * rowPixels / MIN_BAND_PIXELS);
+    int n = threads == 1 ? 1 : (int) Math.max(1, bands);
+    int[] bounds = new int[n + 1];
+    for (int k = 0; k <= n; k++) {
+      bounds[k] = (int) ((long) k * count / n);
+    }
+    return bounds;
+  }
+
+  /**
+   * Runs the work on every band, in parallel when there is more than one.
+   *
+   * @param bounds the first row of every band, followed by the number of rows
+   * @param band   the work on one band
+   */
+  static void forEach(int[] bounds, Band band) {
+    ForkJoinPool current = bounds.length > 2 ? pool() : null;
+    if (current == null) {
+      for (int k = 0; k + 1 < bounds.length; k++) {
+        band.run(bounds[k], bounds[k + 1]);
+      }
+      return;
+    }
+    List<RecursiveAction> tasks = new ArrayList<>();
+    for (int k = 0; k + 1 < bounds.length; k++) {
+      int start = bounds[k];
+      int end = bounds[k + 1];
+      tasks.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          band.run(start, end);
+        }
+      });
+    }
+    current.invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        invokeAll(tasks);
+      }
+    });
+  }
+
+  /**
+   * Splits rows into bands and runs the work on every band.
+   *
+   * @param count     the number of rows
+   * @param rowPixels the number of pixels of each row
+   * @param minRows   the fewest rows of a band
+   * @param band      the work on one band
+   */
+  static void forEachBand(int count, long rowPixels, int minRows, Band band) {
+    forEach(split(count, rowPixels, minRows), band);
+  }
+}
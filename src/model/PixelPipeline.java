@@ -0,0 +1,193 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a run of operations on each pixel of an image alone, with no dependency on the
+ * pixels around it: brightening (a PointOperation), the grayscale commands (ACommandGrayScale)
+ * and the color transforms (AColorTransform). The operations are applied in the order they were
+ * added.
+ *
+ * <p>A pipeline of a single operation runs it exactly as the image would on its own. A longer
+ * pipeline is compiled into as few stages as possible: tables and grayscale commands that follow
+ * each other become a single PointOperation, and color transforms that follow each other a single
+ * chained AColorTransform. The image is then read a row at a time and every stage is applied to
+ * the row in place, so each pixel is read once and written once and no image is created for the
+ * steps in between. The result is the same as running the operations one after another.
+ * The pipeline is itself an IRowKernel, run a row at a time by RowEngine. An implementation of
+ * ICommandTransformation and IRowKernel.
+ */
+public final class PixelPipeline implements ICommandTransformation, IRowKernel {
+
+  private final List<ICommandTransformation> operations;
+  private final List<IRowKernel> stages;
+
+  /**
+   * Constructor for PixelPipeline.
+   *
+   * @param operation the first operation of the pipeline
+   * @throws IllegalArgumentException if the operation is null or depends on more than one pixel
+   */
+  public PixelPipeline(ICommandTransformation operation) throws IllegalArgumentException {
+    this(Collections.emptyList(), operation);
+  }
+
+  /**
+   * Constructor for a pipeline that continues another one.
+   *
+   * @param previous  the operations before the new one
+   * @param operation the operation added at the end of the pipeline
+   * @throws IllegalArgumentException if the operation is null or depends on more than one pixel
+   */
+  private PixelPipeline(List<ICommandTransformation> previous, ICommandTransformation operation)
+      throws IllegalArgumentException {
+    if (!(operation instanceof PointOperation || operation instanceof ACommandGrayScale
+        || operation instanceof AColorTransform)) {
+      throw new IllegalArgumentException("The operation must apply to each pixel alone.");
+    }
+    List<ICommandTransformation> all = new ArrayList<>(previous);
+    all.add(operation);
+    this.operations = Collections.unmodifiableList(all);
+    this.stages = compile(all);
+  }
+
+  /**
+   * Creates a pipeline that applies the operations of this one and then the given one.
+   *
+   * @param operation the operation added at the end
+   * @return the new pipeline
+   * @throws IllegalArgumentException if the operation is null or depends on more than one pixel
+   */
+  public PixelPipeline andThen(ICommandTransformation operation)
+      throws IllegalArgumentException {
+    return new PixelPipeline(operations, operation);
+  }
+
+  /**
+   * Obtains the operations of this pipeline, in the order they are applied.
+   *
+   * @return an unmodifiable list of the operations
+   */
+  public List<ICommandTransformation> getOperations() {
+    return this.operations;
+  }
+
+  /**
+   * Combines operations that follow each other into stages: a PointOperation for tables and
+   * grayscale commands, and a chained AColorTransform for color transforms.
+   *
+   * @param operations the operations
+   * @return the stages, each a PointOperation or an AColorTransform
+   */
+  private static List<IRowKernel> compile(List<ICommandTransformation> operations) {
+    List<IRowKernel> stages = new ArrayList<>();
+    for (ICommandTransformation operation : operations) {
+      IRowKernel last = stages.isEmpty() ? null : stages.get(stages.size() - 1);
+      IRowKernel stage = operation instanceof ACommandGrayScale
+          ? PointOperation.grayScale((ACommandGrayScale) operation) : (IRowKernel) operation;
+      if (last instanceof PointOperation && stage instanceof PointOperation) {
+        stages.set(stages.size() - 1, ((PointOperation) last).andThen((PointOperation) stage));
+      } else if (last instanceof AColorTransform && stage instanceof AColorTransform) {
+        stages.set(stages.size() - 1, ((AColorTransform) last).andThen((AColorTransform) stage));
+      } else {
+        stages.add(stage);
+      }
+    }
+    return stages;
+  }
+
+  /**
+   * Applies every stage of this pipeline to a span of one row: the first stage reads the row,
+   * and every other stage the pixels the stage before it wrote.
+   *
+   * @param rows        the row, alone in the array
+   * @param width       the width of the image
+   * @param destination the array the packed new pixels are written to, which may be the row
+   * @param offset      the index of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  @Override
+  public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+    int[][] written = {destination};
+    for (int i = 0; i < stages.size(); i++) {
+      stages.get(i).computeSpan(i == 0 ? rows : written, width, destination, offset, length);
+    }
+  }
+
+  /**
+   * Determines if every pixel this pipeline computes is gray, from what each stage keeps gray.
+   *
+   * @param graySource true if every pixel of the original image is gray
+   * @return true if every new pixel is gray
+   */
+  @Override
+  public boolean isGrayResult(boolean graySource) {
+    boolean gray = graySource;
+    for (IRowKernel stage : stages) {
+      gray = stage.isGrayResult(gray);
+    }
+    return gray;
+  }
+
+  /**
+   * Applies this pipeline to the given image.
+   *
+   * @param image the image
+   * @return a new image
+   */
+  @Override
+  public IImage performTransformation(IImage image) {
+    if (operations.size() == 1) {
+      return performSingle(image, operations.get(0));
+    }
+    if (image instanceof ConstantImage) {
+      ConstantImage constant = (ConstantImage) image;
+      int[] pixel = {constant.getColor()};
+      computeSpan(new int[][]{pixel}, 1, pixel, 0, 1);
+      return constant.withColor(pixel[0]);
+    }
+    return RowEngine.apply(image, this);
+  }
+
+  /**
+   * Applies this pipeline to a PackedImage by overwriting its pixels, in a single pass. A
+   * pipeline that ends by turning every pixel gray, or any other image, gives a new image as by
+   * performTransformation.
+   *
+   * @param image an image that nothing else refers to
+   * @return the transformed image, which is the given image if it was overwritten
+   */
+  @Override
+  public IImage performInPlace(IImage image) {
+    IImage computed = DeferredImage.computed(image);
+    if (!(computed instanceof PackedImage)) {
+      return performTransformation(computed);
+    }
+    if (operations.size() == 1) {
+      return operations.get(0).performInPlace(computed);
+    }
+    if (isGrayResult(false)) {
+      return performTransformation(computed);
+    }
+    return RowEngine.applyInPlace((PackedImage) computed, this);
+  }
+
+  /**
+   * Applies a single operation to an image through the method of the image for it.
+   *
+   * @param image     the image
+   * @param operation the operation
+   * @return a new image
+   */
+  private static IImage performSingle(IImage image, ICommandTransformation operation) {
+    if (operation instanceof AColorTransform) {
+      return image.colorTransform((AColorTransform) operation);
+    }
+    if (operation instanceof ACommandGrayScale) {
+      return image.grayScaleImage((ACommandGrayScale) operation);
+    }
+    return image.filterImage(operation);
+  }
+}
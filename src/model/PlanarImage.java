@@ -0,0 +1,145 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Represents an Image whose pixels are stored as three separate planes, one byte array per
+ * channel. Operations that only look at one channel, such as extracting the red component, scan
+ * a single plane from start to end, and a Histogram reads the planes without packing the pixels.
+ * Planes are never written after an image is created, so images may share them: the red
+ * component of a planar image is a GrayImage that reuses its red plane without copying it.
+ *
+ * <p>Every other operation reads and writes interleaved rows through ARasterImage and returns
+ * another planar image. Extends ARasterImage.
+ */
+public class PlanarImage extends ARasterImage {
+
+  private final byte[] red;
+  private final byte[] green;
+  private final byte[] blue;
+
+  /**
+   * First constructor for PlanarImage. Wraps the given planes without copying them; the same
+   * array may be given for more than one channel.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param red    the red plane, row by row, one unsigned byte per pixel
+   * @param green  the green plane, row by row, one unsigned byte per pixel
+   * @param blue   the blue plane, row by row, one unsigned byte per pixel
+   * @throws IllegalArgumentException if the dimensions are invalid or do not match the planes
+   */
+  public PlanarImage(int width, int height, byte[] red, byte[] green, byte[] blue)
+      throws IllegalArgumentException {
+    super(width, height);
+    if (red == null || green == null || blue == null
+        || red.length != width * height || green.length != red.length
+        || blue.length != red.length) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+  }
+
+  /**
+   * Second constructor for PlanarImage. Copies the pixels of any other image into three planes.
+   *
+   * @param image the image to be copied
+   * @throws IllegalArgumentException if the image is null
+   */
+  public PlanarImage(IImage image) throws IllegalArgumentException {
+    this(Objects.requireNonNull(image).getImageWidth(), image.getImageHeight(),
+        new byte[image.getImageWidth() * image.getImageHeight()],
+        new byte[image.getImageWidth() * image.getImageHeight()],
+        new byte[image.getImageWidth() * image.getImageHeight()]);
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      image.getRow(i, row);
+      setRow(i, row);
+    }
+  }
+
+  /**
+   * Returns the red plane of this image. The plane is shared, so it must not be written.
+   *
+   * @return the red plane
+   */
+  byte[] redPlane() {
+    return this.red;
+  }
+
+  /**
+   * Returns the green plane of this image. The plane is shared, so it must not be written.
+   *
+   * @return the green plane
+   */
+  byte[] greenPlane() {
+    return this.green;
+  }
+
+  /**
+   * Returns the blue plane of this image. The plane is shared, so it must not be written.
+   *
+   * @return the blue plane
+   */
+  byte[] bluePlane() {
+    return this.blue;
+  }
+
+  /**
+   * Creates a grayscale image of the same dimensions whose values are the given plane.
+   *
+   * @param plane the plane to be shared as the gray values
+   * @return a new grayscale image sharing the plane
+   */
+  GrayImage grayImage(byte[] plane) {
+    return new GrayImage(width, height, plane);
+  }
+
+  /**
+   * Converts this image into a PackedImage.
+   *
+   * @return a new packed copy of this image
+   */
+  public PackedImage toPackedImage() {
+    int[] packed = new int[red.length];
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = pack(red[i] & 0xFF, green[i] & 0xFF, blue[i] & 0xFF);
+    }
+    return new PackedImage(width, height, packed);
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    int index = y * width + x;
+    return pack(red[index] & 0xFF, green[index] & 0xFF, blue[index] & 0xFF);
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    int offset = row * width;
+    for (int j = 0; j < width; j++) {
+      buffer[j] = pack(red[offset + j] & 0xFF, green[offset + j] & 0xFF,
+          blue[offset + j] & 0xFF);
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] buffer) {
+    int offset = row * width;
+    for (int j = 0; j < width; j++) {
+      int rgb = buffer[j];
+      red[offset + j] = (byte) red(rgb);
+      green[offset + j] = (byte) green(rgb);
+      blue[offset + j] = (byte) blue(rgb);
+    }
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    int area = Math.multiplyExact(width, height);
+    return new PlanarImage(width, height, new byte[area], new byte[area], new byte[area]);
+  }
+}
@@ -0,0 +1,352 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents an operation that maps every pixel of an image on its own, through tables of 256
+ * values compiled when the operation is created. Brightening is one table per channel, and the
+ * grayscale commands reduce the three channels of a pixel to one gray value.
+ *
+ * <p>An operation is made of a table for each channel, then optionally a grayscale command, then
+ * a table for each channel applied to the gray value. Operations compose with andThen into
+ * another operation of the same shape, so any chain of brightening and grayscaling is applied in
+ * a single pass over the pixels: tables that follow each other are combined into one, and a
+ * grayscale command that follows another maps each of the 256 gray values to a new one, so it is
+ * folded into the tables as well. Applying an operation costs one table load per channel, and a
+ * call to the grayscale command if there is one.
+ *
+ * <p>A ConstantImage stays constant. A GrayImage stays gray when the result of every gray value
+ * is gray, and so does any image that is grayscaled; a PlanarImage maps its planes. Any other
+ * raster image keeps its kind of storage, and any other image gives an ImageImpl; these are
+ * computed a row at a time by RowEngine. An implementation of ICommandTransformation and
+ * IRowKernel.
+ */
+public final class PointOperation implements ICommandTransformation, IRowKernel {
+
+  private final byte[] red;
+  private final byte[] green;
+  private final byte[] blue;
+  private final ACommandGrayScale gray;
+  private final byte[] grayRed;
+  private final byte[] grayGreen;
+  private final byte[] grayBlue;
+
+  /**
+   * Constructor for PointOperation.
+   *
+   * @param red       the table of the red channel
+   * @param green     the table of the green channel
+   * @param blue      the table of the blue channel
+   * @param gray      the grayscale command applied after the tables, or null for none
+   * @param grayRed   the table from the gray value to the red channel, or null for none
+   * @param grayGreen the table from the gray value to the green channel, or null for none
+   * @param grayBlue  the table from the gray value to the blue channel, or null for none
+   */
+  private PointOperation(byte[] red, byte[] green, byte[] blue, ACommandGrayScale gray,
+      byte[] grayRed, byte[] grayGreen, byte[] grayBlue) {
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+    this.gray = gray;
+    this.grayRed = grayRed;
+    this.grayGreen = grayGreen;
+    this.grayBlue = grayBlue;
+  }
+
+  /**
+   * Creates the table that maps every value to itself.
+   *
+   * @return a new identity table
+   */
+  private static byte[] identity() {
+    byte[] table = new byte[256];
+    for (int v = 0; v < 256; v++) {
+      table[v] = (byte) v;
+    }
+    return table;
+  }
+
+  /**
+   * Creates an operation that adds an increment to every channel of every pixel, clamping the
+   * results between 0 and 255.
+   *
+   * @param increment the amount to be added, negative to darken
+   * @return the new operation
+   */
+  public static PointOperation brighten(int increment) {
+    byte[] table = new byte[256];
+    for (int v = 0; v < 256; v++) {
+      table[v] = (byte) ARasterImage.clamp(v + increment);
+    }
+    return new PointOperation(table, table, table, null, null, null, null);
+  }
+
+  /**
+   * Creates an operation that converts every pixel to gray with a grayscale command.
+   *
+   * @param command the grayscale command
+   * @return the new operation
+   * @throws IllegalArgumentException if the command is null
+   */
+  public static PointOperation grayScale(ACommandGrayScale command)
+      throws IllegalArgumentException {
+    if (command == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    byte[] table = identity();
+    byte[] grayTable = identity();
+    return new PointOperation(table, table, table, command, grayTable, grayTable, grayTable);
+  }
+
+  /**
+   * Creates an operation that applies this operation and then the given one, in a single pass.
+   *
+   * @param next the operation applied to the results of this one
+   * @return the new combined operation
+   * @throws IllegalArgumentException if the next operation is null
+   */
+  public PointOperation andThen(PointOperation next) throws IllegalArgumentException {
+    if (next == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    if (gray == null) {
+      // The tables of this operation come before everything in the next one
+      return new PointOperation(combine(red, next.red), combine(green, next.green),
+          combine(blue, next.blue), next.gray, next.grayRed, next.grayGreen, next.grayBlue);
+    }
+
+    // Every gray value of this operation becomes a color, which the next one maps on its own
+    byte[] newRed = new byte[256];
+    byte[] newGreen = new byte[256];
+    byte[] newBlue = new byte[256];
+    for (int v = 0; v < 256; v++) {
+      int rgb = next.applyPixel(ARasterImage.pack(grayRed[v] & 0xFF, grayGreen[v] & 0xFF,
+          grayBlue[v] & 0xFF));
+      newRed[v] = (byte) ARasterImage.red(rgb);
+      newGreen[v] = (byte) ARasterImage.green(rgb);
+      newBlue[v] = (byte) ARasterImage.blue(rgb);
+    }
+    return new PointOperation(red, green, blue, gray, newRed, newGreen, newBlue);
+  }
+
+  /**
+   * Combines two tables into one that applies the first and then the second.
+   *
+   * @param first  the first table
+   * @param second the second table
+   * @return the combined table
+   */
+  private static byte[] combine(byte[] first, byte[] second) {
+    byte[] table = new byte[256];
+    for (int v = 0; v < 256; v++) {
+      table[v] = second[first[v] & 0xFF];
+    }
+    return table;
+  }
+
+  /**
+   * Determines if this operation turns every pixel gray.
+   *
+   * @return true if the operation has a grayscale command whose values stay gray
+   */
+  boolean isGrayScale() {
+    return gray != null && isGray(grayRed, grayGreen, grayBlue);
+  }
+
+  /**
+   * Determines if three tables map every value to a gray pixel.
+   *
+   * @param red   the table of the red channel
+   * @param green the table of the green channel
+   * @param blue  the table of the blue channel
+   * @return true if the three tables are the same
+   */
+  private static boolean isGray(byte[] red, byte[] green, byte[] blue) {
+    return Arrays.equals(red, green) && Arrays.equals(red, blue);
+  }
+
+  /**
+   * Applies this operation to a single packed pixel.
+   *
+   * @param rgb the packed 0xRRGGBB pixel
+   * @return the new packed pixel
+   */
+  int applyPixel(int rgb) {
+    int[] pixel = {rgb};
+    applySpan(pixel, 0, pixel, 0, 1);
+    return pixel[0];
+  }
+
+  /**
+   * Applies this operation to a span of packed pixels. The source and destination may be the
+   * same array.
+   *
+   * @param source            the packed source pixels
+   * @param sourceOffset      the index of the first source pixel
+   * @param destination       the array the packed new pixels are written to
+   * @param destinationOffset the index of the first new pixel
+   * @param length            the number of pixels
+   */
+  void applySpan(int[] source, int sourceOffset, int[] destination, int destinationOffset,
+      int length) {
+    if (gray == null) {
+      for (int j = 0; j < length; j++) {
+        int rgb = source[sourceOffset + j];
+        destination[destinationOffset + j] = ((red[(rgb >> 16) & 0xFF] & 0xFF) << 16)
+            | ((green[(rgb >> 8) & 0xFF] & 0xFF) << 8) | (blue[rgb & 0xFF] & 0xFF);
+      }
+      return;
+    }
+    for (int j = 0; j < length; j++) {
+      int rgb = source[sourceOffset + j];
+      int v = gray.returnNewValue(red[(rgb >> 16) & 0xFF] & 0xFF,
+          green[(rgb >> 8) & 0xFF] & 0xFF, blue[rgb & 0xFF] & 0xFF);
+      destination[destinationOffset + j] = ((grayRed[v] & 0xFF) << 16)
+          | ((grayGreen[v] & 0xFF) << 8) | (grayBlue[v] & 0xFF);
+    }
+  }
+
+  /**
+   * Applies this operation to every pixel of the given image in a single pass.
+   *
+   * @param image the image
+   * @return a new image
+   */
+  @Override
+  public IImage performTransformation(IImage image) {
+    if (image instanceof ConstantImage) {
+      ConstantImage constant = (ConstantImage) image;
+      return constant.withColor(applyPixel(constant.getColor()));
+    }
+    if (image instanceof GrayImage) {
+      return performGray((GrayImage) image);
+    }
+    if (image instanceof PlanarImage) {
+      return performPlanar((PlanarImage) image);
+    }
+    return RowEngine.apply(image, this);
+  }
+
+  /**
+   * Applies this operation to a PackedImage by overwriting its pixels. An operation that turns
+   * every pixel gray, or any other image, gives a new image as by performTransformation, since a
+   * GrayImage is smaller than the PackedImage anyway.
+   *
+   * @param image an image that nothing else refers to
+   * @return the new pixels, which are the given image if it was overwritten
+   */
+  @Override
+  public IImage performInPlace(IImage image) {
+    IImage computed = DeferredImage.computed(image);
+    if (computed instanceof PackedImage && !isGrayScale()) {
+      return RowEngine.applyInPlace((PackedImage) computed, this);
+    }
+    return performTransformation(computed);
+  }
+
+  /**
+   * Applies this operation to a grayscale image. Each of the 256 gray values is mapped once; if
+   * every result is gray, the new image is grayscale too.
+   *
+   * @param image the grayscale image
+   * @return a new grayscale image, or a PackedImage if some gray value becomes a color
+   */
+  private IImage performGray(GrayImage image) {
+    int[] colors = new int[256];
+    for (int v = 0; v < 256; v++) {
+      colors[v] = v * 0x010101;
+    }
+    applySpan(colors, 0, colors, 0, 256);
+    byte[] values = image.values();
+    boolean stayGray = true;
+    for (int rgb : colors) {
+      stayGray &= rgb == (rgb & 0xFF) * 0x010101;
+    }
+
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    if (stayGray) {
+      byte[] newValues = new byte[values.length];
+      for (int i = 0; i < values.length; i++) {
+        newValues[i] = (byte) colors[values[i] & 0xFF];
+      }
+      return new GrayImage(width, height, newValues);
+    }
+    int[] packed = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      packed[i] = colors[values[i] & 0xFF];
+    }
+    return new PackedImage(width, height, packed);
+  }
+
+  /**
+   * Applies this operation to a planar image a plane at a time. A grayscale command computes the
+   * gray plane first, which becomes a grayscale image if its tables keep it gray.
+   *
+   * @param image the planar image
+   * @return a new planar or grayscale image
+   */
+  private IImage performPlanar(PlanarImage image) {
+    byte[] origRed = image.redPlane();
+    byte[] origGreen = image.greenPlane();
+    byte[] origBlue = image.bluePlane();
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    if (gray == null) {
+      return new PlanarImage(width, height, mapPlane(origRed, red), mapPlane(origGreen, green),
+          mapPlane(origBlue, blue));
+    }
+
+    byte[] values = new byte[origRed.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (byte) gray.returnNewValue(red[origRed[i] & 0xFF] & 0xFF,
+          green[origGreen[i] & 0xFF] & 0xFF, blue[origBlue[i] & 0xFF] & 0xFF);
+    }
+    if (isGray(grayRed, grayGreen, grayBlue)) {
+      return image.grayImage(mapPlane(values, grayRed));
+    }
+    return new PlanarImage(width, height, mapPlane(values, grayRed), mapPlane(values, grayGreen),
+        mapPlane(values, grayBlue));
+  }
+
+  /**
+   * Maps every value of a plane through a table.
+   *
+   * @param plane the plane
+   * @param table the table
+   * @return a new mapped plane
+   */
+  private static byte[] mapPlane(byte[] plane, byte[] table) {
+    byte[] result = new byte[plane.length];
+    for (int i = 0; i < plane.length; i++) {
+      result[i] = table[plane[i] & 0xFF];
+    }
+    return result;
+  }
+
+  /**
+   * Applies this operation to a span of one row.
+   *
+   * @param rows        the row, alone in the array
+   * @param width       the width of the image
+   * @param destination the array the packed new pixels are written to, which may be the row
+   * @param offset      the index of the first pixel of the span
+   * @param length      the number of pixels of the span
+   */
+  @Override
+  public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+    applySpan(rows[0], offset, destination, offset, length);
+  }
+
+  /**
+   * Determines if every pixel this operation computes is gray: it turns every pixel gray, or the
+   * image is gray and the three tables are the same.
+   *
+   * @param graySource true if every pixel of the original image is gray
+   * @return true if every new pixel is gray
+   */
+  @Override
+  public boolean isGrayResult(boolean graySource) {
+    return gray == null ? graySource && isGray(red, green, blue) : isGrayScale();
+  }
+}
@@ -92,7 +92,7 @@ public class RGBPixel implements IPixel {
    * @return the luma of a pixel.
    */
   public int lumaPixel() {
-    return Math.toIntExact(Math.round(0.2126 * red + 0.7152 * green + 0.0722 * blue));
+    return WeightedSum.LUMA.apply(red, green, blue);
   }
 
   /**
@@ -0,0 +1,250 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs an IRowKernel over every row of an image. This is the one loop shared by the operations
+ * that compute an image a row at a time (brightening and the other point operations, the
+ * grayscale commands, the color transforms, the pipelines that fuse them, and the convolution and
+ * separable filters), so the order the rows are computed in, the buffers they use and the threads
+ * they run on are decided here rather than by each operation.
+ *
+ * <p>The rows are split into bands that run in parallel (see ParallelExecutor). Within a band, an
+ * operation on each pixel alone reads each row into one buffer and computes the new row in the
+ * same buffer. A filter keeps the prepared rows within its reach in a ring of buffers, each row
+ * read and prepared once as the filter moves down, and never more buffers than the image has
+ * rows; a band starts by preparing the rows within the reach above it, its halo. Near the top
+ * and bottom edges, a row the border mode maps outside of the ring is read and prepared into a
+ * buffer of its own. The new image has the same kind of storage as the image (see RowWriter), or
+ * is a GrayImage if the operation finds that every new pixel is gray.
+ */
+public final class RowEngine {
+
+  /**
+   * Constructor for RowEngine, which is never instantiated.
+   */
+  private RowEngine() {
+  }
+
+  /**
+   * Applies an operation to every row of an image. An image that has not been computed yet is
+   * computed first.
+   *
+   * @param image  the image
+   * @param kernel the operation
+   * @return a new image
+   * @throws IllegalArgumentException if the image or the operation is null
+   */
+  public static IImage apply(IImage image, IRowKernel kernel) throws IllegalArgumentException {
+    if (image == null || kernel == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    IImage source = DeferredImage.computed(image);
+    int width = source.getImageWidth();
+    int height = source.getImageHeight();
+    RowWriter writer = new RowWriter(source, width, height,
+        kernel.isGrayResult(source instanceof GrayImage));
+    int[] bounds = ParallelExecutor.split(height, width, minRows(kernel));
+    run(source, kernel, writer, bounds, Collections.emptyMap());
+    return writer.image();
+  }
+
+  /**
+   * Applies an operation to every row of a PackedImage by overwriting its pixels. An operation
+   * on each pixel alone runs over the array of each band as a single span. A filter writes each
+   * new row over the row of the image once the rows it reads are in the ring; the few rows that a
+   * band reads after they may have been written, by itself or by the bands around it, are copied
+   * before any band runs.
+   *
+   * @param image  the image, which nothing else refers to
+   * @param kernel the operation, whose new pixels are not all gray
+   * @return the image
+   */
+  static IImage applyInPlace(PackedImage image, IRowKernel kernel) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    int[] bounds = ParallelExecutor.split(height, width, minRows(kernel));
+    if (kernel.getReach() == 0) {
+      int[] pixels = image.packedPixels();
+      int[][] rows = {pixels};
+      ParallelExecutor.forEach(bounds, (start, end) -> kernel.computeSpan(rows, pixels.length,
+          pixels, start * width, (end - start) * width));
+      return image;
+    }
+    // A filter as tall as the image reads every row before it writes any
+    Map<Integer, int[]> saved = height <= 2 * kernel.getReach() + 1 ? Collections.emptyMap()
+        : savedRows(image, kernel, bounds);
+    run(image, kernel, RowWriter.inPlace(image), bounds, saved);
+    return image;
+  }
+
+  /**
+   * Obtains the fewest rows of a band for an operation, so that the halo of a filter stays small
+   * next to the rows it helps compute.
+   *
+   * @param kernel the operation
+   * @return the fewest rows of a band
+   */
+  private static int minRows(IRowKernel kernel) {
+    return 1 + 4 * kernel.getReach();
+  }
+
+  /**
+   * Copies the rows of an image that a band of a filter overwriting it reads after they may have
+   * been written: the rows of the halo of each band, which the bands around it write, and rows
+   * the border mode maps from beyond the bottom edge back up above the ring.
+   *
+   * @param image  the image
+   * @param kernel the filter
+   * @param bounds the first row of every band, followed by the height of the image
+   * @return the copied rows, by index
+   */
+  private static Map<Integer, int[]> savedRows(IImage image, IRowKernel kernel, int[] bounds) {
+    int height = image.getImageHeight();
+    int reach = kernel.getReach();
+    BorderMode border = kernel.getBorder();
+    Map<Integer, int[]> saved = new HashMap<>();
+    for (int k = 0; k + 1 < bounds.length; k++) {
+      int start = bounds[k];
+      int end = bounds[k + 1];
+      for (int i = start; i < end; i++) {
+        // A row whose kernel lies inside of its band and of the image reads no such row
+        if (i >= start + reach && i + reach < end && i >= reach && i + reach < height) {
+          continue;
+        }
+        for (int t = -reach; t <= reach; t++) {
+          int row = border.map(i + t, height);
+          if (row >= 0 && (row < start || row >= end || row < i - reach)
+              && !saved.containsKey(row)) {
+            int[] copy = new int[image.getImageWidth()];
+            image.getRow(row, copy);
+            saved.put(row, copy);
+          }
+        }
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * Applies an operation to every band of an image, storing the new rows with a writer.
+   *
+   * @param image  the image
+   * @param kernel the operation
+   * @param writer the writer the new rows are stored with
+   * @param bounds the first row of every band, followed by the height of the image
+   * @param saved  copies of rows to read instead of the rows of the image
+   */
+  private static void run(IImage image, IRowKernel kernel, RowWriter writer, int[] bounds,
+      Map<Integer, int[]> saved) {
+    ParallelExecutor.forEach(bounds, (start, end) -> {
+      if (kernel.getReach() == 0) {
+        runPixels(image, kernel, writer, start, end);
+      } else {
+        runFilter(image, kernel, writer, saved, start, end);
+      }
+    });
+  }
+
+  /**
+   * Applies an operation on each pixel alone to a band of rows.
+   *
+   * @param image  the image
+   * @param kernel the operation
+   * @param writer the writer the new rows are stored with
+   * @param start  the first row of the band
+   * @param end    the row after the last row of the band
+   */
+  private static void runPixels(IImage image, IRowKernel kernel, RowWriter writer, int start,
+      int end) {
+    int width = image.getImageWidth();
+    int[] row = new int[width];
+    int[][] rows = {row};
+    for (int i = start; i < end; i++) {
+      image.getRow(i, row);
+      kernel.computeSpan(rows, width, row, 0, width);
+      writer.setRow(i, row);
+    }
+  }
+
+  /**
+   * Applies a filter to a band of rows, reading the rows of its halo too.
+   *
+   * @param image  the image
+   * @param kernel the filter
+   * @param writer the writer the new rows are stored with
+   * @param saved  copies of rows to read instead of the rows of the image
+   * @param start  the first row of the band
+   * @param end    the row after the last row of the band
+   */
+  private static void runFilter(IImage image, IRowKernel kernel, RowWriter writer,
+      Map<Integer, int[]> saved, int start, int end) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    int reach = kernel.getReach();
+    int size = 2 * reach + 1;
+    // An image no taller than the kernel keeps every one of its rows in the ring, prepared once
+    // before the first row is computed, instead of a buffer for each row under the kernel
+    boolean wholeImage = height <= size;
+    int ringSize = Math.min(size, height);
+    int length = kernel.getPreparedLength(width);
+    BorderMode border = kernel.getBorder();
+    int[] row = new int[width];
+    int[][] prepared = new int[ringSize][length];
+    int[][] sources = new int[size][];
+    int[][] edgeRows = new int[size][];
+    int[] newRow = new int[width];
+
+    // Prepare the halo above the band and the rows below its first row, the rest are prepared
+    // as the kernel moves down
+    int first = wholeImage ? 0 : Math.max(0, start - reach);
+    int last = wholeImage ? height : Math.min(height, start + reach);
+    for (int r = first; r < last; r++) {
+      readRow(image, saved, r, row);
+      kernel.prepareRow(row, width, prepared[r % ringSize]);
+    }
+
+    for (int i = start; i < end; i++) {
+      if (!wholeImage && i + reach < height) {
+        readRow(image, saved, i + reach, row);
+        kernel.prepareRow(row, width, prepared[(i + reach) % ringSize]);
+      }
+      for (int k = 0; k < size; k++) {
+        int source = border.map(i + k - reach, height);
+        if (source < 0) {
+          sources[k] = null;
+        } else if (wholeImage || (source >= i - reach && source <= i + reach)) {
+          sources[k] = prepared[source % ringSize];
+        } else {
+          if (edgeRows[k] == null) {
+            edgeRows[k] = new int[length];
+          }
+          readRow(image, saved, source, row);
+          kernel.prepareRow(row, width, edgeRows[k]);
+          sources[k] = edgeRows[k];
+        }
+      }
+      kernel.computeSpan(sources, width, newRow, 0, width);
+      writer.setRow(i, newRow);
+    }
+  }
+
+  /**
+   * Reads a row of the image, or its copy if one was made.
+   *
+   * @param image  the image
+   * @param saved  copies of rows to read instead of the rows of the image
+   * @param row    the index of the row
+   * @param buffer the array the packed pixels of the row are written to
+   */
+  private static void readRow(IImage image, Map<Integer, int[]> saved, int row, int[] buffer) {
+    int[] copy = saved.get(row);
+    if (copy != null) {
+      System.arraycopy(copy, 0, buffer, 0, copy.length);
+    } else {
+      image.getRow(row, buffer);
+    }
+  }
+}
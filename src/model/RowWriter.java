@@ -0,0 +1,103 @@
+package model;
+
+/**
+ * Collects the rows of a new image computed a row at a time from another image. The new image has
+ * the same kind of storage as the image it is computed from: a grayscale image gives a GrayImage,
+ * any other raster image an image made by its createBlank, and any other image an ImageImpl. A
+ * new image whose every pixel is known to be gray may be a GrayImage whatever the image.
+ * Different threads may store different rows at the same time.
+ *
+ * <p>A writer created by inPlace stores each new row over the same row of a PackedImage instead.
+ */
+final class RowWriter {
+
+  private final int width;
+  private final byte[] gray;
+  private final IRasterImage raster;
+  private final IPixel[][] pixels;
+
+  /**
+   * Constructor for RowWriter.
+   *
+   * @param source the image the new image is computed from
+   * @param width  the width of the new image
+   * @param height the height of the new image
+   */
+  RowWriter(IImage source, int width, int height) {
+    this(source, width, height, source instanceof GrayImage);
+  }
+
+  /**
+   * Constructor for a RowWriter whose new image is a GrayImage if every pixel of it is gray.
+   *
+   * @param source the image the new image is computed from
+   * @param width  the width of the new image
+   * @param height the height of the new image
+   * @param gray   true if every pixel of the new image is gray
+   */
+  RowWriter(IImage source, int width, int height, boolean gray) {
+    this.width = width;
+    this.gray = gray ? new byte[Math.multiplyExact(width, height)] : null;
+    this.raster = this.gray == null && source instanceof IRasterImage
+        ? ((IRasterImage) source).createBlank(width, height) : null;
+    this.pixels = this.gray == null && raster == null ? new IPixel[height][] : null;
+  }
+
+  /**
+   * Constructor for a RowWriter that overwrites an image.
+   *
+   * @param image the image whose rows are overwritten
+   */
+  private RowWriter(PackedImage image) {
+    this.width = image.getImageWidth();
+    this.gray = null;
+    this.raster = image;
+    this.pixels = null;
+  }
+
+  /**
+   * Creates a writer that stores the rows of the new image over the rows of the image it is
+   * computed from. The caller must read any row it needs again after it is written beforehand.
+   *
+   * @param image the image, which nothing else refers to
+   * @return the new writer
+   */
+  static RowWriter inPlace(PackedImage image) {
+    return new RowWriter(image);
+  }
+
+  /**
+   * Stores one row of the new image. The row is copied, so the buffer may be reused.
+   *
+   * @param row    the index of the row
+   * @param buffer the packed pixels of the row; for a grayscale image every pixel must be gray
+   */
+  void setRow(int row, int[] buffer) {
+    if (gray != null) {
+      for (int j = 0; j < width; j++) {
+        gray[row * width + j] = (byte) buffer[j];
+      }
+    } else if (raster != null) {
+      raster.setRow(row, buffer);
+    } else {
+      IPixel[] newRow = new IPixel[width];
+      for (int j = 0; j < width; j++) {
+        newRow[j] = new RGBPixel(ARasterImage.red(buffer[j]), ARasterImage.green(buffer[j]),
+            ARasterImage.blue(buffer[j]));
+      }
+      pixels[row] = newRow;
+    }
+  }
+
+  /**
+   * Obtains the new image once every row is stored.
+   *
+   * @return the new image
+   */
+  IImage image() {
+    if (gray != null) {
+      return new GrayImage(width, gray.length / width, gray);
+    }
+    return raster != null ? raster : new ImageImpl(pixels);
+  }
+}
@@ -0,0 +1,368 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents an Image whose packed 0xRRGGBB pixels are split into square tiles of 64 by 64
+ * pixels, each stored contiguously in its own array. The tiles along the right and bottom edges
+ * are cut to the size of the image. A filter works on one tile at a time, reading only that tile
+ * and the few pixels around it into a small buffer, so it stays in the cache however wide the
+ * image is. A mask only reads the transformed image for the tiles it actually covers, though the
+ * transformation still runs on the whole image first, unless it is an operation on each pixel
+ * alone (see IRowKernel), which is only computed for the tiles the mask covers.
+ *
+ * <p>Tiles are never written after an image is created, so images may share them: the result
+ * of a mask shares every tile the mask does not cover. Extends ARasterImage.
+ */
+public class TiledImage extends ARasterImage {
+
+  static final int TILE_SIZE = 64;
+
+  private final int tilesAcross;
+  private final int tilesDown;
+  private final int[][] tiles;
+
+  /**
+   * First constructor for TiledImage. Creates a black image of the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @throws IllegalArgumentException if the dimensions are not positive
+   */
+  public TiledImage(int width, int height) throws IllegalArgumentException {
+    super(width, height);
+    this.tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+    this.tilesDown = (height + TILE_SIZE - 1) / TILE_SIZE;
+    this.tiles = new int[tilesAcross * tilesDown][];
+    for (int ty = 0; ty < tilesDown; ty++) {
+      for (int tx = 0; tx < tilesAcross; tx++) {
+        tiles[ty * tilesAcross + tx] = new int[tileWidth(tx) * tileHeight(ty)];
+      }
+    }
+  }
+
+  /**
+   * Second constructor for TiledImage. Copies the pixels of any other image.
+   *
+   * @param image the image to be copied
+   * @throws IllegalArgumentException if the image is null
+   */
+  public TiledImage(IImage image) throws IllegalArgumentException {
+    this(checkedWidth(image), image.getImageHeight());
+    int[] row = new int[width];
+    for (int i = 0; i < height; i++) {
+      image.getRow(i, row);
+      setRow(i, row);
+    }
+  }
+
+  /**
+   * Creates an image around the given tiles, which must already have the right sizes.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param tiles  the tiles, row of tiles by row of tiles
+   */
+  private TiledImage(int width, int height, int[][] tiles) {
+    super(width, height);
+    this.tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+    this.tilesDown = (height + TILE_SIZE - 1) / TILE_SIZE;
+    this.tiles = tiles;
+  }
+
+  /**
+   * Returns the width of an image, checking that the image is not null.
+   *
+   * @param image the image
+   * @return the width of the image
+   */
+  private static int checkedWidth(IImage image) {
+    if (image == null) {
+      throw new IllegalArgumentException("The given inputs are invalid.");
+    }
+    return image.getImageWidth();
+  }
+
+  /**
+   * Obtains the width of the tiles in a column of tiles.
+   *
+   * @param tx the column of the tile
+   * @return the width of the tile in pixels
+   */
+  private int tileWidth(int tx) {
+    return Math.min(TILE_SIZE, width - tx * TILE_SIZE);
+  }
+
+  /**
+   * Obtains the height of the tiles in a row of tiles.
+   *
+   * @param ty the row of the tile
+   * @return the height of the tile in pixels
+   */
+  private int tileHeight(int ty) {
+    return Math.min(TILE_SIZE, height - ty * TILE_SIZE);
+  }
+
+  /**
+   * Obtains the number of columns of tiles.
+   *
+   * @return the number of tiles across the image
+   */
+  int tilesAcross() {
+    return this.tilesAcross;
+  }
+
+  /**
+   * Obtains the number of rows of tiles.
+   *
+   * @return the number of tiles down the image
+   */
+  int tilesDown() {
+    return this.tilesDown;
+  }
+
+  /**
+   * Returns one tile of this image. The tile is shared, so it must not be written.
+   *
+   * @param tx the column of the tile
+   * @param ty the row of the tile
+   * @return the packed pixels of the tile, row by row
+   */
+  int[] tile(int tx, int ty) {
+    return this.tiles[ty * tilesAcross + tx];
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    int tx = x / TILE_SIZE;
+    return tile(tx, y / TILE_SIZE)[(y % TILE_SIZE) * tileWidth(tx) + x % TILE_SIZE];
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    int ty = row / TILE_SIZE;
+    int tileRow = row % TILE_SIZE;
+    for (int tx = 0; tx < tilesAcross; tx++) {
+      int tileWidth = tileWidth(tx);
+      System.arraycopy(tile(tx, ty), tileRow * tileWidth, buffer, tx * TILE_SIZE, tileWidth);
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] buffer) {
+    int ty = row / TILE_SIZE;
+    int tileRow = row % TILE_SIZE;
+    for (int tx = 0; tx < tilesAcross; tx++) {
+      int tileWidth = tileWidth(tx);
+      System.arraycopy(buffer, tx * TILE_SIZE, tile(tx, ty), tileRow * tileWidth, tileWidth);
+    }
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return new TiledImage(width, height);
+  }
+
+  /**
+   * Copies a rectangle of this image into the rows of a window. Pixels of the rectangle outside
+   * of the image are read through the border mode.
+   *
+   * @param x      the column of the left edge of the rectangle
+   * @param y      the row of the top edge of the rectangle
+   * @param w      the width of the rectangle
+   * @param h      the height of the rectangle
+   * @param window the rows of the window, at least h rows of at least w pixels
+   * @param border how the pixels outside of the image are read
+   */
+  private void copyRegion(int x, int y, int w, int h, int[][] window, BorderMode border) {
+    for (int r = 0; r < h; r++) {
+      int row = border.map(y + r, height);
+      int[] buffer = window[r];
+      if (row < 0) {
+        Arrays.fill(buffer, 0, w, 0);
+        continue;
+      }
+      int ty = row / TILE_SIZE;
+      int tileRow = row % TILE_SIZE;
+      int col = x;
+      while (col < x + w) {
+        if (col < 0 || col >= width) {
+          int mapped = border.map(col, width);
+          buffer[col - x] = mapped < 0 ? 0
+              : tile(mapped / TILE_SIZE, ty)[tileRow * tileWidth(mapped / TILE_SIZE)
+                  + mapped % TILE_SIZE];
+          col++;
+          continue;
+        }
+        int tx = col / TILE_SIZE;
+        int tileWidth = tileWidth(tx);
+        int tileCol = col % TILE_SIZE;
+        int count = Math.min(tileWidth - tileCol, x + w - col);
+        System.arraycopy(tile(tx, ty), tileRow * tileWidth + tileCol, buffer, col - x, count);
+        col += count;
+      }
+    }
+  }
+
+  /**
+   * Applies a kernel to this image a tile at a time. Each tile is read into a window together
+   * with a border of pixels from its neighbours, or read through the border mode outside of the
+   * image, and filtered a row at a time exactly as the filters do for other images. Bands of
+   * rows of tiles may be filtered in parallel, since each tile only reads this image.
+   *
+   * @param kernel the kernel
+   * @param border how the pixels outside of the image are read
+   * @return a new filtered tiled image
+   */
+  TiledImage convolve(ConvolutionKernel kernel, BorderMode border) {
+    int[][] newTiles = new int[tiles.length][];
+    ParallelExecutor.forEachBand(tilesDown, (long) width * TILE_SIZE, 1,
+        (start, end) -> convolveTiles(kernel, border, newTiles, start, end));
+    return new TiledImage(width, height, newTiles);
+  }
+
+  /**
+   * Applies a kernel to the tiles of some rows of tiles of this image.
+   *
+   * @param kernel   the kernel
+   * @param border   how the pixels outside of the image are read
+   * @param newTiles the array the filtered tiles are stored in
+   * @param start    the first row of tiles
+   * @param end      the row of tiles after the last one
+   */
+  private void convolveTiles(ConvolutionKernel kernel, BorderMode border, int[][] newTiles,
+      int start, int end) {
+    int size = kernel.getSize();
+    int half = size / 2;
+    int[][] window = new int[TILE_SIZE + 2 * half][TILE_SIZE + 2 * half];
+    int[][] sources = new int[size][];
+    int[] newRow = new int[TILE_SIZE];
+
+    for (int ty = start; ty < end; ty++) {
+      for (int tx = 0; tx < tilesAcross; tx++) {
+        int tileWidth = tileWidth(tx);
+        int tileHeight = tileHeight(ty);
+        int windowWidth = tileWidth + 2 * half;
+        copyRegion(tx * TILE_SIZE - half, ty * TILE_SIZE - half, windowWidth,
+            tileHeight + 2 * half, window, border);
+
+        // The window holds every pixel under the kernel, so no pixel of the tile is on an edge
+        int[] newTile = new int[tileWidth * tileHeight];
+        for (int i = 0; i < tileHeight; i++) {
+          System.arraycopy(window, i, sources, 0, size);
+          kernel.apply(sources, windowWidth, half, newRow, tileWidth, BorderMode.ZERO);
+          System.arraycopy(newRow, 0, newTile, i * tileWidth, tileWidth);
+        }
+        newTiles[ty * tilesAcross + tx] = newTile;
+      }
+    }
+  }
+
+  /**
+   * Masks this image a row of tiles at a time. A tile that the mask does not cover anywhere is
+   * shared with this image, without copying it or reading the transformed image at all. An
+   * operation on each pixel alone is computed for the covered tiles only, from the rows of this
+   * image, instead of transforming the whole image.
+   *
+   * @param mask      the mask; the transformed pixel is taken wherever the mask is black
+   * @param transform the transformation to be applied
+   * @return a new masked tiled image
+   * @throws IllegalArgumentException if the mask does not have the same dimensions
+   */
+  @Override
+  public IImage maskImage(IImage mask, ICommandTransformation transform)
+      throws IllegalArgumentException {
+    if (this.width != mask.getImageWidth() || this.height != mask.getImageHeight()) {
+      throw new IllegalArgumentException("Mask does not have same dimensions as original image.");
+    }
+
+    IRowKernel kernel = MaskedImage.pixelKernel(transform);
+    IImage transformed = kernel == null ? transform.performTransformation(this) : this;
+    int[][] newTiles = new int[tiles.length][];
+    int[][] maskRows = new int[TILE_SIZE][width];
+    int[][] transformedRows = new int[TILE_SIZE][width];
+    int[][] kernelRows = new int[1][];
+
+    for (int ty = 0; ty < tilesDown; ty++) {
+      int tileHeight = tileHeight(ty);
+      for (int i = 0; i < tileHeight; i++) {
+        mask.getRow(ty * TILE_SIZE + i, maskRows[i]);
+      }
+      boolean transformedRead = false;
+
+      for (int tx = 0; tx < tilesAcross; tx++) {
+        int tileWidth = tileWidth(tx);
+        int x0 = tx * TILE_SIZE;
+        int[] source = tile(tx, ty);
+        if (!coversTile(maskRows, tileHeight, x0, tileWidth)) {
+          newTiles[ty * tilesAcross + tx] = source;
+          continue;
+        }
+
+        // Only read the transformed rows once some tile of this row of tiles needs them
+        if (!transformedRead) {
+          for (int i = 0; i < tileHeight; i++) {
+            transformed.getRow(ty * TILE_SIZE + i, transformedRows[i]);
+          }
+          transformedRead = true;
+        }
+        if (kernel != null) {
+          // Tiles do not overlap, so the span of each row is computed over the row it reads
+          for (int i = 0; i < tileHeight; i++) {
+            if (!coversSpan(maskRows[i], x0, tileWidth)) {
+              continue;
+            }
+            kernelRows[0] = transformedRows[i];
+            kernel.computeSpan(kernelRows, width, transformedRows[i], x0, tileWidth);
+          }
+        }
+        int[] newTile = source.clone();
+        for (int i = 0; i < tileHeight; i++) {
+          for (int j = 0; j < tileWidth; j++) {
+            if (MaskedImage.isBlack(maskRows[i][x0 + j])) {
+              newTile[i * tileWidth + j] = transformedRows[i][x0 + j];
+            }
+          }
+        }
+        newTiles[ty * tilesAcross + tx] = newTile;
+      }
+    }
+    return new TiledImage(width, height, newTiles);
+  }
+
+  /**
+   * Determines if the mask is black anywhere inside of a tile.
+   *
+   * @param maskRows   the rows of the mask for the row of tiles
+   * @param tileHeight the height of the tile
+   * @param x0         the column of the left edge of the tile
+   * @param tileWidth  the width of the tile
+   * @return true if some pixel of the mask inside of the tile is black
+   */
+  private static boolean coversTile(int[][] maskRows, int tileHeight, int x0, int tileWidth) {
+    for (int i = 0; i < tileHeight; i++) {
+      if (coversSpan(maskRows[i], x0, tileWidth)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Determines if the mask is black anywhere inside of the span of a tile in one row.
+   *
+   * @param maskRow   the row of the mask
+   * @param x0        the column of the left edge of the tile
+   * @param tileWidth the width of the tile
+   * @return true if some pixel of the mask inside of the span is black
+   */
+  private static boolean coversSpan(int[] maskRow, int x0, int tileWidth) {
+    for (int j = x0; j < x0 + tileWidth; j++) {
+      if (MaskedImage.isBlack(maskRow[j])) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
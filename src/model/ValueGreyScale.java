@@ -7,7 +7,7 @@ package model;
 public class ValueGreyScale extends ACommandGrayScale {
 
   @Override
-  protected int returnNewValue(IPixel[][] pixels, int row, int col) {
-    return pixels[row][col].valuePixel();
+  protected int returnNewValue(int red, int green, int blue) {
+    return Math.max(red, Math.max(green, blue));
   }
 }
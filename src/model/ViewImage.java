@@ -0,0 +1,209 @@
+package model;
+
+/**
+ * Represents an Image that has no pixels of its own, but remaps the coordinates of another raster
+ * image. Flipping, cropping and transposing a raster image return a view instead of copying any
+ * pixel, and the rows of a view are read straight from its source, so saving a flipped image
+ * never creates a second image.
+ *
+ * <p>Each pixel (row, col) of a view is the pixel (rowOrigin + row * rowStepRow + col *
+ * rowStepCol, colOrigin + row * colStepRow + col * colStepCol) of its source, where the steps
+ * are -1, 0 or 1. A view of a view is collapsed into a single view of the original source, and a
+ * view that maps every pixel onto itself is the source itself; flipping an image twice returns
+ * the image that was flipped. Views are only as valid as their source, so a view of a closed
+ * DirectImage can no longer be read. Extends ARasterImage.
+ */
+public class ViewImage extends ARasterImage {
+
+  private final IRasterImage source;
+  private final int rowOrigin;
+  private final int rowStepRow;
+  private final int rowStepCol;
+  private final int colOrigin;
+  private final int colStepRow;
+  private final int colStepCol;
+
+  /**
+   * Constructor for ViewImage. Views are only created through remap, which checks the mapping.
+   *
+   * @param source     the image the view reads from
+   * @param width      the width of the view
+   * @param height     the height of the view
+   * @param rowOrigin  the source row of the top left pixel
+   * @param rowStepRow the change of the source row when the row of the view grows
+   * @param rowStepCol the change of the source row when the column of the view grows
+   * @param colOrigin  the source column of the top left pixel
+   * @param colStepRow the change of the source column when the row of the view grows
+   * @param colStepCol the change of the source column when the column of the view grows
+   */
+  private ViewImage(IRasterImage source, int width, int height, int rowOrigin, int rowStepRow,
+      int rowStepCol, int colOrigin, int colStepRow, int colStepCol) {
+    super(width, height);
+    this.source = source;
+    this.rowOrigin = rowOrigin;
+    this.rowStepRow = rowStepRow;
+    this.rowStepCol = rowStepCol;
+    this.colOrigin = colOrigin;
+    this.colStepRow = colStepRow;
+    this.colStepCol = colStepCol;
+  }
+
+  /**
+   * Creates a view of an image. A view of a view becomes a view of the original source, and a
+   * mapping that leaves every pixel of the source where it is returns the source itself.
+   *
+   * @param image      the image to be viewed
+   * @param width      the width of the view
+   * @param height     the height of the view
+   * @param rowOrigin  the row of the image at the top left pixel of the view
+   * @param rowStepRow the change of the row of the image when the row of the view grows
+   * @param rowStepCol the change of the row of the image when the column of the view grows
+   * @param colOrigin  the column of the image at the top left pixel of the view
+   * @param colStepRow the change of the column of the image when the row of the view grows
+   * @param colStepCol the change of the column of the image when the column of the view grows
+   * @return the view, or the source itself
+   */
+  static IRasterImage remap(IRasterImage image, int width, int height, int rowOrigin,
+      int rowStepRow, int rowStepCol, int colOrigin, int colStepRow, int colStepCol) {
+    IRasterImage source = image;
+    if (image instanceof ViewImage) {
+      // Map the coordinates of the new view through the old one
+      ViewImage view = (ViewImage) image;
+      source = view.source;
+      int newRowOrigin = view.rowOrigin + rowOrigin * view.rowStepRow
+          + colOrigin * view.rowStepCol;
+      int newColOrigin = view.colOrigin + rowOrigin * view.colStepRow
+          + colOrigin * view.colStepCol;
+      int newRowStepRow = rowStepRow * view.rowStepRow + colStepRow * view.rowStepCol;
+      int newRowStepCol = rowStepCol * view.rowStepRow + colStepCol * view.rowStepCol;
+      int newColStepRow = rowStepRow * view.colStepRow + colStepRow * view.colStepCol;
+      int newColStepCol = rowStepCol * view.colStepRow + colStepCol * view.colStepCol;
+      rowOrigin = newRowOrigin;
+      colOrigin = newColOrigin;
+      rowStepRow = newRowStepRow;
+      rowStepCol = newRowStepCol;
+      colStepRow = newColStepRow;
+      colStepCol = newColStepCol;
+    }
+
+    if (rowOrigin == 0 && colOrigin == 0 && rowStepRow == 1 && rowStepCol == 0
+        && colStepRow == 0 && colStepCol == 1 && width == source.getImageWidth()
+        && height == source.getImageHeight()) {
+      return source;
+    }
+    return new ViewImage(source, width, height, rowOrigin, rowStepRow, rowStepCol, colOrigin,
+        colStepRow, colStepCol);
+  }
+
+  @Override
+  IRasterImage storage() {
+    return source instanceof ARasterImage ? ((ARasterImage) source).storage() : source;
+  }
+
+  /**
+   * Copies the pixels of this view into a new image with the same kind of storage as its
+   * source. The values of a grayscale source stay in a GrayImage.
+   *
+   * @return a new image holding the pixels of this view
+   */
+  public IImage materialize() {
+    int[] row = new int[width];
+    if (source instanceof GrayImage) {
+      byte[] values = new byte[width * height];
+      for (int i = 0; i < height; i++) {
+        getRow(i, row);
+        for (int j = 0; j < width; j++) {
+          values[i * width + j] = (byte) blue(row[j]);
+        }
+      }
+      return new GrayImage(width, height, values);
+    }
+
+    IRasterImage copy = source.createBlank(width, height);
+    for (int i = 0; i < height; i++) {
+      getRow(i, row);
+      copy.setRow(i, row);
+    }
+    return copy;
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    checkPixel(x, y);
+    return source.getRGB(colOrigin + y * colStepRow + x * colStepCol,
+        rowOrigin + y * rowStepRow + x * rowStepCol);
+  }
+
+  @Override
+  public void getRow(int row, int[] buffer) {
+    if (rowStepCol != 0) {
+      // A transposed row runs down a column of the source
+      int sourceCol = colOrigin + row * colStepRow;
+      for (int j = 0; j < width; j++) {
+        buffer[j] = source.getRGB(sourceCol, rowOrigin + j * rowStepCol);
+      }
+      return;
+    }
+
+    int sourceRow = rowOrigin + row * rowStepRow;
+    int sourceWidth = source.getImageWidth();
+    if (width == sourceWidth && colStepCol == 1) {
+      source.getRow(sourceRow, buffer);
+    } else if (width == sourceWidth) {
+      source.getRow(sourceRow, buffer);
+      for (int j = 0; j < width / 2; j++) {
+        int swap = buffer[j];
+        buffer[j] = buffer[width - 1 - j];
+        buffer[width - 1 - j] = swap;
+      }
+    } else {
+      int[] sourceRowPixels = new int[sourceWidth];
+      source.getRow(sourceRow, sourceRowPixels);
+      for (int j = 0; j < width; j++) {
+        buffer[j] = sourceRowPixels[colOrigin + j * colStepCol];
+      }
+    }
+  }
+
+  /**
+   * Views have no storage, so writing a row is not supported.
+   *
+   * @param row    the index of the row
+   * @param buffer the packed pixels of the row
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void setRow(int row, int[] buffer) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException("A view cannot be written.");
+  }
+
+  @Override
+  public IRasterImage createBlank(int width, int height) {
+    return source.createBlank(width, height);
+  }
+
+  @Override
+  public IImage darkenBrightenImage(int increment) {
+    if (source instanceof GrayImage) {
+      return materialize().darkenBrightenImage(increment);
+    }
+    return super.darkenBrightenImage(increment);
+  }
+
+  @Override
+  public IImage filterImage(ICommandTransformation command) {
+    if (source instanceof GrayImage) {
+      return materialize().filterImage(command);
+    }
+    return super.filterImage(command);
+  }
+
+  @Override
+  public IImage maskImage(IImage mask, ICommandTransformation transform)
+      throws IllegalArgumentException {
+    if (source instanceof GrayImage) {
+      return materialize().maskImage(mask, transform);
+    }
+    return super.maskImage(mask, transform);
+  }
+}
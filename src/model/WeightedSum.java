@@ -0,0 +1,119 @@
+package model;
+
+/**
+ * Represents a weighted sum of the red, green and blue channels of a pixel, rounded to a whole
+ * number, such as the luma of a pixel or one row of a color matrix.
+ *
+ * <p>The product of each weight with each of the 256 channel values is kept in a table as a
+ * fixed-point integer with 16 fractional bits (16.16), rounded to the nearest one. A sum is then
+ * three lookups and two integer additions, and is rounded half up exactly like Math.round by
+ * adding one half and shifting right by 16 bits. Each product is within half of the last
+ * fractional bit of the double product, so the fixed-point sum can only round differently from
+ * the double sum when its fraction is within two of those bits of one half. In that rare case the
+ * products are summed in doubles instead, in the same order as the double expression, so the
+ * result is always exactly that of Math.round of the double sum.
+ */
+final class WeightedSum {
+
+  /**
+   * The weighted sum of the channels of a pixel that is its luma.
+   */
+  static final WeightedSum LUMA = new WeightedSum(0.2126, 0.7152, 0.0722);
+
+  static final int FRACTION_BITS = 16;
+  static final int ONE = 1 << FRACTION_BITS;
+  static final int HALF = ONE >> 1;
+
+  /**
+   * The largest distance, in fractional bits, between a fixed-point sum and the double sum.
+   */
+  static final int ERROR = 2;
+
+  private final double[] red;
+  private final double[] green;
+  private final double[] blue;
+  private final int[] fixedRed;
+  private final int[] fixedGreen;
+  private final int[] fixedBlue;
+
+  /**
+   * Constructor for WeightedSum.
+   *
+   * @param redWeight   the weight of the red channel
+   * @param greenWeight the weight of the green channel
+   * @param blueWeight  the weight of the blue channel
+   */
+  WeightedSum(double redWeight, double greenWeight, double blueWeight) {
+    this.red = products(redWeight);
+    this.green = products(greenWeight);
+    this.blue = products(blueWeight);
+    // Weights too large for the sums to fit in an int are only summed in doubles
+    boolean fits = Math.abs(redWeight) + Math.abs(greenWeight) + Math.abs(blueWeight) < 64;
+    this.fixedRed = fits ? toFixed(red) : null;
+    this.fixedGreen = fits ? toFixed(green) : null;
+    this.fixedBlue = fits ? toFixed(blue) : null;
+  }
+
+  /**
+   * Computes the product of a weight with every channel value.
+   *
+   * @param weight the weight
+   * @return the 256 products
+   */
+  private static double[] products(double weight) {
+    double[] products = new double[256];
+    for (int v = 0; v < 256; v++) {
+      products[v] = weight * v;
+    }
+    return products;
+  }
+
+  /**
+   * Rounds products to fixed-point integers with 16 fractional bits.
+   *
+   * @param products the products
+   * @return the fixed-point products
+   */
+  private static int[] toFixed(double[] products) {
+    int[] fixed = new int[products.length];
+    for (int v = 0; v < products.length; v++) {
+      fixed[v] = (int) Math.round(products[v] * ONE);
+    }
+    return fixed;
+  }
+
+  /**
+   * Obtains the fixed-point products of the three channels, for a sum computed elsewhere from
+   * the same tables (see IColorSpan). A sum whose fraction is within ERROR of one half must still
+   * be computed by apply.
+   *
+   * @return the red, green and blue tables of 256 products, or null if the sums only fit in
+   *         doubles
+   */
+  int[][] fixedProducts() {
+    if (fixedRed == null) {
+      return null;
+    }
+    return new int[][]{fixedRed, fixedGreen, fixedBlue};
+  }
+
+  /**
+   * Computes the weighted sum of the channels of a pixel, rounded half up.
+   *
+   * @param r the red channel, between 0 and 255
+   * @param g the green channel, between 0 and 255
+   * @param b the blue channel, between 0 and 255
+   * @return the rounded sum, which is not clamped
+   * @throws ArithmeticException if the rounded sum does not fit in an int
+   */
+  int apply(int r, int g, int b) throws ArithmeticException {
+    if (fixedRed != null) {
+      int sum = fixedRed[r] + fixedGreen[g] + fixedBlue[b] + HALF;
+      int fraction = sum & (ONE - 1);
+      if (fraction > ERROR && fraction < ONE - ERROR) {
+        return sum >> FRACTION_BITS;
+      }
+    }
+    return Math.toIntExact(Math.round(red[r] + green[g] + blue[b]));
+  }
+}
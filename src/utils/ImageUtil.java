@@ -1,18 +1,29 @@
 package utils;
 
-import java.awt.Color;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Scanner;
+import java.util.regex.Pattern;
 import java.io.FileNotFoundException;
 import java.io.FileInputStream;
 import javax.imageio.ImageIO;
-import model.IPixel;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import model.ARasterImage;
+import model.ConstantImage;
+import model.DeferredImage;
+import model.DirectImage;
+import model.GrayImage;
+import model.Histogram;
 import model.IImage;
-import model.ImageImpl;
-import model.RGBPixel;
+import model.PackedImage;
+import model.TiledImage;
 
 /**
  * This class contains utility methods to read a PPM image from file and simply print its contents.
@@ -20,6 +31,19 @@ import model.RGBPixel;
  */
 public class ImageUtil {
 
+  /**
+   * Images with more pixels than this are loaded into a DirectImage, off of the Java heap.
+   */
+  public static final long OFF_HEAP_PIXELS = 64L * 1024 * 1024;
+
+  // The whitespace and comment lines between the tokens of a ppm file
+  private static final Pattern PPM_DELIMITER = Pattern.compile("(?:\\s|(?m:^#.*$))+");
+
+  /**
+   * Images at least this wide are loaded into a TiledImage, so that filters stay in the cache.
+   */
+  public static final int TILED_WIDTH = 4096;
+
   /**
    * Saves an Image as a PPM file.
    *
@@ -35,21 +59,63 @@ public class ImageUtil {
 
     writer.write("P3\n" + width + " " + height + "\n255\n");
 
-    IPixel[][] pixels = image.getPixels();
-    IPixel pixel;
+    if (image instanceof DeferredImage) {
+      image = ((DeferredImage) image).image();
+    }
+
+    if (image instanceof GrayImage) {
+      // Each of the 256 gray values is always written the same way
+      String[] grayValues = new String[256];
+      for (int v = 0; v < 256; v++) {
+        grayValues[v] = v + " " + v + " " + v + " ";
+      }
+      int[] row = new int[width];
+      for (int i = 0; i < height; i++) {
+        image.getRow(i, row);
+        for (int j = 0; j < width; j++) {
+          writer.write(grayValues[ARasterImage.blue(row[j])]);
+        }
+      }
+      writer.close();
+      return;
+    }
+
+    int[] row = new int[width];
     for (int i = 0; i < height; i++) {
+      image.getRow(i, row);
       for (int j = 0; j < width; j++) {
-        pixel = pixels[i][j];
-        int red = pixel.redChannelPixel();
-        int green = pixel.greenChannelPixel();
-        int blue = pixel.blueChannelPixel();
-        writer.write(String.format("%d %d %d ", red, green, blue));
+        writer.write(String.format("%d %d %d ", ARasterImage.red(row[j]),
+            ARasterImage.green(row[j]), ARasterImage.blue(row[j])));
       }
     }
 
     writer.close();
   }
 
+  /**
+   * Saves the histogram of an image as a CSV file: a header, then one line for each value from
+   * 0 - 255 with how often it appears in the red, green and blue channels and as the intensity.
+   *
+   * @param pathName  the name of the CSV file with file path.
+   * @param histogram the histogram of the image
+   * @throws IOException if the file transmission fails.
+   */
+  public static void histogramToCSV(String pathName, Histogram histogram) throws IOException {
+    int[] red = histogram.getRed();
+    int[] green = histogram.getGreen();
+    int[] blue = histogram.getBlue();
+    int[] intensity = histogram.getIntensity();
+
+    FileWriter writer = new FileWriter(new File(pathName));
+    StringBuilder csv = new StringBuilder("value,red,green,blue,intensity\n");
+    for (int v = 0; v < 256; v++) {
+      csv.append(v).append(',').append(red[v]).append(',').append(green[v]).append(',')
+          .append(blue[v]).append(',').append(intensity[v]).append('\n');
+    }
+    writer.write(csv.toString());
+    writer.close();
+  }
+
   /**
    * Converts a file into an Image.
    *
@@ -58,11 +124,7 @@ public class ImageUtil {
    */
   public static BufferedImage fileToBufferedImage(String pathName) {
     BufferedImage imageBuff = null;
-    BufferedImage imageEx;
     try {
-      imageEx = ImageIO.read(new File(pathName));
-      imageBuff = new BufferedImage(imageEx.getWidth(), imageEx.getHeight(),
-          BufferedImage.TYPE_INT_RGB);
       imageBuff = ImageIO.read(new File(pathName));
 
       System.out.println("Reading successful.");
@@ -73,6 +135,78 @@ public class ImageUtil {
     return imageBuff;
   }
 
+  /**
+   * Converts a jpg or png file into an IImage. The size of the image is read from the file first:
+   * an image larger than OFF_HEAP_PIXELS is read into a DirectImage in bands of rows (see
+   * readBands), and any other image is read as a whole as by bufferedImageToIImage. A file that
+   * no reader can open is read by fileToBufferedImage, which reports the error.
+   *
+   * @param pathName the name of the image
+   * @return the jpg or png image as an IImage
+   */
+  public IImage imageFileToIImage(String pathName) {
+    ImageReader reader = null;
+    try (ImageInputStream input = ImageIO.createImageInputStream(new File(pathName))) {
+      Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+      if (readers != null && readers.hasNext()) {
+        reader = readers.next();
+        reader.setInput(input);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        IImage image;
+        if ((long) width * height > OFF_HEAP_PIXELS) {
+          // Each band holds at most as many pixels as an image kept on the heap
+          int bandRows = (int) Math.max(1, OFF_HEAP_PIXELS / width);
+          image = readBands(reader, width, height, bandRows);
+        } else {
+          image = bufferedImageToIImage(reader.read(0));
+        }
+        System.out.println("Reading successful.");
+        return image;
+      }
+    } catch (IOException e) {
+      // Read the file again below, which reports the error
+    } finally {
+      if (reader != null) {
+        reader.dispose();
+      }
+    }
+    return bufferedImageToIImage(fileToBufferedImage(pathName));
+  }
+
+  /**
+   * Reads an image into a DirectImage a band of rows at a time, so only one band is ever decoded
+   * onto the heap. A png or jpg decoder cannot start in the middle of a file, so it decodes the
+   * file again from the start for every band; a band as large as an image kept on the heap keeps
+   * the number of bands, and so the time this costs, small.
+   *
+   * @param reader   the reader, whose input is the file
+   * @param width    the width of the image
+   * @param height   the height of the image
+   * @param bandRows the number of rows read at a time
+   * @return the image as a DirectImage
+   * @throws IOException if the file cannot be read
+   */
+  static DirectImage readBands(ImageReader reader, int width, int height, int bandRows)
+      throws IOException {
+    DirectImage direct = new DirectImage(width, height);
+    ImageReadParam param = reader.getDefaultReadParam();
+    int[] row = new int[width];
+    for (int y = 0; y < height; y += bandRows) {
+      int rows = Math.min(bandRows, height - y);
+      param.setSourceRegion(new Rectangle(0, y, width, rows));
+      BufferedImage band = reader.read(0, param);
+      for (int i = 0; i < rows; i++) {
+        band.getRGB(0, i, width, 1, row, 0, width);
+        for (int j = 0; j < width; j++) {
+          row[j] &= 0xffffff;
+        }
+        direct.setRow(y + i, row);
+      }
+    }
+    return direct;
+  }
+
   /**
    * Given an IImage, converts it into a Buffered Image.
    *
@@ -83,19 +217,12 @@ public class ImageUtil {
 
     int width = image.getImageWidth();
     int height = image.getImageHeight();
-    IPixel[][] pixels = image.getPixels();
     BufferedImage buffImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
-    int sizeArray = 0;
-
+    int[] row = new int[width];
     for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        IPixel pixel = pixels[i][j];
-        int rgb = new Color(pixel.redChannelPixel(),
-            pixel.greenChannelPixel(), pixel.blueChannelPixel()).getRGB();
-        sizeArray++;
-        buffImage.setRGB(j, i, rgb);
-      }
+      image.getRow(i, row);
+      buffImage.setRGB(0, i, width, 1, row, 0, width);
     }
 
     return buffImage;
@@ -123,24 +250,60 @@ public class ImageUtil {
   public IImage bufferedImageToIImage(BufferedImage bufferImage) {
     int width = bufferImage.getWidth();
     int height = bufferImage.getHeight();
-    IPixel[][] pixelsBuffer = new IPixel[height][width];
-    // Grab each pixel from BufferedImage
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int color = bufferImage.getRGB(j, i);
-        int blue = color & 0xff;
-        int green = (color & 0xff00) >> 8;
-        int red = (color & 0xff0000) >> 16;
-        pixelsBuffer[i][j] = new RGBPixel(red, green, blue);
+    // Very large images are kept off the heap, a row at a time
+    if ((long) width * height > OFF_HEAP_PIXELS) {
+      DirectImage direct = new DirectImage(width, height);
+      int[] row = new int[width];
+      for (int i = 0; i < height; i++) {
+        bufferImage.getRGB(0, i, width, 1, row, 0, width);
+        for (int j = 0; j < width; j++) {
+          row[j] &= 0xffffff;
+        }
+        direct.setRow(i, row);
       }
+      return direct;
+    }
+
+    // Grab all pixels from BufferedImage at once, dropping the alpha byte
+    int[] pixelsBuffer = bufferImage.getRGB(0, 0, width, height, null, 0, width);
+    for (int i = 0; i < pixelsBuffer.length; i++) {
+      pixelsBuffer[i] &= 0xffffff;
     }
 
     // return image as IImage
-    return new ImageImpl(pixelsBuffer);
+    if (isConstant(pixelsBuffer)) {
+      return new ConstantImage(width, height, pixelsBuffer[0]);
+    }
+    PackedImage image = new PackedImage(width, height, pixelsBuffer);
+    if (width >= TILED_WIDTH) {
+      return new TiledImage(image);
+    }
+    return image;
+  }
+
+  /**
+   * Determines if every pixel of an image has the same color, in which case the image is loaded
+   * as a ConstantImage.
+   *
+   * @param pixels the packed pixels of the image
+   * @return true if there are pixels and all of them are the same
+   */
+  private static boolean isConstant(int[] pixels) {
+    if (pixels.length == 0) {
+      return false;
+    }
+    for (int rgb : pixels) {
+      if (rgb != pixels[0]) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
-   * Converts a String of a ppm file into an Image.
+   * Converts a String of a ppm file into an Image. The file is read as it is scanned, and a line
+   * starting with # is a comment that is skipped. Like an image of any other format, an image
+   * larger than OFF_HEAP_PIXELS is read into a DirectImage a row at a time.
    *
    * @param filename the name of the file
    * @return the ppm file as an Image
@@ -151,44 +314,64 @@ public class ImageUtil {
 
     // Scanner
     try {
-      sc = new Scanner(new FileInputStream(filename));
+      sc = new Scanner(new BufferedInputStream(new FileInputStream(filename)));
     } catch (FileNotFoundException e) {
       throw new IllegalStateException("File not found!");
     }
+    // Comment lines are read as whitespace between the tokens
+    sc.useDelimiter(PPM_DELIMITER);
 
-    StringBuilder builder = new StringBuilder();
-    //read the file line by line, and populate a string. This will throw away any comment lines
-    while (sc.hasNextLine()) {
-      String s = sc.nextLine();
-      if (s.charAt(0) != '#') {
-        builder.append(s + System.lineSeparator());
+    try {
+      String token;
+
+      token = sc.next();
+
+      int width = sc.nextInt();
+      int height = sc.nextInt();
+      int maxValue = sc.nextInt();
+
+      // Very large images are kept off the heap, a row at a time
+      if ((long) width * height > OFF_HEAP_PIXELS) {
+        DirectImage direct = new DirectImage(width, height);
+        int[] row = new int[width];
+        for (int i = 0; i < height; i++) {
+          readPixels(sc, row);
+          direct.setRow(i, row);
+        }
+        return direct;
       }
-    }
-
-    //now set up the scanner to read from the string we just built
-    sc = new Scanner(builder.toString());
-
-    String token;
-
-    token = sc.next();
 
-    int width = sc.nextInt();
-    int height = sc.nextInt();
-    int maxValue = sc.nextInt();
+      // Create image
+      int[] pixelsPPM = new int[width * height];
+      readPixels(sc, pixelsPPM);
+      // return ppm as packed image, or as a constant image if it has a single color
+      if (isConstant(pixelsPPM)) {
+        return new ConstantImage(width, height, pixelsPPM[0]);
+      }
+      return new PackedImage(width, height, pixelsPPM);
+    } finally {
+      sc.close();
+    }
+  }
 
-    // Create image
-    IPixel[][] pixelsPPM = new IPixel[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int r = sc.nextInt();
-        int g = sc.nextInt();
-        int b = sc.nextInt();
-        // Create new pixel
-        pixelsPPM[i][j] = new RGBPixel(r, g, b);
+  /**
+   * Reads the next pixels of a ppm file.
+   *
+   * @param sc     the scanner of the file, at the red value of the first pixel to read
+   * @param pixels the array to fill with the packed pixels
+   * @throws IllegalArgumentException if a value is not between 0 and 255
+   */
+  private static void readPixels(Scanner sc, int[] pixels) throws IllegalArgumentException {
+    for (int i = 0; i < pixels.length; i++) {
+      int r = sc.nextInt();
+      int g = sc.nextInt();
+      int b = sc.nextInt();
+      if ((r | g | b) < 0 || r > 255 || g > 255 || b > 255) {
+        throw new IllegalArgumentException("Pixel values must be between 0 and 255");
       }
+      // Pack new pixel
+      pixels[i] = ARasterImage.pack(r, g, b);
     }
-    // return ppm as image impl.
-    return new ImageImpl(pixelsPPM);
   }
 
   /**
@@ -203,8 +386,7 @@ public class ImageUtil {
     String type4 = pathname.substring(length - 4);
     IImage returnImage = null;
     if (type.equalsIgnoreCase("png") || type.equalsIgnoreCase("jpg")) {
-      BufferedImage buffer = fileToBufferedImage(pathname);
-      returnImage = bufferedImageToIImage(buffer);
+      returnImage = imageFileToIImage(pathname);
     } else if (type.equalsIgnoreCase("ppm")) {
       returnImage = new ImageUtil().ppmToImage(pathname);
     }
@@ -33,6 +33,12 @@ public interface IView {
    */
   public int numberSeeds();
 
+  /**
+   * Opens a box panel in which a user can type the standard deviation of a Gaussian blur.
+   * @return the standard deviation, in pixels
+   */
+  public double blurSigma();
+
   /**
    * Sets the specific image icon to the current image with the filepath name.
    * @param namepath the filepath of the image to set the image icon to.
@@ -21,8 +21,8 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.plaf.basic.BasicComboBoxUI;
 
+import model.Histogram;
 import model.IImage;
-import model.IPixel;
 import utils.ImageUtil;
 
 /**
@@ -39,6 +39,7 @@ import utils.ImageUtil;
  * - gray-scale
  * - sepia
  * - blur
+ * - gaussian blur
  * - sharpen
  * Finally, the GUI has
  * buttons for:
@@ -129,7 +130,7 @@ public class ImageGraphicsView extends JFrame implements IView {
     	"intensity-component", "luma-component", "value-component",
         "brighten", "vertical-flip", "horizontal-flip",
         "red-component", "green-component", "blue-component",
-        "blur", "sharpen", "sepia-transform",
+        "blur", "gaussian-blur", "sharpen", "sepia-transform",
         "grayscale-transform", "downscale", "mosaic"};
     
     combobox = new JComboBox<String>(options);
@@ -238,10 +239,12 @@ public class ImageGraphicsView extends JFrame implements IView {
 
   @Override
   public void displayHistogram() {
-    HashMap<Integer, Integer> mapRed = returnFrequencyArray(currentImage, new RedValue());
-    HashMap<Integer, Integer> mapGreen = returnFrequencyArray(currentImage, new GreenValue());
-    HashMap<Integer, Integer> mapBlue = returnFrequencyArray(currentImage, new BlueValue());
-    HashMap<Integer, Integer> mapValue = returnFrequencyArray(currentImage, new PixelIntensity());
+    // Count every channel and the intensity in one pass
+    Histogram histogram = Histogram.of(currentImage);
+    HashMap<Integer, Integer> mapRed = returnFrequencyArray(histogram.getRed());
+    HashMap<Integer, Integer> mapGreen = returnFrequencyArray(histogram.getGreen());
+    HashMap<Integer, Integer> mapBlue = returnFrequencyArray(histogram.getBlue());
+    HashMap<Integer, Integer> mapValue = returnFrequencyArray(histogram.getIntensity());
     histogramPanel = new GraphPanel(mapRed, mapGreen, mapBlue, mapValue);
     BufferedImage bufferHistogram = panelToBufferedImage(histogramPanel, 600, 600);
     histogramLabel.setIcon(new ImageIcon(bufferHistogram));
@@ -275,6 +278,15 @@ public class ImageGraphicsView extends JFrame implements IView {
     return Integer.parseInt(s);
   }
 
+  @Override
+  public double blurSigma() {
+    String s = JOptionPane.showInputDialog(this,
+        "How strong should the blur be? (sigma, in pixels)",
+        "Gaussian Blur",
+        JOptionPane.PLAIN_MESSAGE);
+    return Double.parseDouble(s);
+  }
+
   @Override
   public double[] obtainWidthAndHeight() {
     double[] dims = new double[2];
@@ -292,51 +304,22 @@ public class ImageGraphicsView extends JFrame implements IView {
   }
 
   /**
-   * Returns an array of size 256 that contains the frequency of the index value for an image. The
+   * Returns a map of size 256 that contains the frequency of the index value for an image. The
    * first integer is the index. The second integer is the frequency
    *
-   * @param image   the image
-   * @param command the command for extracting a specific value from a pixel
+   * @param frequencies the frequencies of the values 0 - 255 of one channel of a Histogram
    * @return the map of frequency of each possible pixel value from 0 - 255
    */
-  private HashMap<Integer, Integer> returnFrequencyArray(IImage image,
-      HistogramValueCommand command) {
-    int width = image.getImageWidth();
-    int height = image.getImageHeight();
-    int length = 256;
-    IPixel[][] pixels = image.getPixels().clone();
-
+  private HashMap<Integer, Integer> returnFrequencyArray(int[] frequencies) {
+    // Copy the frequency of each pixel value 0 - 255 into the map.
     HashMap<Integer, Integer> frequencyMap = new HashMap<Integer, Integer>();
-    // Initialize a map with keys 0 - 255 and values of 0.
-    for (int i = 0; i < length; i++) {
-      frequencyMap.put(i, 0);
-    }
-
-    // Recur through each pixel in the photo. For each pixel value occurence, increment to
-    // the map.
-    for (int j = 0; j < height; j++) {
-      for (int k = 0; k < width; k++) {
-        int pixelValue = valueCommand(command, pixels[j][k]); // choose what value you want
-        int newFrequency = frequencyMap.get(pixelValue) + 1;
-        // If key appears, then grab value and increment , then reassign in map.
-        frequencyMap.put(pixelValue, newFrequency); // set new frequency
-      }
+    for (int i = 0; i < frequencies.length; i++) {
+      frequencyMap.put(i, frequencies[i]);
     }
 
     return frequencyMap;
   }
 
-  /**
-   * Grabs a value from a pixel based off given command.
-   *
-   * @param command the command that indicates which component to grab from given pixel.
-   * @param pixel   the IPixel
-   * @return a value component of a pixel.
-   */
-  private int valueCommand(HistogramValueCommand command, IPixel pixel) {
-    return command.returnPixelValue(pixel);
-  }
-
   /**
    * Converts a JPanel into a buffered image.
    *
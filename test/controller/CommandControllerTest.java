@@ -1,11 +1,44 @@
 package controller;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import model.BinomialBlurFilter;
+import model.BlurImageFilter;
+import model.BorderMode;
+import model.BoxBlurFilter;
+import model.DeferredImage;
+import model.GaussianBlurFilter;
+import model.GreenGrayScale;
+import model.GreyScaleColorTransform;
+import model.IImage;
+import model.IPixel;
+import model.IteratedBlurFilter;
+import model.ImageImpl;
 import model.ImageProcessorModel;
 import model.ImageProcessorModelImpl;
+import model.LumaGrayScale;
+import model.PackedImage;
+import model.PlanarImage;
+import model.ParallelExecutor;
+import model.RGBPixel;
+import model.RedGrayScale;
+import model.SepiaColorTransform;
+import model.SharpenImageFilter;
 import view.ImageProcessorView;
 import view.ImageProcessorViewImpl;
 
@@ -67,7 +100,15 @@ public class CommandControllerTest {
         + "sepia-transform image-name dest-image-name\n"
         + "grayscale-transform image-name dest-image-name\n"
         + "blur image-name dest-image-name\n"
+        + "blur sigma image-name dest-image-name\n"
         + "sharpen image-name dest-image-name\n"
+        + "blur-n count image-name dest-image-name\n"
+        + "box-blur radius [passes] image-name dest-image-name\n"
+        + "convolve size weights image-name dest-image-name\n"
+        + "border mode (zero, clamp, mirror or wrap)\n"
+        + "parallelism n\n"
+        + "planar image-name dest-image-name\n"
+        + "histogram file-path image-name\n"
         + "q or quit (quit the program) \n"
         + "Welcome!\n"
         + "Type instruction: ";
@@ -133,6 +174,270 @@ public class CommandControllerTest {
     ICommandController nullConstructor = new VerticalTransform(null, model, view);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testConvolveNull() {
+    ICommandController nullConstructor = new ConvolveTransform(null, model, view);
+  }
+
+  @Test
+  public void testConvolve() throws IOException {
+    IImage image = new ImageImpl(new IPixel[][]{
+        {new RGBPixel(10, 200, 30), new RGBPixel(255, 0, 90), new RGBPixel(7, 7, 7)},
+        {new RGBPixel(0, 40, 250), new RGBPixel(128, 128, 128), new RGBPixel(60, 1, 2)}});
+    model.addImage("image", image);
+    new ConvolveTransform(controller, model, view).imageCommand(
+        new Scanner("3 1/16 0.125 1/16 1/8 1/4 1/8 1/16 1/8 0.0625 image blurred"));
+    assertEquals(image.filterImage(new BlurImageFilter()), model.obtainImage("blurred"));
+  }
+
+  @Test
+  public void testGaussianBlur() throws IOException {
+    IImage image = new ImageImpl(4, 3, new RGBPixel(90, 180, 30));
+    model.addImage("image", image);
+    blur.imageCommand(new Scanner("2.5 image blurred"));
+    assertEquals(image.filterImage(new GaussianBlurFilter(2.5)), model.obtainImage("blurred"));
+    blur.imageCommand(new Scanner("image blurred3"));
+    assertEquals(image.filterImage(new BlurImageFilter()), model.obtainImage("blurred3"));
+  }
+
+  @Test
+  public void testFusedColorMatrices() throws IOException {
+    int[] pixels = {0xFFFFFF, 0x10E080, 0x7F3C01, 0x000000, 0xC0C0C0, 0x3355AA};
+    IImage image = new PackedImage(3, 2, pixels);
+    model.addImage("image", image);
+    sepia.imageCommand(new Scanner("image toned"));
+    greyscale.imageCommand(new Scanner("toned grey"));
+    sepia.imageCommand(new Scanner("grey result"));
+
+    IImage toned = image.colorTransform(new SepiaColorTransform());
+    IImage grey = toned.colorTransform(new GreyScaleColorTransform());
+    int[] expected = new int[6];
+    int[] actual = new int[6];
+    grey.colorTransform(new SepiaColorTransform()).copyTo(expected);
+    model.obtainImage("result").copyTo(actual);
+    assertArrayEquals(expected, actual);
+
+    // The images in between were never read, so they were never computed
+    assertFalse(((DeferredImage) model.obtainImage("toned")).isComputed());
+    assertFalse(((DeferredImage) model.obtainImage("grey")).isComputed());
+    grey.copyTo(expected);
+    model.obtainImage("grey").copyTo(actual);
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  public void testFusedPixelCommands() throws IOException {
+    IImage image = new PackedImage(3, 2, new int[]{0xFFFFFF, 0x10E080, 0x7F3C01, 0x000000,
+        0xC0C0C0, 0x3355AA});
+    model.addImage("image", image);
+    new BrightenTransform(controller, model, view).imageCommand(new Scanner("40 image bright"));
+    red.imageCommand(new Scanner("bright red"));
+    sepia.imageCommand(new Scanner("red toned"));
+    luma.imageCommand(new Scanner("toned result"));
+
+    int[] expected = new int[6];
+    int[] actual = new int[6];
+    image.darkenBrightenImage(40).grayScaleImage(new RedGrayScale())
+        .colorTransform(new SepiaColorTransform()).grayScaleImage(new LumaGrayScale())
+        .copyTo(expected);
+    model.obtainImage("result").copyTo(actual);
+    assertArrayEquals(expected, actual);
+    for (String name : new String[]{"bright", "red", "toned"}) {
+      assertFalse(((DeferredImage) model.obtainImage(name)).isComputed());
+    }
+  }
+
+  @Test
+  public void testBorderMode() throws IOException {
+    IImage image = new PackedImage(4, 3, new int[]{0xFFFFFF, 0x10E080, 0x7F3C01, 0x000000,
+        0xC0C0C0, 0x3355AA, 0x102030, 0xFF0000, 0x00FF00, 0x0000FF, 0x808080, 0x445566});
+    model.addImage("image", image);
+    new ImageProcessorControllerImpl(model, new StringReader(""), view).manipulateImage(
+        new Scanner("border mirror blur image blurred box-blur 1 image boxed border zero "
+            + "sharpen image sharpened q"));
+
+    int[] expected = new int[12];
+    int[] actual = new int[12];
+    image.filterImage(new BlurImageFilter(BorderMode.MIRROR)).copyTo(expected);
+    model.obtainImage("blurred").copyTo(actual);
+    assertArrayEquals(expected, actual);
+    image.filterImage(new BoxBlurFilter(1, 1, BorderMode.MIRROR)).copyTo(expected);
+    model.obtainImage("boxed").copyTo(actual);
+    assertArrayEquals(expected, actual);
+    image.filterImage(new SharpenImageFilter()).copyTo(expected);
+    model.obtainImage("sharpened").copyTo(actual);
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  public void testMenu() throws IOException {
+    Appendable out = new StringBuilder();
+    new ImageProcessorControllerImpl(model, new StringReader(""),
+        new ImageProcessorViewImpl(out)).manipulateImage(new Scanner("q"));
+    String menu = menuAndWelcome.substring(0, menuAndWelcome.indexOf("Welcome!"));
+    assertEquals("Welcome!\n" + menu + "Type instruction: ", out.toString());
+  }
+
+  @Test
+  public void testParallelism() throws IOException {
+    int parallelism = ParallelExecutor.getParallelism();
+    Appendable out = new StringBuilder();
+    new ImageProcessorControllerImpl(model, new StringReader(""),
+        new ImageProcessorViewImpl(out)).manipulateImage(
+        new Scanner("parallelism 2 parallelism none parallelism 0 q"));
+    assertEquals(2, ParallelExecutor.getParallelism());
+    assertTrue(out.toString().contains("Parallelism set to 2."));
+    assertEquals(2, out.toString().split("Please input a valid parallelism.").length - 1);
+    ParallelExecutor.setParallelism(parallelism);
+  }
+
+  @Test
+  public void testHistogram() throws IOException {
+    IImage image = new PackedImage(2, 2, new int[]{0x000000, 0x0000FF, 0x0000FF, 0xFF0302});
+    model.addImage("image", image);
+    File file = File.createTempFile("histogram", ".csv");
+    file.deleteOnExit();
+    new HistogramCommand(controller, model, view).imageCommand(
+        new Scanner(file.getPath() + " image"));
+
+    List<String> lines = Files.readAllLines(file.toPath());
+    assertEquals(257, lines.size());
+    assertEquals("value,red,green,blue,intensity", lines.get(0));
+    assertEquals("0,3,3,1,1", lines.get(1));
+    assertEquals("2,0,0,1,0", lines.get(3));
+    assertEquals("85,0,0,0,2", lines.get(86));
+    assertEquals("86,0,0,0,1", lines.get(87));
+    assertEquals("255,1,0,2,0", lines.get(256));
+  }
+
+  @Test
+  public void testPlanar() throws IOException {
+    IImage image = new PackedImage(4, 3, new int[]{0xFFFFFF, 0x10E080, 0x7F3C01, 0x000000,
+        0xC0C0C0, 0x3355AA, 0x102030, 0xFF0000, 0x00FF00, 0x0000FF, 0x808080, 0x445566});
+    model.addImage("image", image);
+    new ImageProcessorControllerImpl(model, new StringReader(""), view).manipulateImage(
+        new Scanner("planar image planar green-component planar green q"));
+
+    assertTrue(model.obtainImage("planar") instanceof PlanarImage);
+    int[] expected = new int[12];
+    int[] actual = new int[12];
+    image.copyTo(expected);
+    model.obtainImage("planar").copyTo(actual);
+    assertArrayEquals(expected, actual);
+    image.grayScaleImage(new GreenGrayScale()).copyTo(expected);
+    model.obtainImage("green").copyTo(actual);
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  public void testRepeatedBlurs() throws IOException {
+    IImage image = new PackedImage(4, 3, new int[]{0xFFFFFF, 0x10E080, 0x7F3C01, 0x000000,
+        0xC0C0C0, 0x3355AA, 0x102030, 0xFF0000, 0x00FF00, 0x0000FF, 0x808080, 0x445566});
+    model.addImage("image", image);
+    blur.imageCommand(new Scanner("image once"));
+    blur.imageCommand(new Scanner("once twice"));
+    new IteratedBlurTransform(controller, model, view).imageCommand(
+        new Scanner("2 twice result"));
+
+    DeferredImage result = (DeferredImage) model.obtainImage("result");
+    assertEquals(image, result.getSource());
+    assertEquals(4, ((IteratedBlurFilter) result.getOperation()).getCount());
+    int[] expected = new int[12];
+    int[] actual = new int[12];
+    IImage passes = image;
+    for (int n = 0; n < 4; n++) {
+      passes = passes.filterImage(new BlurImageFilter());
+    }
+    passes.copyTo(expected);
+    result.copyTo(actual);
+    assertArrayEquals(expected, actual);
+    for (String name : new String[]{"once", "twice"}) {
+      assertFalse(((DeferredImage) model.obtainImage(name)).isComputed());
+    }
+
+    // A single blur is exactly the 3 by 3 blur
+    image.filterImage(new BlurImageFilter()).copyTo(expected);
+    model.obtainImage("once").copyTo(actual);
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  public void testRepeatedBlursMatchPasses() throws IOException {
+    Random random = new Random(1900);
+    int[] pixels = new int[9 * 7];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+    IImage image = new PackedImage(9, 7, pixels);
+    int[] expected = new int[pixels.length];
+    int[] actual = new int[pixels.length];
+
+    // Every pixel, the edges included, is that of blurring once per command
+    for (BorderMode border : new BorderMode[]{BorderMode.ZERO, BorderMode.CLAMP}) {
+      model.addImage("image", image);
+      new ImageProcessorControllerImpl(model, new StringReader(""), view).manipulateImage(
+          new Scanner("border " + border.name().toLowerCase() + " blur image a blur a b "
+              + "blur-n 3 b c blur c image q"));
+      IImage passes = image;
+      for (int n = 0; n < 6; n++) {
+        passes = passes.filterImage(new BlurImageFilter(border));
+        if (n == 1) {
+          passes.copyTo(expected);
+          model.obtainImage("b").copyTo(actual);
+          assertArrayEquals(expected, actual);
+        }
+      }
+      passes.copyTo(expected);
+      model.obtainImage("image").copyTo(actual);
+      assertArrayEquals(expected, actual);
+    }
+
+    // A mirror border treats the edges of every pass alike, so the blurs share one kernel
+    model.addImage("image", image);
+    new ImageProcessorControllerImpl(model, new StringReader(""), view).manipulateImage(
+        new Scanner("border mirror blur image a blur a b q"));
+    assertEquals(2, ((BinomialBlurFilter) ((DeferredImage) model.obtainImage("b"))
+        .getOperation()).getCount());
+  }
+
+  @Test
+  public void testInPlace() throws IOException {
+    int[] pixels = {0xFFFFFF, 0x10E080, 0x7F3C01, 0x000000, 0xC0C0C0, 0x3355AA, 0x102030,
+        0xFF0000, 0x00FF00, 0x0000FF, 0x808080, 0x445566};
+    IImage original = new PackedImage(4, 3, pixels.clone());
+    IImage expected = original.darkenBrightenImage(10).filterImage(new BlurImageFilter())
+        .colorTransform(new SepiaColorTransform()).filterImage(new SharpenImageFilter());
+    IImage image = new PackedImage(4, 3, pixels.clone());
+    model.addImage("image", image);
+    new ImageProcessorControllerImpl(model, new StringReader(""), view).manipulateImage(
+        new Scanner("brighten 10 image image blur image image sepia-transform image image "
+            + "sharpen image image q"));
+
+    // Every command overwrote the image, which nothing else refers to
+    assertSame(image, model.obtainImage("image"));
+    int[] actual = new int[12];
+    int[] expectedPixels = new int[12];
+    expected.copyTo(expectedPixels);
+    image.copyTo(actual);
+    assertArrayEquals(expectedPixels, actual);
+
+    // An image stored under another name is left as it was
+    IImage shared = new PackedImage(4, 3, pixels.clone());
+    model.addImage("shared", shared);
+    model.addImage("other", shared);
+    new ImageProcessorControllerImpl(model, new StringReader(""), view).manipulateImage(
+        new Scanner("brighten 10 shared shared sharpen shared shared q"));
+    assertNotSame(shared, model.obtainImage("shared"));
+    shared.copyTo(actual);
+    assertArrayEquals(pixels, actual);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConvolveEvenSize() throws IOException {
+    new ConvolveTransform(controller, model, view).imageCommand(
+        new Scanner("2 1 1 1 1 image blurred"));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testNullModel() {
     ICommandController nullConstructor = new SepiaTransform(controller, null, view);
@@ -48,7 +48,15 @@ public class ImageControllerImplTest {
         + "sepia-transform image-name dest-image-name\n"
         + "grayscale-transform image-name dest-image-name\n"
         + "blur image-name dest-image-name\n"
+        + "blur sigma image-name dest-image-name\n"
         + "sharpen image-name dest-image-name\n"
+        + "blur-n count image-name dest-image-name\n"
+        + "box-blur radius [passes] image-name dest-image-name\n"
+        + "convolve size weights image-name dest-image-name\n"
+        + "border mode (zero, clamp, mirror or wrap)\n"
+        + "parallelism n\n"
+        + "planar image-name dest-image-name\n"
+        + "histogram file-path image-name\n"
         + "q or quit (quit the program) \n"
         + "Welcome!\n"
         + "Type instruction: ";
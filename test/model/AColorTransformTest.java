@@ -0,0 +1,138 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the table-driven color matrix of AColorTransform against multiplying each pixel by the
+ * matrix directly, for random pixels.
+ */
+public class AColorTransformTest {
+
+  int[] pixels;
+
+  /**
+   * Creates 5000 random packed pixels.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new int[5000];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+  }
+
+  /**
+   * Multiplies a packed pixel by a matrix one channel at a time, as the transforms always have.
+   *
+   * @param m   the matrix
+   * @param rgb the packed pixel
+   * @return the transformed packed pixel
+   */
+  private static int multiply(double[][] m, int rgb) {
+    int r = ARasterImage.red(rgb);
+    int g = ARasterImage.green(rgb);
+    int b = ARasterImage.blue(rgb);
+    int[] channels = new int[3];
+    for (int c = 0; c < 3; c++) {
+      long value = Math.round((m[c][0] * r) + (m[c][1] * g) + (m[c][2] * b));
+      channels[c] = (int) Math.max(0, Math.min(255, value));
+    }
+    return ARasterImage.pack(channels[0], channels[1], channels[2]);
+  }
+
+  @Test
+  public void testSpansMatchMatrix() {
+    AColorTransform[] transforms = {new SepiaColorTransform(), new GreyScaleColorTransform()};
+    for (AColorTransform transform : transforms) {
+      double[][] matrix = transform.createConversionMatrix();
+      int[] result = new int[pixels.length + 3];
+      transform.transformSpan(pixels, 0, result, 3, pixels.length);
+      for (int i = 0; i < pixels.length; i++) {
+        assertEquals(multiply(matrix, pixels[i]), result[i + 3]);
+      }
+    }
+  }
+
+  @Test
+  public void testSpanInPlace() {
+    int[] expected = new int[pixels.length];
+    new SepiaColorTransform().transformSpan(pixels, 0, expected, 0, pixels.length);
+    new SepiaColorTransform().transformSpan(pixels, 0, pixels, 0, pixels.length);
+    assertEquals(expected[4999], pixels[4999]);
+    assertEquals(expected[0], pixels[0]);
+  }
+
+  @Test
+  public void testPlanarGreyScale() {
+    PackedImage packed = new PackedImage(50, 100, pixels);
+    IImage grey = new PlanarImage(packed).colorTransform(new GreyScaleColorTransform());
+    assertTrue(grey instanceof GrayImage);
+    assertSamePixels(packed.colorTransform(new GreyScaleColorTransform()), grey);
+    assertSamePixels(packed.colorTransform(new SepiaColorTransform()),
+        new PlanarImage(packed).colorTransform(new SepiaColorTransform()));
+  }
+
+  @Test
+  public void testVectorMatchesMatrix() {
+    // Only runs with --add-modules jdk.incubator.vector and VectorColorSpan built
+    IColorSpan vector = IColorSpan.load();
+    Assume.assumeNotNull(vector);
+    double[][][] matrices = {new SepiaColorTransform().createConversionMatrix(),
+        new GreyScaleColorTransform().createConversionMatrix(),
+        {{0.5, 0.5, 0}, {0, 0.5, 0.5}, {0.5, 0, 0.5}},
+        {{1.7, -0.4, 0.2}, {-1, 2.5, 0.25}, {0.1, 0.1, -3}}};
+    for (double[][] matrix : matrices) {
+      boolean sameRows = Arrays.equals(matrix[0], matrix[1])
+          && Arrays.equals(matrix[0], matrix[2]);
+      WeightedSum[] rows = new WeightedSum[3];
+      for (int c = 0; c < 3; c++) {
+        rows[c] = new WeightedSum(matrix[c][0], matrix[c][1], matrix[c][2]);
+      }
+      // An odd length leaves pixels after the last whole vector
+      int[] result = new int[pixels.length + 3];
+      assertTrue(vector.transformSpan(rows, sameRows, pixels, 1, result, 3, pixels.length - 1));
+      for (int i = 1; i < pixels.length; i++) {
+        assertEquals(multiply(matrix, pixels[i]), result[i + 2]);
+      }
+    }
+
+    // Sums that only fit in doubles are left to the scalar loop
+    WeightedSum large = new WeightedSum(100, 0, 0);
+    assertFalse(vector.transformSpan(new WeightedSum[]{large, large, large}, true, pixels, 0,
+        new int[pixels.length], 0, pixels.length));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullNext() {
+    new SepiaColorTransform().andThen(null);
+  }
+
+  @Test
+  public void testChains() {
+    PackedImage packed = new PackedImage(50, 100, pixels);
+    IImage[] images = {packed, new PlanarImage(packed), new ImageImpl(packed.getPixels()),
+        new ConstantImage(7, 3, pixels[0])};
+    AColorTransform sepia = new SepiaColorTransform();
+    AColorTransform grey = new GreyScaleColorTransform();
+    AColorTransform chain = sepia.andThen(grey);
+    AColorTransform longChain = grey.andThen(sepia.andThen(sepia));
+    assertEquals(0.2126, chain.createConversionMatrix()[2][0], 0);
+    for (IImage image : images) {
+      IImage sequential = image.colorTransform(sepia).colorTransform(grey);
+      assertSamePixels(sequential, image.colorTransform(chain));
+      assertSamePixels(image.colorTransform(grey).colorTransform(sepia).colorTransform(sepia),
+          image.colorTransform(longChain));
+    }
+    assertTrue(new PlanarImage(packed).colorTransform(chain) instanceof GrayImage);
+  }
+}
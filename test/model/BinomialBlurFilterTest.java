@@ -0,0 +1,142 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the BinomialBlurFilter class, which applies a number of 3 by 3 blurs at once. Each result
+ * is compared against the 3 by 3 blur, or against a direct blur with the binomial kernel computed
+ * in doubles.
+ */
+public class BinomialBlurFilterTest {
+
+  IPixel[][] pixels;
+  IImage implExample;
+
+  /**
+   * Creates a random 23 by 14 image.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[14][23];
+    for (int i = 0; i < 14; i++) {
+      for (int j = 0; j < 23; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+  }
+
+  /**
+   * Checks that every channel of an image is within one of a direct blur of the example with the
+   * binomial kernel of a number of blurs.
+   *
+   * @param count  the number of blurs
+   * @param border the border mode
+   * @param actual the blurred image
+   */
+  private void assertNearBinomial(int count, BorderMode border, IImage actual) {
+    double[] weights = new double[2 * count + 1];
+    for (int k = 0; k <= 2 * count; k++) {
+      double coefficient = 1;
+      for (int m = 0; m < k; m++) {
+        coefficient = coefficient * (2 * count - m) / (m + 1);
+      }
+      weights[k] = coefficient / Math.pow(4, count);
+    }
+    for (int i = 0; i < 14; i++) {
+      for (int j = 0; j < 23; j++) {
+        double[] sums = new double[3];
+        for (int k = -count; k <= count; k++) {
+          for (int l = -count; l <= count; l++) {
+            int row = border.map(i + k, 14);
+            int col = border.map(j + l, 23);
+            if (row < 0 || col < 0) {
+              continue;
+            }
+            double weight = weights[k + count] * weights[l + count];
+            sums[0] += weight * pixels[row][col].redChannelPixel();
+            sums[1] += weight * pixels[row][col].greenChannelPixel();
+            sums[2] += weight * pixels[row][col].blueChannelPixel();
+          }
+        }
+        int rgb = actual.getRGB(j, i);
+        assertEquals(sums[0], ARasterImage.red(rgb), 1.0);
+        assertEquals(sums[1], ARasterImage.green(rgb), 1.0);
+        assertEquals(sums[2], ARasterImage.blue(rgb), 1.0);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCount() {
+    new BinomialBlurFilter(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeCount() {
+    new BinomialBlurFilter(BinomialBlurFilter.MAX_COUNT + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullBorder() {
+    new BinomialBlurFilter(2, null);
+  }
+
+  @Test
+  public void testOnceIsBlur() {
+    IImage gray = implExample.grayScaleImage(new LumaGrayScale());
+    for (BorderMode border : BorderMode.values()) {
+      BinomialBlurFilter once = new BinomialBlurFilter(1, border);
+      assertEquals(1, once.getRadius());
+      assertSamePixels(implExample.filterImage(new BlurImageFilter(border)),
+          implExample.filterImage(once));
+      assertSamePixels(gray.filterImage(new BlurImageFilter(border)), gray.filterImage(once));
+    }
+  }
+
+  @Test
+  public void testNearBinomial() {
+    for (BorderMode border : BorderMode.values()) {
+      for (int count : new int[]{2, 5, 9}) {
+        BinomialBlurFilter blur = new BinomialBlurFilter(count, border);
+        IImage blurred = implExample.filterImage(blur);
+        assertNearBinomial(count, border, blurred);
+        assertSamePixels(blurred, new TiledImage(implExample).filterImage(blur));
+      }
+    }
+  }
+
+  @Test
+  public void testMirrorMatchesPasses() {
+    // A mirror border blurs the same way every time, so the passes differ only by rounding
+    IImage passes = implExample;
+    for (int n = 0; n < 4; n++) {
+      passes = passes.filterImage(new BlurImageFilter(BorderMode.MIRROR));
+    }
+    IImage once = implExample.filterImage(new BinomialBlurFilter(4, BorderMode.MIRROR));
+    for (int i = 0; i < 14; i++) {
+      for (int j = 0; j < 23; j++) {
+        int expected = passes.getRGB(j, i);
+        int actual = once.getRGB(j, i);
+        assertEquals(ARasterImage.red(expected), ARasterImage.red(actual), 2);
+        assertEquals(ARasterImage.green(expected), ARasterImage.green(actual), 2);
+        assertEquals(ARasterImage.blue(expected), ARasterImage.blue(actual), 2);
+      }
+    }
+  }
+
+  @Test
+  public void testTrimmedRadius() {
+    BinomialBlurFilter blur = new BinomialBlurFilter(400);
+    assertEquals(400, blur.getCount());
+    assertTrue(blur.getRadius() < 3 * 20);
+  }
+}
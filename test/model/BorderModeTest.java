@@ -0,0 +1,50 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests how each BorderMode maps the rows and columns outside of an image.
+ */
+public class BorderModeTest {
+
+  @Test
+  public void testInsideUnchanged() {
+    for (BorderMode border : BorderMode.values()) {
+      for (int index = 0; index < 5; index++) {
+        assertEquals(index, border.map(index, 5));
+      }
+    }
+  }
+
+  @Test
+  public void testZero() {
+    assertEquals(-1, BorderMode.ZERO.map(-1, 5));
+    assertEquals(-1, BorderMode.ZERO.map(5, 5));
+  }
+
+  @Test
+  public void testClamp() {
+    assertEquals(0, BorderMode.CLAMP.map(-3, 5));
+    assertEquals(4, BorderMode.CLAMP.map(5, 5));
+    assertEquals(4, BorderMode.CLAMP.map(12, 5));
+  }
+
+  @Test
+  public void testMirror() {
+    int[] expected = {0, 1, 2, 3, 4, 3, 2, 1, 0, 1, 2, 3, 4, 3, 2};
+    for (int index = -8; index <= 6; index++) {
+      assertEquals(expected[index + 8], BorderMode.MIRROR.map(index, 5));
+    }
+    assertEquals(0, BorderMode.MIRROR.map(-2, 1));
+    assertEquals(0, BorderMode.MIRROR.map(3, 1));
+  }
+
+  @Test
+  public void testWrap() {
+    assertEquals(4, BorderMode.WRAP.map(-1, 5));
+    assertEquals(0, BorderMode.WRAP.map(5, 5));
+    assertEquals(3, BorderMode.WRAP.map(-7, 5));
+  }
+}
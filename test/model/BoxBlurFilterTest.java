@@ -0,0 +1,131 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the BoxBlurFilter class, a blur with running sums. Each result is compared against the
+ * average over the box computed directly for every pixel.
+ */
+public class BoxBlurFilterTest {
+
+  IPixel[][] pixels;
+  IImage implExample;
+
+  /**
+   * Creates a random 29 by 18 image.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[18][29];
+    for (int i = 0; i < 18; i++) {
+      for (int j = 0; j < 29; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+  }
+
+  /**
+   * Blurs an image with a box by summing the whole box for every pixel.
+   *
+   * @param image  the image
+   * @param radius the radius of the box
+   * @return the blurred image
+   */
+  private static IImage directBoxBlur(IImage image, int radius) {
+    return directBoxBlur(image, radius, BorderMode.ZERO);
+  }
+
+  /**
+   * Blurs an image with a box by summing the whole box for every pixel, reading the pixels
+   * outside of the image through a border mode.
+   *
+   * @param image  the image
+   * @param radius the radius of the box
+   * @param border the border mode
+   * @return the blurred image
+   */
+  private static IImage directBoxBlur(IImage image, int radius, BorderMode border) {
+    int width = image.getImageWidth();
+    int height = image.getImageHeight();
+    int area = (2 * radius + 1) * (2 * radius + 1);
+    IPixel[][] result = new IPixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        int[] sums = new int[3];
+        for (int k = i - radius; k <= i + radius; k++) {
+          for (int l = j - radius; l <= j + radius; l++) {
+            int row = border.map(k, height);
+            int col = border.map(l, width);
+            if (row >= 0 && col >= 0) {
+              int rgb = image.getRGB(col, row);
+              sums[0] += ARasterImage.red(rgb);
+              sums[1] += ARasterImage.green(rgb);
+              sums[2] += ARasterImage.blue(rgb);
+            }
+          }
+        }
+        result[i][j] = new RGBPixel((int) Math.round((double) sums[0] / area),
+            (int) Math.round((double) sums[1] / area), (int) Math.round((double) sums[2] / area));
+      }
+    }
+    return new ImageImpl(result);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroRadius() {
+    new BoxBlurFilter(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeRadius() {
+    new BoxBlurFilter(BoxBlurFilter.MAX_RADIUS + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroPasses() {
+    new BoxBlurFilter(3, 0);
+  }
+
+  @Test
+  public void testBoxBlur() {
+    for (int radius : new int[]{1, 2, 5, 20}) {
+      IImage expected = directBoxBlur(implExample, radius);
+      assertSamePixels(expected, implExample.filterImage(new BoxBlurFilter(radius)));
+      assertSamePixels(expected, new PackedImage(pixels).filterImage(new BoxBlurFilter(radius)));
+      assertSamePixels(expected,
+          new TiledImage(implExample).filterImage(new BoxBlurFilter(radius)));
+    }
+  }
+
+  @Test
+  public void testStackedBoxBlur() {
+    IImage expected = directBoxBlur(directBoxBlur(directBoxBlur(implExample, 4), 4), 4);
+    assertSamePixels(expected, new PackedImage(pixels).filterImage(new BoxBlurFilter(4, 3)));
+  }
+
+  @Test
+  public void testGrayStaysGray() {
+    IImage gray = implExample.grayScaleImage(new ValueGreyScale());
+    IImage blurred = gray.filterImage(new BoxBlurFilter(3, 2));
+    assertTrue(blurred instanceof GrayImage);
+    assertSamePixels(directBoxBlur(directBoxBlur(gray, 3), 3), blurred);
+  }
+
+  @Test
+  public void testBorderModes() {
+    for (BorderMode border : BorderMode.values()) {
+      for (int radius : new int[]{1, 4, 20}) {
+        assertSamePixels(directBoxBlur(implExample, radius, border),
+            implExample.filterImage(new BoxBlurFilter(radius, 1, border)));
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ConstantImage class, an implementation of IImage that stores a single color. Each
+ * operation is compared against the same operation on an ImageImpl filled with that color.
+ */
+public class ConstantImageTest {
+
+  ConstantImage constantExample;
+  IImage implExample;
+
+  /**
+   * Creates a 23 by 17 image of a single color as both a ConstantImage and an ImageImpl.
+   */
+  @Before
+  public void init() {
+    IPixel pixel = new RGBPixel(200, 90, 31);
+    constantExample = new ConstantImage(23, 17, pixel);
+    implExample = new ImageImpl(23, 17, pixel);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullPixel() {
+    new ConstantImage(3, 3, null);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void setRow() {
+    constantExample.setRow(0, new int[23]);
+  }
+
+  @Test
+  public void testAccessors() {
+    assertSamePixels(implExample, constantExample);
+    assertEquals(0xC85A1F, constantExample.getColor());
+    assertEquals(0xC85A1F, constantExample.getRGB(22, 16));
+    IPixel[][] pixels = constantExample.getPixels();
+    assertSame(pixels[0][0], pixels[16][22]);
+    assertEquals(implExample, constantExample);
+  }
+
+  @Test
+  public void testConstantResults() {
+    assertSame(constantExample, constantExample.flipImageHorizontal());
+    assertSame(constantExample, constantExample.flipImageVertical());
+    assertSame(constantExample, constantExample.createMosaic(10));
+
+    IImage brighter = constantExample.darkenBrightenImage(70);
+    assertTrue(brighter instanceof ConstantImage);
+    assertSamePixels(implExample.darkenBrightenImage(70), brighter);
+
+    IImage sepia = constantExample.colorTransform(new SepiaColorTransform());
+    assertTrue(sepia instanceof ConstantImage);
+    assertSamePixels(implExample.colorTransform(new SepiaColorTransform()), sepia);
+
+    IImage luma = constantExample.grayScaleImage(new LumaGrayScale());
+    assertTrue(luma instanceof ConstantImage);
+    assertSamePixels(implExample.grayScaleImage(new LumaGrayScale()), luma);
+
+    IImage cropped = constantExample.crop(2, 3, 5, 4);
+    assertTrue(cropped instanceof ConstantImage);
+    assertEquals(5, cropped.getImageWidth());
+    assertEquals(4, cropped.getImageHeight());
+  }
+
+  @Test
+  public void testFilters() {
+    IImage blurred = constantExample.filterImage(new BlurImageFilter());
+    assertTrue(blurred instanceof MaskedImage);
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()), blurred);
+    assertSamePixels(implExample.filterImage(new SharpenImageFilter()),
+        constantExample.filterImage(new SharpenImageFilter()));
+
+    IImage black = new ConstantImage(23, 17, 0).filterImage(new SharpenImageFilter());
+    assertTrue(black instanceof ConstantImage);
+    assertEquals(0, black.getRGB(0, 0));
+  }
+
+  @Test
+  public void testOtherOperations() {
+    assertSamePixels(implExample.downScale(11, 9), constantExample.downScale(11, 9));
+    IImage mask = new ImageImpl(23, 17, new RGBPixel(0, 0, 0));
+    assertSamePixels(implExample.maskImage(mask, new BlurImageFilter()),
+        constantExample.maskImage(mask, new BlurImageFilter()));
+  }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the convolution engine behind the blur and sharpen filters and the filter with a kernel
+ * given by the user. Each result is compared against a direct sum over the pixels of an
+ * ImageImpl, with the pixels outside of the image counting as zero or read through a border
+ * mode.
+ */
+public class ConvolutionFilterTest {
+
+  IPixel[][] pixels;
+  IImage implExample;
+  IImage packedExample;
+
+  /**
+   * Creates a random 19 by 13 image as both an ImageImpl and a PackedImage.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[13][19];
+    for (int i = 0; i < 13; i++) {
+      for (int j = 0; j < 19; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    packedExample = new PackedImage(pixels);
+  }
+
+  /**
+   * Filters the example pixels one pixel and one channel at a time.
+   *
+   * @param kernel the kernel
+   * @return the filtered image
+   */
+  private IImage directConvolution(double[][] kernel) {
+    return directConvolution(kernel, BorderMode.ZERO);
+  }
+
+  /**
+   * Filters the example pixels one pixel and one channel at a time, reading the pixels outside
+   * of the image through a border mode.
+   *
+   * @param kernel the kernel
+   * @param border the border mode
+   * @return the filtered image
+   */
+  private IImage directConvolution(double[][] kernel, BorderMode border) {
+    int half = kernel.length / 2;
+    IPixel[][] result = new IPixel[13][19];
+    for (int i = 0; i < 13; i++) {
+      for (int j = 0; j < 19; j++) {
+        double[] sums = new double[3];
+        for (int k = 0; k < kernel.length; k++) {
+          for (int l = 0; l < kernel.length; l++) {
+            int row = border.map(i + k - half, 13);
+            int col = border.map(j + l - half, 19);
+            if (row >= 0 && col >= 0) {
+              sums[0] += kernel[k][l] * pixels[row][col].redChannelPixel();
+              sums[1] += kernel[k][l] * pixels[row][col].greenChannelPixel();
+              sums[2] += kernel[k][l] * pixels[row][col].blueChannelPixel();
+            }
+          }
+        }
+        int[] channels = new int[3];
+        for (int c = 0; c < 3; c++) {
+          channels[c] = (int) Math.max(0, Math.min(255, Math.round(sums[c])));
+        }
+        result[i][j] = new RGBPixel(channels[0], channels[1], channels[2]);
+      }
+    }
+    return new ImageImpl(result);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenKernel() {
+    new ConvolutionKernel(new double[2][2]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notSquareKernel() {
+    new ConvolutionKernel(new double[][]{{1, 2, 3}, {1, 2}, {1, 2, 3}});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void infiniteWeight() {
+    new ConvolutionKernel(new double[][]{{Double.POSITIVE_INFINITY}});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullKernel() {
+    new ConvolutionFilter((ConvolutionKernel) null);
+  }
+
+  @Test
+  public void testFixedPoint() {
+    assertTrue(new BlurImageFilter().getKernel().isFixedPoint());
+    assertTrue(new SharpenImageFilter().getKernel().isFixedPoint());
+    assertFalse(new ConvolutionKernel(new double[][]{{1.0 / 3.0}}).isFixedPoint());
+    ConvolutionKernel fixed = new ConvolutionKernel(new int[][]{{1, 2, 1}, {2, 4, 2}, {1, 2, 1}},
+        4);
+    assertEquals(0.125, fixed.getWeight(0, 1), 0);
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()),
+        packedExample.filterImage(new ConvolutionFilter(fixed)));
+  }
+
+  @Test
+  public void testBlurAndSharpen() {
+    double[][] blur = {{1.0 / 16, 1.0 / 8, 1.0 / 16}, {1.0 / 8, 1.0 / 4, 1.0 / 8},
+        {1.0 / 16, 1.0 / 8, 1.0 / 16}};
+    assertSamePixels(directConvolution(blur), implExample.filterImage(new BlurImageFilter()));
+    assertSamePixels(directConvolution(blur), packedExample.filterImage(new BlurImageFilter()));
+    double[][] sharpen = new double[5][5];
+    for (int k = 0; k < 5; k++) {
+      for (int l = 0; l < 5; l++) {
+        boolean edge = k == 0 || k == 4 || l == 0 || l == 4;
+        sharpen[k][l] = edge ? -1.0 / 8 : 1.0 / 4;
+      }
+    }
+    sharpen[2][2] = 1;
+    assertSamePixels(directConvolution(sharpen),
+        packedExample.filterImage(new SharpenImageFilter()));
+  }
+
+  @Test
+  public void testUserKernels() {
+    double[][] box = new double[7][7];
+    for (double[] row : box) {
+      Arrays.fill(row, 1.0 / 49);
+    }
+    double[][] emboss = {{-2, -1, 0}, {-1, 1, 1}, {0, 1, 2}};
+    for (double[][] kernel : new double[][][]{box, emboss, {{0.9}}}) {
+      IImage expected = directConvolution(kernel);
+      assertSamePixels(expected, implExample.filterImage(new ConvolutionFilter(kernel)));
+      assertSamePixels(expected, packedExample.filterImage(new ConvolutionFilter(kernel)));
+      assertSamePixels(expected,
+          new TiledImage(implExample).filterImage(new ConvolutionFilter(kernel)));
+    }
+  }
+
+  @Test
+  public void testRoundedKernels() {
+    double[][] box = new double[3][3];
+    for (double[] row : box) {
+      Arrays.fill(row, 1.0 / 9);
+    }
+    double[][] edges = {{0.1, -0.35, 0.1}, {-0.35, 2.1, -0.35}, {0.1, -0.35, 0.1}};
+    for (double[][] kernel : new double[][][]{box, edges}) {
+      assertFalse(new ConvolutionKernel(kernel).isFixedPoint());
+      assertSamePixels(directConvolution(kernel),
+          packedExample.filterImage(new ConvolutionFilter(kernel)));
+      IImage gray = packedExample.grayScaleImage(new LumaGrayScale());
+      assertSamePixels(new ImageImpl(gray.getPixels()).filterImage(new ConvolutionFilter(kernel)),
+          gray.filterImage(new ConvolutionFilter(kernel)));
+    }
+  }
+
+  @Test
+  public void testBorderModes() {
+    double[][] blur = {{1.0 / 16, 1.0 / 8, 1.0 / 16}, {1.0 / 8, 1.0 / 4, 1.0 / 8},
+        {1.0 / 16, 1.0 / 8, 1.0 / 16}};
+    double[][] wide = new double[9][9];
+    for (double[] row : wide) {
+      Arrays.fill(row, 1.0 / 81);
+    }
+    for (BorderMode border : BorderMode.values()) {
+      assertSamePixels(directConvolution(blur, border),
+          packedExample.filterImage(new BlurImageFilter(border)));
+      assertSamePixels(directConvolution(blur, border),
+          implExample.filterImage(new BlurImageFilter(border)));
+      ConvolutionFilter filter = new ConvolutionFilter(new ConvolutionKernel(wide), border);
+      assertSamePixels(directConvolution(wide, border), packedExample.filterImage(filter));
+      assertSamePixels(directConvolution(wide, border),
+          new TiledImage(implExample).filterImage(filter));
+      IImage gray = packedExample.grayScaleImage(new LumaGrayScale());
+      assertSamePixels(new ImageImpl(gray.getPixels()).filterImage(filter),
+          gray.filterImage(filter));
+    }
+  }
+
+  @Test
+  public void testBorderKeepsConstantEdges() {
+    IImage constant = new ConstantImage(19, 13, 0x804020);
+    for (BorderMode border : new BorderMode[]{BorderMode.CLAMP, BorderMode.MIRROR,
+        BorderMode.WRAP}) {
+      IImage sharpened = constant.filterImage(new SharpenImageFilter(border));
+      assertTrue(sharpened instanceof ConstantImage);
+      assertEquals(0x804020, sharpened.getRGB(0, 0));
+    }
+    // A zero border leaves 9/16 of the blur kernel over the corner
+    assertEquals(ARasterImage.pack(72, 36, 18),
+        constant.filterImage(new BlurImageFilter()).getRGB(0, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullBorder() {
+    new BlurImageFilter(null);
+  }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the DeferredImage class, the result of an operation that only runs once the pixels of
+ * the image are needed.
+ */
+public class DeferredImageTest {
+
+  IImage source;
+  int[] runs;
+  DeferredImage deferred;
+
+  /**
+   * Creates a deferred sepia transform of a 6 by 4 image, counting how often it runs.
+   */
+  @Before
+  public void init() {
+    source = new PackedImage(6, 4);
+    ((PackedImage) source).setRow(2, new int[]{0xFF0000, 0x00FF00, 0x0000FF, 0xFFFFFF, 0x808080,
+        0x123456});
+    runs = new int[1];
+    deferred = new DeferredImage(source, image -> {
+      runs[0]++;
+      return image.colorTransform(new SepiaColorTransform());
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullSource() {
+    new DeferredImage(null, new SepiaColorTransform());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullOperation() {
+    new DeferredImage(source, null);
+  }
+
+  @Test
+  public void testComputedOnce() {
+    assertEquals(6, deferred.getImageWidth());
+    assertEquals(4, deferred.getImageHeight());
+    assertFalse(deferred.isComputed());
+    assertEquals(0, runs[0]);
+
+    IImage expected = source.colorTransform(new SepiaColorTransform());
+    assertSamePixels(expected, deferred);
+    assertTrue(deferred.isComputed());
+    assertSame(deferred.image(), deferred.image());
+    assertSamePixels(expected.flipImageVertical(), deferred.flipImageVertical());
+    assertSamePixels(expected.darkenBrightenImage(-20), deferred.darkenBrightenImage(-20));
+    assertEquals(expected.getRGB(3, 2), deferred.getRGB(3, 2));
+    assertEquals(1, runs[0]);
+  }
+}
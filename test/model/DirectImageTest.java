@@ -0,0 +1,99 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the DirectImage class, an implementation of IImage that stores its pixels outside of the
+ * Java heap. The images are split into bands of a few rows so that operations cross bands.
+ */
+public class DirectImageTest {
+
+  DirectImage directExample;
+  IImage implExample;
+
+  /**
+   * Creates a random image as both a DirectImage of 4-row bands and an ImageImpl.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    IPixel[][] pixels = new IPixel[19][13];
+    for (int i = 0; i < 19; i++) {
+      for (int j = 0; j < 13; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    directExample = new DirectImage(13, 19, 13 * 4 * 4);
+    IRasterImage raster = new PackedImage(pixels);
+    int[] row = new int[13];
+    for (int i = 0; i < 19; i++) {
+      raster.getRow(i, row);
+      directExample.setRow(i, row);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidDimensions() {
+    new DirectImage(0, 4);
+  }
+
+  @Test
+  public void testCopy() {
+    assertSamePixels(implExample, directExample);
+    assertSamePixels(implExample, new DirectImage(implExample));
+  }
+
+  @Test
+  public void testOperations() {
+    assertSamePixels(implExample.flipImageHorizontal(), directExample.flipImageHorizontal());
+    assertSamePixels(implExample.flipImageVertical(), directExample.flipImageVertical());
+    assertSamePixels(implExample.darkenBrightenImage(45), directExample.darkenBrightenImage(45));
+    assertSamePixels(implExample.grayScaleImage(new LumaGrayScale()),
+        directExample.grayScaleImage(new LumaGrayScale()));
+    assertSamePixels(implExample.colorTransform(new SepiaColorTransform()),
+        directExample.colorTransform(new SepiaColorTransform()));
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()),
+        directExample.filterImage(new BlurImageFilter()));
+    assertSamePixels(implExample.filterImage(new SharpenImageFilter()),
+        directExample.filterImage(new SharpenImageFilter()));
+    assertSamePixels(implExample.downScale(7, 11), directExample.downScale(7, 11));
+  }
+
+  @Test
+  public void testResultsStayOffHeap() {
+    assertTrue(directExample.darkenBrightenImage(-20) instanceof DirectImage);
+    assertTrue(((ViewImage) directExample.flipImageVertical()).materialize()
+        instanceof DirectImage);
+    assertTrue(directExample.filterImage(new BlurImageFilter()) instanceof DirectImage);
+    assertTrue(directExample.grayScaleImage(new ValueGreyScale()) instanceof GrayImage);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void useAfterClose() {
+    directExample.close();
+    assertTrue(directExample.isClosed());
+    directExample.darkenBrightenImage(10);
+  }
+
+  @Test
+  public void testModelClosesReplacedImages() {
+    ImageProcessorModel model = new ImageProcessorModelImpl();
+    DirectImage other = new DirectImage(implExample);
+    model.addImage("a", directExample);
+    model.addImage("b", directExample);
+    model.addImage("a", other);
+    assertFalse(directExample.isClosed());
+    model.addImage("b", other);
+    assertTrue(directExample.isClosed());
+    model.addImage("b", other);
+    assertFalse(other.isClosed());
+  }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests DownScaler, which computes the rows of a down-scaled image with tables of the columns and
+ * weights of the bilinear mapping, against the mapping computed for each pixel on its own.
+ */
+public class DownScalerTest {
+
+  /**
+   * Computes one component of a down-scaled pixel the way the downscale command always has, from
+   * the position of the new pixel in the original image.
+   */
+  private static int expectedComponent(IImage image, double xPosn, double yPosn, int shift) {
+    int floorX = (int) Math.floor(xPosn);
+    int ceilingX = (int) Math.ceil(xPosn);
+    int floorY = (int) Math.floor(yPosn);
+    int ceilingY = (int) Math.ceil(yPosn);
+    int a = (image.getRGB(floorX, floorY) >> shift) & 0xFF;
+    int b = (image.getRGB(ceilingX, floorY) >> shift) & 0xFF;
+    int c = (image.getRGB(floorX, ceilingY) >> shift) & 0xFF;
+    int d = (image.getRGB(ceilingX, ceilingY) >> shift) & 0xFF;
+    int m = (int) (b * (xPosn - Math.floor(xPosn)) + a * (Math.ceil(xPosn) - xPosn));
+    int n = (int) (d * (xPosn - Math.floor(xPosn)) + c * (Math.ceil(xPosn) - xPosn));
+    int value = (int) (n * (yPosn - Math.floor(yPosn)) + m * (Math.ceil(yPosn) - yPosn));
+    return value == 0 ? a : value;
+  }
+
+  @Test
+  public void testMapping() {
+    Random random = new Random(2400);
+    int[] pixels = new int[53 * 41];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+    PackedImage image = new PackedImage(53, 41, pixels);
+    int[][] sizes = {{53, 41}, {40, 20}, {17, 39}, {1, 1}, {26, 41}};
+    for (int[] size : sizes) {
+      int[] scaled = new int[size[0] * size[1]];
+      new DownScaler(53, 41, size[0], size[1]).scale(image,
+          (row, rowPixels) -> System.arraycopy(rowPixels, 0, scaled, row * size[0], size[0]));
+      for (int i = 0; i < size[1]; i++) {
+        for (int j = 0; j < size[0]; j++) {
+          double xPosn = ((double) j / (double) size[0]) * 53;
+          double yPosn = ((double) i / (double) size[1]) * 41;
+          int expected = expectedComponent(image, xPosn, yPosn, 16) << 16
+              | expectedComponent(image, xPosn, yPosn, 8) << 8
+              | expectedComponent(image, xPosn, yPosn, 0);
+          assertEquals(expected, scaled[i * size[0] + j]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testImages() {
+    PackedImage image = new PackedImage(9, 7, new Random(2401).ints(63, 0, 0x1000000).toArray());
+    IImage scaled = new ImageImpl(image.getPixels()).downScale(5, 4);
+    assertTrue(scaled instanceof ImageImpl);
+    PackedImageTest.assertSamePixels(image.downScale(5, 4), scaled);
+  }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Fourier transform path of the convolution filters, which applies kernels of at least
+ * 31 by 31 pixels. Each result is compared against a direct sum over the pixels of the example.
+ */
+public class FourierConvolutionTest {
+
+  private static final int WIDTH = 150;
+  private static final int HEIGHT = 107;
+
+  IPixel[][] pixels;
+  IImage packedExample;
+
+  /**
+   * Creates a random 150 by 107 image, larger than a block of the transform.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[HEIGHT][WIDTH];
+    for (int i = 0; i < HEIGHT; i++) {
+      for (int j = 0; j < WIDTH; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    packedExample = new PackedImage(pixels);
+  }
+
+  /**
+   * Filters the example pixels one pixel and one channel at a time.
+   *
+   * @param kernel the kernel
+   * @param border the border mode
+   * @return the filtered image
+   */
+  private IImage directConvolution(double[][] kernel, BorderMode border) {
+    int half = kernel.length / 2;
+    IPixel[][] result = new IPixel[HEIGHT][WIDTH];
+    for (int i = 0; i < HEIGHT; i++) {
+      for (int j = 0; j < WIDTH; j++) {
+        double[] sums = new double[3];
+        for (int k = 0; k < kernel.length; k++) {
+          int row = border.map(i + k - half, HEIGHT);
+          for (int l = 0; l < kernel.length; l++) {
+            int col = border.map(j + l - half, WIDTH);
+            if (row >= 0 && col >= 0) {
+              sums[0] += kernel[k][l] * pixels[row][col].redChannelPixel();
+              sums[1] += kernel[k][l] * pixels[row][col].greenChannelPixel();
+              sums[2] += kernel[k][l] * pixels[row][col].blueChannelPixel();
+            }
+          }
+        }
+        int[] channels = new int[3];
+        for (int c = 0; c < 3; c++) {
+          channels[c] = (int) Math.max(0, Math.min(255, Math.round(sums[c])));
+        }
+        result[i][j] = new RGBPixel(channels[0], channels[1], channels[2]);
+      }
+    }
+    return new ImageImpl(result);
+  }
+
+  @Test
+  public void testRandomKernel() {
+    Random random = new Random(7);
+    double[][] kernel = new double[31][31];
+    for (int k = 0; k < 31; k++) {
+      for (int l = 0; l < 31; l++) {
+        kernel[k][l] = (random.nextDouble() - 0.3) / 300;
+      }
+    }
+    for (BorderMode border : BorderMode.values()) {
+      assertSamePixels(directConvolution(kernel, border),
+          packedExample.filterImage(new ConvolutionFilter(new ConvolutionKernel(kernel),
+              border)));
+    }
+  }
+
+  @Test
+  public void testHalvesRoundExactly() {
+    // A motion blur of 32 pixels makes many sums end in exactly one half
+    double[][] kernel = new double[33][33];
+    for (int l = 0; l < 32; l++) {
+      kernel[16][l] = 1.0 / 32;
+    }
+    IImage expected = directConvolution(kernel, BorderMode.CLAMP);
+    assertSamePixels(expected,
+        packedExample.filterImage(new ConvolutionFilter(new ConvolutionKernel(kernel),
+            BorderMode.CLAMP)));
+    assertSamePixels(expected,
+        new TiledImage(packedExample).filterImage(new ConvolutionFilter(
+            new ConvolutionKernel(kernel), BorderMode.CLAMP)));
+  }
+
+  @Test
+  public void testGrayStaysGray() {
+    double[][] kernel = new double[41][41];
+    for (int k = 0; k < 41; k++) {
+      kernel[k][k] = 1.0 / 41;
+    }
+    IImage gray = packedExample.grayScaleImage(new LumaGrayScale());
+    IImage filtered = gray.filterImage(new ConvolutionFilter(kernel));
+    assertTrue(filtered instanceof GrayImage);
+    assertSamePixels(new ImageImpl(gray.getPixels()).filterImage(new ConvolutionFilter(kernel)),
+        filtered);
+  }
+}
@@ -0,0 +1,186 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the GaussianBlurFilter class, a separable blur with any sigma up to 100. Each result is
+ * compared against an exact Gaussian blur computed in doubles.
+ */
+public class GaussianBlurFilterTest {
+
+  IPixel[][] pixels;
+  IImage implExample;
+
+  /**
+   * Creates a random 31 by 17 image.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[17][31];
+    for (int i = 0; i < 17; i++) {
+      for (int j = 0; j < 31; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+  }
+
+  /**
+   * Checks that every channel of an image is within one of an exact Gaussian blur of the example.
+   *
+   * @param sigma  the sigma of the blur
+   * @param actual the blurred image
+   */
+  private void assertNearGaussian(double sigma, IImage actual) {
+    assertNearGaussian(sigma, actual, BorderMode.ZERO);
+  }
+
+  /**
+   * Checks that every channel of an image is within one of an exact Gaussian blur of the example,
+   * with the pixels outside of the example read through a border mode.
+   *
+   * @param sigma  the sigma of the blur
+   * @param actual the blurred image
+   * @param border the border mode
+   */
+  private void assertNearGaussian(double sigma, IImage actual, BorderMode border) {
+    int radius = (int) Math.ceil(3 * sigma);
+    double[] weights = new double[2 * radius + 1];
+    double total = 0;
+    for (int i = -radius; i <= radius; i++) {
+      weights[i + radius] = Math.exp(-(i * i) / (2 * sigma * sigma));
+      total += weights[i + radius];
+    }
+    // The Gaussian is separable, so each row is blurred across first and then down the columns
+    double[][][] across = new double[17][31][3];
+    for (int i = 0; i < 17; i++) {
+      for (int j = 0; j < 31; j++) {
+        for (int l = -radius; l <= radius; l++) {
+          int col = border.map(j + l, 31);
+          if (col < 0) {
+            continue;
+          }
+          double weight = weights[l + radius] / total;
+          IPixel pixel = pixels[i][col];
+          across[i][j][0] += weight * pixel.redChannelPixel();
+          across[i][j][1] += weight * pixel.greenChannelPixel();
+          across[i][j][2] += weight * pixel.blueChannelPixel();
+        }
+      }
+    }
+    for (int i = 0; i < 17; i++) {
+      for (int j = 0; j < 31; j++) {
+        double[] sums = new double[3];
+        for (int k = -radius; k <= radius; k++) {
+          int row = border.map(i + k, 17);
+          if (row < 0) {
+            continue;
+          }
+          double weight = weights[k + radius] / total;
+          for (int c = 0; c < 3; c++) {
+            sums[c] += weight * across[row][j][c];
+          }
+        }
+        int rgb = actual.getRGB(j, i);
+        assertEquals(sums[0], ARasterImage.red(rgb), 1.0);
+        assertEquals(sums[1], ARasterImage.green(rgb), 1.0);
+        assertEquals(sums[2], ARasterImage.blue(rgb), 1.0);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroSigma() {
+    new GaussianBlurFilter(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notANumberSigma() {
+    new GaussianBlurFilter(Double.NaN);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sigmaTooLarge() {
+    new GaussianBlurFilter(100.5);
+  }
+
+  @Test
+  public void testRadius() {
+    assertEquals(3, new GaussianBlurFilter(1).getRadius());
+    assertEquals(8, new GaussianBlurFilter(2.5).getRadius());
+  }
+
+  @Test
+  public void testNearGaussian() {
+    for (double sigma : new double[]{0.4, 1, 2.5, 7}) {
+      GaussianBlurFilter blur = new GaussianBlurFilter(sigma);
+      IImage blurred = implExample.filterImage(blur);
+      assertNearGaussian(sigma, blurred);
+      assertSamePixels(blurred, new PackedImage(pixels).filterImage(blur));
+      assertSamePixels(blurred, new TiledImage(implExample).filterImage(blur));
+    }
+  }
+
+  @Test
+  public void testMaxSigma() {
+    for (BorderMode border : BorderMode.values()) {
+      assertNearGaussian(100, implExample.filterImage(new GaussianBlurFilter(100, border)),
+          border);
+    }
+    // Almost all of the kernel lies outside of a single pixel, so it blurs to about zero
+    IImage white = new PackedImage(1, 1, new int[]{0xFFFFFF});
+    assertEquals(0, white.filterImage(new GaussianBlurFilter(100)).getRGB(0, 0));
+  }
+
+  @Test
+  public void testConstantInsideStaysConstant() {
+    IImage blurred = new ConstantImage(40, 40, 0x7F10E0).filterImage(new GaussianBlurFilter(3));
+    for (int i = 9; i < 31; i++) {
+      for (int j = 9; j < 31; j++) {
+        assertEquals(0x7F10E0, blurred.getRGB(j, i));
+      }
+    }
+  }
+
+  @Test
+  public void testGrayStaysGray() {
+    IImage gray = implExample.grayScaleImage(new LumaGrayScale());
+    IImage blurred = gray.filterImage(new GaussianBlurFilter(1.5));
+    assertTrue(blurred instanceof GrayImage);
+    assertSamePixels(new PackedImage(gray.getPixels()).filterImage(new GaussianBlurFilter(1.5)),
+        blurred);
+  }
+
+  @Test
+  public void testMask() {
+    IPixel[][] mask = new IPixel[17][31];
+    for (int i = 0; i < 17; i++) {
+      for (int j = 0; j < 31; j++) {
+        mask[i][j] = j < 10 ? new RGBPixel(0, 0, 0) : new RGBPixel(255, 255, 255);
+      }
+    }
+    GaussianBlurFilter blur = new GaussianBlurFilter(2);
+    IImage masked = implExample.maskImage(new ImageImpl(mask), blur);
+    IImage blurred = implExample.filterImage(blur);
+    assertEquals(blurred.getRGB(9, 8), masked.getRGB(9, 8));
+    assertEquals(implExample.getRGB(10, 8), masked.getRGB(10, 8));
+  }
+
+  @Test
+  public void testBorderModes() {
+    for (BorderMode border : BorderMode.values()) {
+      for (double sigma : new double[]{0.8, 3, 12}) {
+        assertNearGaussian(sigma, implExample.filterImage(new GaussianBlurFilter(sigma, border)),
+            border);
+      }
+    }
+  }
+}
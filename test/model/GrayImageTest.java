@@ -0,0 +1,113 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the GrayImage class, an implementation of IImage that stores one byte per pixel. Each
+ * operation is compared against the same operation on an ImageImpl of gray RGBPixels.
+ */
+public class GrayImageTest {
+
+  GrayImage grayExample;
+  IImage implExample;
+  IImage colorExample;
+
+  /**
+   * Creates a random gray image as both a GrayImage and an ImageImpl, and a random color image.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    IPixel[][] pixels = new IPixel[21][27];
+    IPixel[][] colors = new IPixel[21][27];
+    byte[] values = new byte[21 * 27];
+    for (int i = 0; i < 21; i++) {
+      for (int j = 0; j < 27; j++) {
+        int value = random.nextInt(256);
+        values[i * 27 + j] = (byte) value;
+        pixels[i][j] = new RGBPixel(value, value, value);
+        colors[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    grayExample = new GrayImage(27, 21, values);
+    colorExample = new ImageImpl(colors);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongArrayLength() {
+    new GrayImage(3, 3, new byte[8]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void colorRow() {
+    new GrayImage(1, 1).setRow(0, new int[]{0x102030});
+  }
+
+  @Test
+  public void testGrayScalesReturnGrayImages() {
+    ACommandGrayScale[] commands = {new LumaGrayScale(), new ValueGreyScale(),
+        new IntensityGreyScale(), new RedGrayScale(), new GreenGrayScale(), new BlueGrayScale()};
+    IImage packed = new PackedImage(colorExample.getPixels());
+    for (ACommandGrayScale command : commands) {
+      IImage expected = colorExample.grayScaleImage(command);
+      assertTrue(expected instanceof GrayImage);
+      assertTrue(packed.grayScaleImage(command) instanceof GrayImage);
+      assertSamePixels(expected, packed.grayScaleImage(command));
+      assertSamePixels(grayExample, grayExample.grayScaleImage(command));
+    }
+  }
+
+  @Test
+  public void testSingleChannelOperations() {
+    assertSamePixels(implExample.flipImageHorizontal(), grayExample.flipImageHorizontal());
+    assertSamePixels(implExample.flipImageVertical(), grayExample.flipImageVertical());
+    assertSamePixels(implExample.darkenBrightenImage(70), grayExample.darkenBrightenImage(70));
+    assertSamePixels(implExample.darkenBrightenImage(-70),
+        grayExample.darkenBrightenImage(-70));
+    IImage blurred = grayExample.filterImage(new BlurImageFilter());
+    assertTrue(blurred instanceof GrayImage);
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()), blurred);
+    IImage sharpened = grayExample.filterImage(new SharpenImageFilter());
+    assertTrue(sharpened instanceof GrayImage);
+    assertSamePixels(implExample.filterImage(new SharpenImageFilter()), sharpened);
+  }
+
+  @Test
+  public void testColorResults() {
+    IImage sepia = grayExample.colorTransform(new SepiaColorTransform());
+    assertTrue(sepia instanceof PackedImage);
+    assertSamePixels(implExample.colorTransform(new SepiaColorTransform()), sepia);
+    assertSamePixels(implExample.downScale(13, 10), grayExample.downScale(13, 10));
+  }
+
+  @Test
+  public void testMaskImage() {
+    IImage mask = grayExample.darkenBrightenImage(-128);
+    IImage masked = grayExample.maskImage(mask, new BlurImageFilter());
+    assertTrue(masked instanceof GrayImage);
+    assertSamePixels(implExample.maskImage(mask, new BlurImageFilter()), masked);
+    assertSamePixels(implExample.maskImage(mask, new SepiaColorTransform()),
+        grayExample.maskImage(mask, new SepiaColorTransform()));
+  }
+
+  @Test
+  public void testCounts() {
+    int[] counts = grayExample.countValues();
+    int total = 0;
+    for (int count : counts) {
+      total += count;
+    }
+    assertEquals(27 * 21, total);
+    assertArrayEquals(Histogram.of(implExample).getRed(), Histogram.of(grayExample).getRed());
+    assertArrayEquals(Histogram.of(implExample).getIntensity(), counts);
+  }
+}
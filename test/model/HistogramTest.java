@@ -0,0 +1,73 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests Histogram, which counts the channels and the intensity of an image in one pass.
+ */
+public class HistogramTest {
+
+  private static PackedImage randomImage(int width, int height) {
+    Random random = new Random(2500);
+    int[] pixels = new int[width * height];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+    return new PackedImage(width, height, pixels);
+  }
+
+  /**
+   * Checks a histogram against the values of every pixel of an image counted one at a time.
+   */
+  private static void assertCounts(IImage image, Histogram histogram) {
+    int[][] expected = new int[4][256];
+    for (int i = 0; i < image.getImageHeight(); i++) {
+      for (int j = 0; j < image.getImageWidth(); j++) {
+        int rgb = image.getRGB(j, i);
+        int r = (rgb >> 16) & 0xFF;
+        int g = (rgb >> 8) & 0xFF;
+        int b = rgb & 0xFF;
+        expected[0][r]++;
+        expected[1][g]++;
+        expected[2][b]++;
+        expected[3][(r + g + b) / 3]++;
+      }
+    }
+    assertArrayEquals(expected[0], histogram.getRed());
+    assertArrayEquals(expected[1], histogram.getGreen());
+    assertArrayEquals(expected[2], histogram.getBlue());
+    assertArrayEquals(expected[3], histogram.getIntensity());
+  }
+
+  @Test
+  public void testCounts() {
+    PackedImage image = randomImage(23, 17);
+    assertCounts(image, Histogram.of(image));
+    assertCounts(image, Histogram.of(new ImageImpl(image.getPixels())));
+    assertCounts(image, Histogram.of(new PlanarImage(image)));
+    IImage gray = new LumaGrayScale().performTransformation(image);
+    assertCounts(gray, Histogram.of(gray));
+    IImage deferred = new DeferredImage(image, new SepiaColorTransform());
+    assertCounts(deferred, Histogram.of(deferred));
+  }
+
+  @Test
+  public void testBands() {
+    int parallelism = ParallelExecutor.getParallelism();
+    try {
+      ParallelExecutor.setParallelism(4);
+      PackedImage image = randomImage(640, 480);
+      assertCounts(image, Histogram.of(image));
+    } finally {
+      ParallelExecutor.setParallelism(parallelism);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullImage() {
+    Histogram.of(null);
+  }
+}
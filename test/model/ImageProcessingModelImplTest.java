@@ -1,6 +1,7 @@
 package model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
@@ -60,6 +61,30 @@ public class ImageProcessingModelImplTest {
     assertEquals(2, example.countImages());
   }
 
+  /**
+   * Tests that only a PackedImage stored under a single name may be overwritten in place.
+   */
+  @Test
+  public void testIsExclusive() {
+    IImage packed = new PackedImage(4, 3);
+    processor.addImage("packed", packed);
+    processor.addImage("impl", exampleImage);
+    assertTrue(processor.isExclusive("packed"));
+    assertFalse(processor.isExclusive("impl"));
+    assertFalse(processor.isExclusive("missing"));
+
+    // An image computed from it later refers to its pixels
+    processor.addImage("bright", new DeferredImage(packed, PointOperation.brighten(10)));
+    assertFalse(processor.isExclusive("packed"));
+    processor.addImage("bright", exampleImage);
+    assertTrue(processor.isExclusive("packed"));
+    processor.addImage("flipped", packed.flipImageHorizontal());
+    assertFalse(processor.isExclusive("packed"));
+    processor.addImage("flipped", exampleImage);
+    processor.addImage("copy", packed);
+    assertFalse(processor.isExclusive("packed"));
+  }
+
   /**
    * Tests the number of images that are in the image processing model.
    */
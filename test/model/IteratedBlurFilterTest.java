@@ -0,0 +1,65 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the IteratedBlurFilter class, which blurs an image a number of times with the 3 by 3 blur
+ * one pass after another, against separate passes of BlurImageFilter.
+ */
+public class IteratedBlurFilterTest {
+
+  PackedImage packedExample;
+
+  /**
+   * Creates a random 17 by 11 image.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(1901);
+    int[] pixels = new int[17 * 11];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+    packedExample = new PackedImage(17, 11, pixels);
+  }
+
+  @Test
+  public void testMatchesPasses() {
+    for (BorderMode border : BorderMode.values()) {
+      IImage passes = packedExample;
+      for (int n = 1; n <= 5; n++) {
+        passes = passes.filterImage(new BlurImageFilter(border));
+        IteratedBlurFilter blurs = new IteratedBlurFilter(n, border);
+        assertEquals(n, blurs.getCount());
+        assertEquals(border, blurs.getBorder());
+        assertSamePixels(passes, packedExample.filterImage(blurs));
+        assertSamePixels(passes, blurs.performTransformation(
+            new ImageImpl(packedExample.getPixels())));
+      }
+    }
+  }
+
+  @Test
+  public void testInPlace() {
+    IImage expected = packedExample.filterImage(new IteratedBlurFilter(3, BorderMode.CLAMP));
+    PackedImage copy = new PackedImage(17, 11, packedExample.copyPixels());
+    assertSame(copy, new IteratedBlurFilter(3, BorderMode.CLAMP).performInPlace(copy));
+    assertSamePixels(expected, copy);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCount() {
+    new IteratedBlurFilter(0, BorderMode.ZERO);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullBorder() {
+    new IteratedBlurFilter(2, null);
+  }
+}
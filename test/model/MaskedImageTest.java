@@ -0,0 +1,142 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that masked images share the rows and tiles the mask does not touch with the image they
+ * were made from. The mask is black only inside of rows 70 - 74 and columns 5 - 9.
+ */
+public class MaskedImageTest {
+
+  IPixel[][] pixels;
+  IImage implExample;
+  PackedImage packedExample;
+  IImage maskExample;
+
+  /**
+   * Creates a random image as both an ImageImpl and a PackedImage, and a small mask.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[80][100];
+    IPixel[][] mask = new IPixel[80][100];
+    for (int i = 0; i < 80; i++) {
+      for (int j = 0; j < 100; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+        boolean inside = i >= 70 && i < 75 && j >= 5 && j < 10;
+        mask[i][j] = inside ? new RGBPixel(0, 0, 0) : new RGBPixel(200, 10, 30);
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    packedExample = new PackedImage(pixels);
+    maskExample = new ImageImpl(mask);
+  }
+
+  @Test
+  public void testRasterMaskStoresTouchedRows() {
+    IImage masked = packedExample.maskImage(maskExample, new BlurImageFilter());
+    assertTrue(masked instanceof MaskedImage);
+    assertEquals(5, ((MaskedImage) masked).storedRows());
+    assertSamePixels(implExample.maskImage(maskExample, new BlurImageFilter()), masked);
+  }
+
+  @Test
+  public void testChainedMasksKeepTheOriginal() {
+    IImage masked = packedExample;
+    IImage expected = implExample;
+    ICommandTransformation[] transforms = {new BlurImageFilter(), new SharpenImageFilter(),
+        new LumaGrayScale(), new SepiaColorTransform(), new ValueGreyScale()};
+    for (int n = 0; n < 10; n++) {
+      masked = masked.maskImage(maskExample, transforms[n % transforms.length]);
+      expected = expected.maskImage(maskExample, transforms[n % transforms.length]);
+    }
+    assertSame(packedExample, ((MaskedImage) masked).storage());
+    assertEquals(5, ((MaskedImage) masked).storedRows());
+    assertSamePixels(expected, masked);
+  }
+
+  @Test
+  public void testMaskWithoutBlackReturnsImage() {
+    IImage white = new ImageImpl(100, 80, new RGBPixel(255, 255, 255));
+    assertSame(packedExample, packedExample.maskImage(white, new BlurImageFilter()));
+  }
+
+  @Test
+  public void testImageImplSharesRows() {
+    IPixel[][] masked = implExample.maskImage(maskExample, new SharpenImageFilter()).getPixels();
+    assertSame(pixels[0], masked[0]);
+    assertSame(pixels[69], masked[69]);
+    assertNotSame(pixels[70], masked[70]);
+    assertSame(pixels[70][10], masked[70][10]);
+  }
+
+  @Test
+  public void testTiledImageSharesTiles() {
+    TiledImage tiled = new TiledImage(implExample);
+    TiledImage masked = (TiledImage) tiled.maskImage(maskExample, new BlurImageFilter());
+    assertSame(tiled.tile(0, 0), masked.tile(0, 0));
+    assertSame(tiled.tile(1, 1), masked.tile(1, 1));
+    assertNotSame(tiled.tile(0, 1), masked.tile(0, 1));
+    assertSamePixels(implExample.maskImage(maskExample, new BlurImageFilter()), masked);
+  }
+
+  /**
+   * Sepia as an operation on each pixel alone that counts the pixels it computes and fails if it
+   * is asked to transform a whole image.
+   */
+  private static final class CountingSepia implements ICommandTransformation, IRowKernel {
+
+    private final SepiaColorTransform sepia = new SepiaColorTransform();
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Override
+    public IImage performTransformation(IImage image) {
+      throw new UnsupportedOperationException("The whole image was transformed.");
+    }
+
+    @Override
+    public void computeSpan(int[][] rows, int width, int[] destination, int offset, int length) {
+      computed.addAndGet(length);
+      sepia.computeSpan(rows, width, destination, offset, length);
+    }
+  }
+
+  @Test
+  public void testPixelOperationOnlyWhereMasked() {
+    IImage expected = implExample.maskImage(maskExample, new SepiaColorTransform());
+    IImage[] images = {packedExample, new TiledImage(implExample), new DirectImage(implExample)};
+    for (IImage image : images) {
+      CountingSepia sepia = new CountingSepia();
+      IImage masked = image.maskImage(maskExample, sepia);
+      assertSamePixels(expected, masked);
+      // Only the five masked rows, from their first black pixel on or across their tile
+      assertTrue(sepia.computed.get() <= 5 * 95);
+    }
+    assertSamePixels(implExample.maskImage(maskExample, PointOperation.brighten(40)),
+        packedExample.maskImage(maskExample, PointOperation.brighten(40)));
+  }
+
+  @Test
+  public void testModelKeepsTheOriginal() {
+    ImageProcessorModel model = new ImageProcessorModelImpl();
+    DirectImage direct = new DirectImage(implExample);
+    model.addImage("a", direct);
+    model.addImage("b", direct.maskImage(maskExample, new BlurImageFilter()));
+    model.addImage("a", packedExample);
+    assertFalse(direct.isClosed());
+    model.addImage("b", packedExample);
+    assertTrue(direct.isClosed());
+  }
+}
@@ -0,0 +1,256 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import utils.ImageUtil;
+
+/**
+ * Tests the PackedImage class, an implementation of IImage that stores its pixels packed in a
+ * single array. Each operation is compared against the same operation on an ImageImpl.
+ */
+public class PackedImageTest {
+
+  IPixel[][] randomPixels;
+  IImage packedExample;
+  IImage implExample;
+  IImage small;
+
+  /**
+   * Creates a random image as both a PackedImage and an ImageImpl, plus a small 3 by 2 image.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    randomPixels = new IPixel[23][31];
+    for (int i = 0; i < 23; i++) {
+      for (int j = 0; j < 31; j++) {
+        randomPixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    packedExample = new PackedImage(randomPixels);
+    implExample = new ImageImpl(randomPixels);
+    small = new PackedImage(3, 2, new int[] {1, 2, 3, 4, 5, 6});
+  }
+
+  /**
+   * Checks that two images have exactly the same pixels.
+   *
+   * @param expected the expected image
+   * @param actual   the actual image
+   */
+  static void assertSamePixels(IImage expected, IImage actual) {
+    assertEquals(expected.getImageWidth(), actual.getImageWidth());
+    assertEquals(expected.getImageHeight(), actual.getImageHeight());
+    IPixel[][] expectedPixels = expected.getPixels();
+    IPixel[][] actualPixels = actual.getPixels();
+    for (int i = 0; i < expected.getImageHeight(); i++) {
+      for (int j = 0; j < expected.getImageWidth(); j++) {
+        assertEquals(expectedPixels[i][j].redChannelPixel(),
+            actualPixels[i][j].redChannelPixel());
+        assertEquals(expectedPixels[i][j].greenChannelPixel(),
+            actualPixels[i][j].greenChannelPixel());
+        assertEquals(expectedPixels[i][j].blueChannelPixel(),
+            actualPixels[i][j].blueChannelPixel());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void width0() {
+    new PackedImage(0, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongArrayLength() {
+    new PackedImage(3, 3, new int[8]);
+  }
+
+  @Test
+  public void testDimensions() {
+    assertEquals(31, packedExample.getImageWidth());
+    assertEquals(23, packedExample.getImageHeight());
+  }
+
+  @Test
+  public void testPackAndUnpack() {
+    int rgb = PackedImage.pack(12, 200, 255);
+    assertEquals(0x0CC8FF, rgb);
+    assertEquals(12, PackedImage.red(rgb));
+    assertEquals(200, PackedImage.green(rgb));
+    assertEquals(255, PackedImage.blue(rgb));
+  }
+
+  @Test
+  public void testFlips() {
+    assertArrayEquals(new int[] {3, 2, 1, 6, 5, 4},
+        ((PackedImage) ((ViewImage) small.flipImageHorizontal()).materialize()).copyPixels());
+    assertArrayEquals(new int[] {4, 5, 6, 1, 2, 3},
+        ((PackedImage) ((ViewImage) small.flipImageVertical()).materialize()).copyPixels());
+    assertSamePixels(implExample.flipImageHorizontal(), packedExample.flipImageHorizontal());
+    assertSamePixels(implExample.flipImageVertical(), packedExample.flipImageVertical());
+  }
+
+  @Test
+  public void testBrightenDarken() {
+    assertSamePixels(implExample.darkenBrightenImage(40), packedExample.darkenBrightenImage(40));
+    assertSamePixels(implExample.darkenBrightenImage(-70),
+        packedExample.darkenBrightenImage(-70));
+  }
+
+  @Test
+  public void testGrayScales() {
+    ACommandGrayScale[] commands = {new LumaGrayScale(), new ValueGreyScale(),
+        new IntensityGreyScale(), new RedGrayScale(), new GreenGrayScale(), new BlueGrayScale()};
+    for (ACommandGrayScale command : commands) {
+      assertSamePixels(implExample.grayScaleImage(command), packedExample.grayScaleImage(command));
+    }
+  }
+
+  @Test
+  public void testColorTransforms() {
+    assertSamePixels(implExample.colorTransform(new SepiaColorTransform()),
+        packedExample.colorTransform(new SepiaColorTransform()));
+    assertSamePixels(implExample.colorTransform(new GreyScaleColorTransform()),
+        packedExample.colorTransform(new GreyScaleColorTransform()));
+  }
+
+  @Test
+  public void testFilters() {
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()),
+        packedExample.filterImage(new BlurImageFilter()));
+    assertSamePixels(implExample.filterImage(new SharpenImageFilter()),
+        packedExample.filterImage(new SharpenImageFilter()));
+  }
+
+  @Test
+  public void testDownScale() {
+    assertSamePixels(implExample.downScale(17, 9), packedExample.downScale(17, 9));
+    assertSamePixels(implExample.downScale(31, 23), packedExample.downScale(31, 23));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDownScaleNegative() {
+    packedExample.downScale(-2, 5);
+  }
+
+  @Test
+  public void testMaskImage() {
+    IPixel[][] maskPixels = new IPixel[23][31];
+    for (int i = 0; i < 23; i++) {
+      for (int j = 0; j < 31; j++) {
+        maskPixels[i][j] = (i + j) % 3 == 0 ? new RGBPixel(0, 0, 0) : new RGBPixel(255, 255, 255);
+      }
+    }
+    IImage mask = new PackedImage(maskPixels);
+    assertSamePixels(implExample.maskImage(mask, new SepiaColorTransform()),
+        packedExample.maskImage(mask, new SepiaColorTransform()));
+    assertSamePixels(implExample.maskImage(mask, new BlurImageFilter()),
+        packedExample.maskImage(mask, new BlurImageFilter()));
+  }
+
+  @Test
+  public void testMosaic() {
+    IImage mosaic = packedExample.createMosaic(1);
+    int[] pixels = ((PackedImage) mosaic).copyPixels();
+    for (int rgb : pixels) {
+      assertEquals(pixels[0], rgb);
+    }
+    assertEquals(31, packedExample.createMosaic(20).getImageWidth());
+  }
+
+  @Test
+  public void testEquals() {
+    assertTrue(packedExample.equals(implExample));
+    assertTrue(implExample.equals(packedExample));
+    assertTrue(new PackedImage(4, 4).equals(new ImageImpl(4, 4, new RGBPixel(0, 0, 1))));
+    assertEquals(packedExample.hashCode(), implExample.hashCode());
+    assertEquals(implExample.hashCode(), implExample.hashCode());
+  }
+
+  @Test
+  public void testAccessors() {
+    IImage[] images = {implExample, packedExample, new PlanarImage(implExample),
+        new DirectImage(implExample), packedExample.flipImageVertical().flipImageHorizontal()};
+    int[] expected = new int[31 * 23];
+    implExample.copyTo(expected);
+    for (IImage image : images) {
+      int[] copy = new int[31 * 23];
+      image.copyTo(copy);
+      int[] row = new int[31];
+      image.getRow(22, row);
+      if (image instanceof ViewImage) {
+        assertEquals(expected[0], row[30]);
+        assertEquals(expected[31 * 23 - 1], image.getRGB(0, 0));
+        continue;
+      }
+      assertArrayEquals(expected, copy);
+      assertEquals(expected[22 * 31 + 4], row[4]);
+      assertEquals(expected[7 * 31 + 30], image.getRGB(30, 7));
+      assertEquals(PackedImage.pack(randomPixels[7][30].redChannelPixel(),
+          randomPixels[7][30].greenChannelPixel(), randomPixels[7][30].blueChannelPixel()),
+          image.getRGB(30, 7));
+    }
+  }
+
+  @Test
+  public void testInPlace() {
+    double[][] kernel = new double[5][5];
+    for (int k = 0; k < 5; k++) {
+      for (int l = 0; l < 5; l++) {
+        kernel[k][l] = (k + 2 * l - 3) / 20.0;
+      }
+    }
+    ICommandTransformation[] operations = {PointOperation.brighten(40),
+        new SepiaColorTransform(), new PixelPipeline(PointOperation.brighten(-30))
+        .andThen(new SepiaColorTransform()).andThen(PointOperation.brighten(12)),
+        new BlurImageFilter(), new SharpenImageFilter(BorderMode.WRAP),
+        new ConvolutionFilter(new ConvolutionKernel(kernel), BorderMode.MIRROR),
+        new BinomialBlurFilter(6, BorderMode.WRAP), new GaussianBlurFilter(2.5, BorderMode.CLAMP),
+        new BinomialBlurFilter(4, BorderMode.MIRROR)};
+    for (ICommandTransformation operation : operations) {
+      IImage image = new PackedImage(randomPixels);
+      IImage expected = operation.performTransformation(implExample);
+      assertTrue(image == operation.performInPlace(image));
+      assertSamePixels(expected, image);
+    }
+
+    // A grayscale result is stored as a smaller GrayImage instead
+    IImage image = new PackedImage(randomPixels);
+    IImage gray = PointOperation.grayScale(new LumaGrayScale()).performInPlace(image);
+    assertTrue(gray instanceof GrayImage);
+    assertSamePixels(implExample, image);
+  }
+
+  @Test
+  public void testLoadPpm() throws IOException {
+    File file = File.createTempFile("packed", ".ppm");
+    file.deleteOnExit();
+    Files.write(file.toPath(), ("P3\r\n# a comment\r\n3 2\r\n#another comment\r\n255\r\n"
+        + "255 0 0  0 255 0\r\n0 0 255\r\n# a comment between the pixels\r\n"
+        + "16 32 64 128 1 2 7 7 7\r\n").getBytes(StandardCharsets.US_ASCII));
+    IImage image = new ImageUtil().ppmToImage(file.getPath());
+    assertTrue(image instanceof PackedImage);
+    assertArrayEquals(new int[]{0xFF0000, 0x00FF00, 0x0000FF, 0x102040, 0x800102, 0x070707},
+        ((PackedImage) image).copyPixels());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getRGBOutside() {
+    packedExample.getRGB(31, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void copyToShortArray() {
+    implExample.copyTo(new int[31 * 23 - 1]);
+  }
+}
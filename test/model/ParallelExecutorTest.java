@@ -0,0 +1,141 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests ParallelExecutor, and that the operations that run on it give the same image on any
+ * number of threads.
+ */
+public class ParallelExecutorTest {
+
+  private int parallelism;
+  private PackedImage packedExample;
+  private IImage maskExample;
+
+  /**
+   * Creates a random image large enough to be split into several bands, and a mask that is black
+   * in a rectangle crossing several of them.
+   */
+  @Before
+  public void init() {
+    parallelism = ParallelExecutor.getParallelism();
+    Random random = new Random(2300);
+    int[] pixels = new int[640 * 480];
+    int[] mask = new int[640 * 480];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+      int x = i % 640;
+      int y = i / 640;
+      mask[i] = x >= 100 && x < 300 && y >= 50 && y < 400 ? 0 : 0xFFFFFF;
+    }
+    packedExample = new PackedImage(640, 480, pixels);
+    maskExample = new PackedImage(640, 480, mask);
+  }
+
+  @After
+  public void reset() {
+    ParallelExecutor.setParallelism(parallelism);
+  }
+
+  /**
+   * Checks that an operation gives the same image on one thread and on four.
+   *
+   * @param operation the operation
+   */
+  private void assertSameOnAnyThreads(Supplier<IImage> operation) {
+    ParallelExecutor.setParallelism(1);
+    IImage expected = operation.get();
+    ParallelExecutor.setParallelism(4);
+    assertSamePixels(expected, operation.get());
+  }
+
+  @Test
+  public void testSplit() {
+    ParallelExecutor.setParallelism(1);
+    assertArrayEquals(new int[]{0, 480}, ParallelExecutor.split(480, 640, 1));
+    ParallelExecutor.setParallelism(4);
+    assertArrayEquals(new int[]{0, 120, 240, 360, 480}, ParallelExecutor.split(480, 640, 1));
+    assertArrayEquals(new int[]{0, 240, 480}, ParallelExecutor.split(480, 640, 200));
+    assertArrayEquals(new int[]{0, 10}, ParallelExecutor.split(10, 640, 1));
+  }
+
+  @Test
+  public void testFilters() {
+    assertSameOnAnyThreads(() -> packedExample.filterImage(new BlurImageFilter()));
+    assertSameOnAnyThreads(() -> packedExample.filterImage(
+        new BinomialBlurFilter(3, BorderMode.MIRROR)));
+    assertSameOnAnyThreads(() -> packedExample.filterImage(new BoxBlurFilter(9, 2)));
+    assertSameOnAnyThreads(() -> packedExample.darkenBrightenImage(40));
+    assertSameOnAnyThreads(() -> new TiledImage(packedExample).filterImage(
+        new SharpenImageFilter()));
+  }
+
+  @Test
+  public void testInPlace() {
+    for (IRowKernel kernel : new IRowKernel[]{new BlurImageFilter(BorderMode.WRAP),
+        new BinomialBlurFilter(4, BorderMode.MIRROR), new SepiaColorTransform()}) {
+      assertSameOnAnyThreads(() -> RowEngine.applyInPlace(
+          new PackedImage(640, 480, packedExample.copyPixels()), kernel));
+    }
+  }
+
+  @Test
+  public void testFlipAndMask() {
+    IImage implExample = new ImageImpl(packedExample.getPixels());
+    assertSameOnAnyThreads(implExample::flipImageHorizontal);
+    assertSameOnAnyThreads(implExample::flipImageVertical);
+    assertSameOnAnyThreads(() -> implExample.maskImage(maskExample, new LumaGrayScale()));
+    assertSameOnAnyThreads(() -> packedExample.maskImage(maskExample, new BlurImageFilter()));
+    assertSameOnAnyThreads(() -> new TiledImage(packedExample).maskImage(maskExample,
+        new SepiaColorTransform()));
+  }
+
+  @Test
+  public void testDownScale() {
+    assertSameOnAnyThreads(() -> packedExample.downScale(500, 333));
+    assertSameOnAnyThreads(() -> new ImageImpl(packedExample.getPixels()).downScale(320, 480));
+  }
+
+  @Test
+  public void testSetWhileRunning() throws Exception {
+    ParallelExecutor.setParallelism(4);
+    IImage expected = packedExample.filterImage(new BlurImageFilter());
+    ExecutorService script = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> blurs = script.submit(() -> {
+        for (int n = 0; n < 20; n++) {
+          assertSamePixels(expected, packedExample.filterImage(new BlurImageFilter()));
+        }
+      });
+      // Operations that started on a pool keep it while the parallelism changes
+      for (int n = 0; !blurs.isDone(); n++) {
+        ParallelExecutor.setParallelism(2 + n % 3);
+      }
+      blurs.get();
+    } finally {
+      script.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelism() {
+    ParallelExecutor.setParallelism(3);
+    assertEquals(3, ParallelExecutor.getParallelism());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    ParallelExecutor.setParallelism(0);
+  }
+}
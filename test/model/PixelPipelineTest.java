@@ -0,0 +1,80 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the PixelPipeline class, which runs a chain of operations on each pixel in one pass.
+ * Each result is compared against running the operations one after another.
+ */
+public class PixelPipelineTest {
+
+  IImage[] examples;
+
+  /**
+   * Creates a random 17 by 9 image as a PackedImage, a PlanarImage, an ImageImpl, a GrayImage
+   * and a ConstantImage.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    PackedImage packed = new PackedImage(17, 9);
+    int[] row = new int[17];
+    for (int i = 0; i < 9; i++) {
+      for (int j = 0; j < 17; j++) {
+        row[j] = random.nextInt(0x1000000);
+      }
+      packed.setRow(i, row);
+    }
+    examples = new IImage[]{packed, new PlanarImage(packed), new ImageImpl(packed.getPixels()),
+        packed.grayScaleImage(new LumaGrayScale()), new ConstantImage(17, 9, 0x4080C0)};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notPerPixel() {
+    new PixelPipeline(new BlurImageFilter());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullOperation() {
+    new PixelPipeline(new SepiaColorTransform()).andThen(null);
+  }
+
+  @Test
+  public void testMixedPipeline() {
+    PixelPipeline pipeline = new PixelPipeline(PointOperation.brighten(35))
+        .andThen(new SepiaColorTransform())
+        .andThen(new GreyScaleColorTransform())
+        .andThen(PointOperation.brighten(-50))
+        .andThen(new RedGrayScale())
+        .andThen(PointOperation.brighten(20));
+    assertEquals(6, pipeline.getOperations().size());
+    for (IImage image : examples) {
+      IImage expected = image.darkenBrightenImage(35)
+          .colorTransform(new SepiaColorTransform())
+          .colorTransform(new GreyScaleColorTransform())
+          .darkenBrightenImage(-50)
+          .grayScaleImage(new RedGrayScale())
+          .darkenBrightenImage(20);
+      assertSamePixels(expected, pipeline.performTransformation(image));
+    }
+  }
+
+  @Test
+  public void testStorage() {
+    PixelPipeline gray = new PixelPipeline(new SepiaColorTransform())
+        .andThen(new LumaGrayScale());
+    assertTrue(gray.performTransformation(examples[0]) instanceof GrayImage);
+    assertTrue(gray.performTransformation(examples[4]) instanceof ConstantImage);
+    PixelPipeline color = new PixelPipeline(new ValueGreyScale())
+        .andThen(new SepiaColorTransform());
+    assertTrue(color.performTransformation(examples[1]) instanceof PlanarImage);
+    assertSamePixels(examples[2].grayScaleImage(new ValueGreyScale())
+        .colorTransform(new SepiaColorTransform()), color.performTransformation(examples[2]));
+  }
+}
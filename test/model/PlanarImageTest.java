@@ -0,0 +1,107 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the PlanarImage class, an implementation of IImage that stores each channel in its own
+ * plane. Each operation is compared against the same operation on an ImageImpl.
+ */
+public class PlanarImageTest {
+
+  PlanarImage planarExample;
+  IImage implExample;
+
+  /**
+   * Creates a random image as both a PlanarImage and an ImageImpl.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    IPixel[][] pixels = new IPixel[17][29];
+    for (int i = 0; i < 17; i++) {
+      for (int j = 0; j < 29; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    planarExample = new PlanarImage(implExample);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void mismatchedPlanes() {
+    new PlanarImage(2, 2, new byte[4], new byte[4], new byte[3]);
+  }
+
+  @Test
+  public void testDimensions() {
+    assertEquals(29, planarExample.getImageWidth());
+    assertEquals(17, planarExample.getImageHeight());
+    assertSamePixels(implExample, planarExample);
+    assertSamePixels(implExample, planarExample.toPackedImage());
+  }
+
+  @Test
+  public void testChannelsShareThePlane() {
+    GrayImage red = (GrayImage) planarExample.grayScaleImage(new RedGrayScale());
+    assertSame(planarExample.redPlane(), red.values());
+    GrayImage blue = (GrayImage) planarExample.grayScaleImage(new BlueGrayScale());
+    assertSame(planarExample.bluePlane(), blue.values());
+    assertSamePixels(implExample.grayScaleImage(new GreenGrayScale()),
+        planarExample.grayScaleImage(new GreenGrayScale()));
+  }
+
+  @Test
+  public void testGrayScales() {
+    ACommandGrayScale[] commands = {new LumaGrayScale(), new ValueGreyScale(),
+        new IntensityGreyScale(), new RedGrayScale(), new GreenGrayScale(), new BlueGrayScale()};
+    for (ACommandGrayScale command : commands) {
+      assertSamePixels(implExample.grayScaleImage(command),
+          planarExample.grayScaleImage(command));
+    }
+  }
+
+  @Test
+  public void testPerChannelOperations() {
+    assertSamePixels(implExample.darkenBrightenImage(60), planarExample.darkenBrightenImage(60));
+    assertSamePixels(implExample.darkenBrightenImage(-60),
+        planarExample.darkenBrightenImage(-60));
+    assertSamePixels(implExample.flipImageHorizontal(), planarExample.flipImageHorizontal());
+    assertSamePixels(implExample.flipImageVertical(), planarExample.flipImageVertical());
+    assertSamePixels(implExample.colorTransform(new SepiaColorTransform()),
+        planarExample.colorTransform(new SepiaColorTransform()));
+  }
+
+  @Test
+  public void testNeighbourhoodOperations() {
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()),
+        planarExample.filterImage(new BlurImageFilter()));
+    assertSamePixels(implExample.filterImage(new SharpenImageFilter()),
+        planarExample.filterImage(new SharpenImageFilter()));
+    assertSamePixels(implExample.downScale(10, 7), planarExample.downScale(10, 7));
+  }
+
+  @Test
+  public void testCountChannels() {
+    int[] expected = new int[256];
+    IPixel[][] pixels = implExample.getPixels();
+    for (IPixel[] row : pixels) {
+      for (IPixel pixel : row) {
+        expected[pixel.greenChannelPixel()]++;
+      }
+    }
+    Histogram histogram = Histogram.of(planarExample);
+    assertArrayEquals(expected, histogram.getGreen());
+    assertArrayEquals(Histogram.of(implExample).getRed(), histogram.getRed());
+    assertArrayEquals(Histogram.of(implExample).getIntensity(), histogram.getIntensity());
+    assertTrue(planarExample.equals(implExample));
+  }
+}
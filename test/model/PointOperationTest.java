@@ -0,0 +1,111 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the PointOperation class, which brightens and grayscales images through tables. Each
+ * result is compared against brightening or grayscaling an ImageImpl one pixel at a time.
+ */
+public class PointOperationTest {
+
+  IPixel[][] pixels;
+  IImage implExample;
+  IImage packedExample;
+  IImage planarExample;
+
+  /**
+   * Creates a random 21 by 11 image as an ImageImpl, a PackedImage and a PlanarImage.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[11][21];
+    for (int i = 0; i < 11; i++) {
+      for (int j = 0; j < 21; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    packedExample = new PackedImage(pixels);
+    planarExample = new PlanarImage(packedExample);
+  }
+
+  /**
+   * Brightens the example pixels one pixel at a time.
+   *
+   * @param increment the amount to be added
+   * @return the brightened image
+   */
+  private IImage brightenPixels(int increment) {
+    IPixel[][] result = new IPixel[11][21];
+    for (int i = 0; i < 11; i++) {
+      for (int j = 0; j < 21; j++) {
+        result[i][j] = pixels[i][j].brightenDarkenPixel(increment);
+      }
+    }
+    return new ImageImpl(result);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullGrayScale() {
+    PointOperation.grayScale(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullNext() {
+    PointOperation.brighten(10).andThen(null);
+  }
+
+  @Test
+  public void testBrighten() {
+    for (int increment : new int[]{-300, -40, 0, 75, 255}) {
+      IImage expected = brightenPixels(increment);
+      assertSamePixels(expected, implExample.darkenBrightenImage(increment));
+      assertSamePixels(expected, packedExample.darkenBrightenImage(increment));
+      assertSamePixels(expected, planarExample.darkenBrightenImage(increment));
+    }
+    assertTrue(planarExample.darkenBrightenImage(30) instanceof PlanarImage);
+
+    IImage gray = packedExample.grayScaleImage(new LumaGrayScale());
+    IImage brighterGray = gray.darkenBrightenImage(30);
+    assertTrue(brighterGray instanceof GrayImage);
+    assertSamePixels(new ImageImpl(gray.getPixels()).darkenBrightenImage(30), brighterGray);
+  }
+
+  @Test
+  public void testCombined() {
+    PointOperation combined = PointOperation.brighten(40)
+        .andThen(PointOperation.grayScale(new ValueGreyScale()))
+        .andThen(PointOperation.brighten(-70))
+        .andThen(PointOperation.grayScale(new IntensityGreyScale()));
+    IImage expected = implExample.darkenBrightenImage(40).grayScaleImage(new ValueGreyScale())
+        .darkenBrightenImage(-70).grayScaleImage(new IntensityGreyScale());
+    assertTrue(combined.isGrayScale());
+    for (IImage image : new IImage[]{implExample, packedExample, planarExample}) {
+      IImage result = image.filterImage(combined);
+      assertTrue(result instanceof GrayImage);
+      assertSamePixels(expected, result);
+    }
+    assertEquals(expected.getRGB(3, 4),
+        new ConstantImage(5, 5, pixels[4][3]).filterImage(combined).getRGB(0, 0));
+  }
+
+  @Test
+  public void testGrayScales() {
+    ACommandGrayScale[] commands = {new RedGrayScale(), new LumaGrayScale(),
+        new IntensityGreyScale(), new ValueGreyScale()};
+    for (ACommandGrayScale command : commands) {
+      IImage expected = implExample.grayScaleImage(command);
+      assertSamePixels(expected, packedExample.grayScaleImage(command));
+      assertSamePixels(expected, planarExample.grayScaleImage(command));
+      assertSamePixels(expected, packedExample.filterImage(PointOperation.grayScale(command)));
+    }
+  }
+}
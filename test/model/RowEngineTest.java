@@ -0,0 +1,135 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests RowEngine, which runs every IRowKernel over the rows of an image, with a kernel written
+ * for the test and with the operations of the model that implement IRowKernel.
+ */
+public class RowEngineTest {
+
+  /**
+   * A kernel that replaces each pixel with the one a number of rows below it, read through a
+   * border mode, so the rows the engine hands it can be checked directly.
+   */
+  private static final class ShiftKernel implements IRowKernel {
+
+    private final int reach;
+    private final BorderMode border;
+
+    ShiftKernel(int reach, BorderMode border) {
+      this.reach = reach;
+      this.border = border;
+    }
+
+    @Override
+    public int getReach() {
+      return reach;
+    }
+
+    @Override
+    public BorderMode getBorder() {
+      return border;
+    }
+
+    @Override
+    public void computeSpan(int[][] rows, int width, int[] destination, int offset,
+        int length) {
+      int[] below = rows[2 * reach];
+      for (int j = offset; j < offset + length; j++) {
+        destination[j] = below == null ? 0 : below[j];
+      }
+    }
+  }
+
+  private static PackedImage randomImage(int width, int height) {
+    Random random = new Random(2200);
+    int[] pixels = new int[width * height];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+    return new PackedImage(width, height, pixels);
+  }
+
+  @Test
+  public void testRowsUnderKernel() {
+    PackedImage image = randomImage(7, 9);
+    for (BorderMode border : BorderMode.values()) {
+      IImage shifted = RowEngine.apply(image, new ShiftKernel(3, border));
+      for (int i = 0; i < 9; i++) {
+        int source = border.map(i + 3, 9);
+        for (int j = 0; j < 7; j++) {
+          assertEquals(source < 0 ? 0 : image.getRGB(j, source), shifted.getRGB(j, i));
+        }
+      }
+
+      // Overwriting the image reads the rows it wrote over as they were
+      PackedImage copy = new PackedImage(7, 9, image.copyPixels());
+      assertTrue(copy == RowEngine.applyInPlace(copy, new ShiftKernel(3, border)));
+      PackedImageTest.assertSamePixels(shifted, copy);
+    }
+  }
+
+  @Test
+  public void testKernelTallerThanImage() {
+    PackedImage image = randomImage(6, 4);
+    for (BorderMode border : BorderMode.values()) {
+      IImage shifted = RowEngine.apply(image, new ShiftKernel(5, border));
+      for (int i = 0; i < 4; i++) {
+        int source = border.map(i + 5, 4);
+        for (int j = 0; j < 6; j++) {
+          assertEquals(source < 0 ? 0 : image.getRGB(j, source), shifted.getRGB(j, i));
+        }
+      }
+      PackedImage copy = new PackedImage(6, 4, image.copyPixels());
+      RowEngine.applyInPlace(copy, new ShiftKernel(5, border));
+      PackedImageTest.assertSamePixels(shifted, copy);
+
+      GaussianBlurFilter wide = new GaussianBlurFilter(40, border);
+      copy = new PackedImage(6, 4, image.copyPixels());
+      PackedImageTest.assertSamePixels(RowEngine.apply(image, wide),
+          RowEngine.applyInPlace(copy, wide));
+    }
+  }
+
+  @Test
+  public void testOperations() {
+    PackedImage image = randomImage(19, 13);
+    IRowKernel[] kernels = {PointOperation.brighten(-25), new SepiaColorTransform(),
+        new LumaGrayScale(), new BlurImageFilter(BorderMode.MIRROR), new SharpenImageFilter(),
+        new BinomialBlurFilter(3, BorderMode.WRAP),
+        new PixelPipeline(PointOperation.brighten(30)).andThen(new RedGrayScale())};
+    for (IRowKernel kernel : kernels) {
+      IImage expected = ((ICommandTransformation) kernel).performTransformation(
+          new ImageImpl(image.getPixels()));
+      PackedImageTest.assertSamePixels(expected, RowEngine.apply(image, kernel));
+    }
+  }
+
+  @Test
+  public void testGrayResult() {
+    PackedImage image = randomImage(5, 4);
+    assertTrue(RowEngine.apply(image, new LumaGrayScale()) instanceof GrayImage);
+    assertTrue(RowEngine.apply(image, PointOperation.brighten(5)) instanceof PackedImage);
+    IImage gray = new LumaGrayScale().performTransformation(image);
+    assertTrue(RowEngine.apply(gray, new BlurImageFilter()) instanceof GrayImage);
+  }
+
+  @Test
+  public void testSpanOffset() {
+    int[] row = {0x102030, 0x405060, 0x708090, 0xA0B0C0};
+    int[] destination = new int[4];
+    PointOperation.brighten(1).computeSpan(new int[][]{row}, 4, destination, 1, 2);
+    assertArrayEquals(new int[]{0, 0x415161, 0x718191, 0}, destination);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKernel() {
+    RowEngine.apply(new PackedImage(2, 2), null);
+  }
+}
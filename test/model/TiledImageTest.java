@@ -0,0 +1,87 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the TiledImage class, an implementation of IImage that stores its pixels in 64 by 64
+ * tiles. The example is 150 by 70 pixels, so it has full tiles as well as cut tiles along the
+ * right and bottom edges. Each operation is compared against the same operation on an ImageImpl.
+ */
+public class TiledImageTest {
+
+  TiledImage tiledExample;
+  IImage implExample;
+  IImage maskExample;
+
+  /**
+   * Creates a random image as both a TiledImage and an ImageImpl, and a mask that is black only
+   * inside of a small rectangle.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    IPixel[][] pixels = new IPixel[70][150];
+    IPixel[][] mask = new IPixel[70][150];
+    for (int i = 0; i < 70; i++) {
+      for (int j = 0; j < 150; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+        boolean inside = i >= 60 && i < 68 && j >= 10 && j < 20;
+        mask[i][j] = inside ? new RGBPixel(0, 0, 0) : new RGBPixel(255, 255, 255);
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    tiledExample = new TiledImage(implExample);
+    maskExample = new ImageImpl(mask);
+  }
+
+  @Test
+  public void testTiles() {
+    assertEquals(3, tiledExample.tilesAcross());
+    assertEquals(2, tiledExample.tilesDown());
+    assertEquals(64 * 64, tiledExample.tile(0, 0).length);
+    assertEquals(22 * 6, tiledExample.tile(2, 1).length);
+    assertSamePixels(implExample, tiledExample);
+    assertEquals(implExample.getRGB(149, 69), tiledExample.getRGB(149, 69));
+    assertEquals(implExample.getRGB(64, 63), tiledExample.getRGB(64, 63));
+  }
+
+  @Test
+  public void testFilters() {
+    IImage blurred = tiledExample.filterImage(new BlurImageFilter());
+    assertTrue(blurred instanceof TiledImage);
+    assertSamePixels(implExample.filterImage(new BlurImageFilter()), blurred);
+    assertSamePixels(implExample.filterImage(new SharpenImageFilter()),
+        tiledExample.filterImage(new SharpenImageFilter()));
+  }
+
+  @Test
+  public void testOtherOperations() {
+    assertSamePixels(implExample.darkenBrightenImage(-35),
+        tiledExample.darkenBrightenImage(-35));
+    assertSamePixels(implExample.colorTransform(new SepiaColorTransform()),
+        tiledExample.colorTransform(new SepiaColorTransform()));
+    assertSamePixels(implExample.flipImageHorizontal(), tiledExample.flipImageHorizontal());
+    assertSamePixels(implExample.downScale(97, 41), tiledExample.downScale(97, 41));
+  }
+
+  @Test
+  public void testMaskImage() {
+    IImage masked = tiledExample.maskImage(maskExample, new SharpenImageFilter());
+    assertTrue(masked instanceof TiledImage);
+    assertSamePixels(implExample.maskImage(maskExample, new SharpenImageFilter()), masked);
+    assertSamePixels(implExample.maskImage(maskExample, new LumaGrayScale()),
+        tiledExample.maskImage(maskExample, new LumaGrayScale()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void maskWrongSize() {
+    tiledExample.maskImage(new ImageImpl(3, 3, new RGBPixel(0, 0, 0)), new BlurImageFilter());
+  }
+}
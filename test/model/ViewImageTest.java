@@ -0,0 +1,124 @@
+package model;
+
+import static model.PackedImageTest.assertSamePixels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ViewImage class, which remaps the coordinates of another raster image. Views are
+ * compared against the same operations on an ImageImpl and against the pixels they map to.
+ */
+public class ViewImageTest {
+
+  PackedImage packedExample;
+  IImage implExample;
+  IPixel[][] pixels;
+
+  /**
+   * Creates a random image as both a PackedImage and an ImageImpl.
+   */
+  @Before
+  public void init() {
+    Random random = new Random(3500);
+    pixels = new IPixel[9][14];
+    for (int i = 0; i < 9; i++) {
+      for (int j = 0; j < 14; j++) {
+        pixels[i][j] = new RGBPixel(random.nextInt(256), random.nextInt(256),
+            random.nextInt(256));
+      }
+    }
+    implExample = new ImageImpl(pixels);
+    packedExample = new PackedImage(pixels);
+  }
+
+  @Test
+  public void testFlipsAreViews() {
+    IImage horizontal = packedExample.flipImageHorizontal();
+    IImage vertical = packedExample.flipImageVertical();
+    assertTrue(horizontal instanceof ViewImage);
+    assertTrue(vertical instanceof ViewImage);
+    assertSamePixels(implExample.flipImageHorizontal(), horizontal);
+    assertSamePixels(implExample.flipImageVertical(), vertical);
+    assertSamePixels(implExample.flipImageHorizontal().flipImageVertical(),
+        horizontal.flipImageVertical());
+  }
+
+  @Test
+  public void testFlipTwiceIsIdentity() {
+    assertSame(packedExample, packedExample.flipImageHorizontal().flipImageHorizontal());
+    assertSame(packedExample, packedExample.flipImageVertical().flipImageVertical());
+    assertSame(packedExample, packedExample.flipImageHorizontal().flipImageVertical()
+        .flipImageHorizontal().flipImageVertical());
+    assertSame(packedExample, ((ARasterImage) packedExample.transpose()).transpose());
+  }
+
+  @Test
+  public void testCrop() {
+    IImage cropped = ((ARasterImage) packedExample.flipImageVertical()).crop(3, 2, 5, 4);
+    assertEquals(5, cropped.getImageWidth());
+    assertEquals(4, cropped.getImageHeight());
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 5; j++) {
+        IPixel expected = pixels[9 - 1 - (i + 2)][j + 3];
+        assertEquals(expected.redChannelPixel(), cropped.getPixels()[i][j].redChannelPixel());
+        assertEquals(expected.blueChannelPixel(), cropped.getPixels()[i][j].blueChannelPixel());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cropOutside() {
+    packedExample.crop(10, 0, 5, 2);
+  }
+
+  @Test
+  public void testTranspose() {
+    IImage transposed = ((ARasterImage) packedExample.flipImageHorizontal()).transpose();
+    assertEquals(9, transposed.getImageWidth());
+    assertEquals(14, transposed.getImageHeight());
+    for (int i = 0; i < 14; i++) {
+      for (int j = 0; j < 9; j++) {
+        assertEquals(pixels[j][14 - 1 - i].greenChannelPixel(),
+            transposed.getPixels()[i][j].greenChannelPixel());
+      }
+    }
+  }
+
+  @Test
+  public void testOperationsOnViews() {
+    IImage flipped = packedExample.flipImageHorizontal();
+    IImage implFlipped = implExample.flipImageHorizontal();
+    assertSamePixels(implFlipped.filterImage(new SharpenImageFilter()),
+        flipped.filterImage(new SharpenImageFilter()));
+    assertSamePixels(implFlipped.grayScaleImage(new LumaGrayScale()),
+        flipped.grayScaleImage(new LumaGrayScale()));
+    assertSamePixels(implFlipped.downScale(8, 5), flipped.downScale(8, 5));
+    IImage materialized = ((ViewImage) flipped).materialize();
+    assertTrue(materialized instanceof PackedImage);
+    assertSamePixels(implFlipped, materialized);
+
+    IImage gray = packedExample.grayScaleImage(new ValueGreyScale()).flipImageVertical();
+    assertTrue(gray.filterImage(new BlurImageFilter()) instanceof GrayImage);
+    assertSamePixels(implExample.grayScaleImage(new ValueGreyScale()).flipImageVertical()
+        .filterImage(new BlurImageFilter()), gray.filterImage(new BlurImageFilter()));
+  }
+
+  @Test
+  public void testModelKeepsSourcesOfViews() {
+    ImageProcessorModel model = new ImageProcessorModelImpl();
+    DirectImage direct = new DirectImage(implExample);
+    model.addImage("a", direct);
+    model.addImage("b", direct.flipImageHorizontal());
+    model.addImage("a", packedExample);
+    assertFalse(direct.isClosed());
+    assertSamePixels(implExample.flipImageHorizontal(), model.obtainImage("b"));
+    model.addImage("b", packedExample);
+    assertTrue(direct.isClosed());
+  }
+}
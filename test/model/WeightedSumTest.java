@@ -0,0 +1,52 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the fixed-point weighted sums behind luma and the color matrices against the same sums
+ * in doubles, for every color.
+ */
+public class WeightedSumTest {
+
+  /**
+   * Checks that a weighted sum rounds exactly like Math.round of the double sum for every color.
+   *
+   * @param weights the weights of the red, green and blue channels
+   */
+  private static void assertMatchesDoubles(double... weights) {
+    WeightedSum sum = new WeightedSum(weights[0], weights[1], weights[2]);
+    for (int r = 0; r < 256; r++) {
+      for (int g = 0; g < 256; g++) {
+        for (int b = 0; b < 256; b++) {
+          long expected = Math.round(weights[0] * r + weights[1] * g + weights[2] * b);
+          int actual = sum.apply(r, g, b);
+          if (actual != expected) {
+            assertEquals("r=" + r + " g=" + g + " b=" + b, expected, actual);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLuma() {
+    assertMatchesDoubles(0.2126, 0.7152, 0.0722);
+    assertEquals(54, WeightedSum.LUMA.apply(255, 0, 0));
+    assertEquals(new RGBPixel(12, 200, 99).lumaPixel(), WeightedSum.LUMA.apply(12, 200, 99));
+  }
+
+  @Test
+  public void testSepiaRows() {
+    assertMatchesDoubles(0.393, 0.769, 0.189);
+    assertMatchesDoubles(0.349, 0.686, 0.168);
+    assertMatchesDoubles(0.272, 0.534, 0.131);
+  }
+
+  @Test
+  public void testNegativeAndLargeWeights() {
+    assertMatchesDoubles(-0.5, 1.25, 0.3);
+    assertEquals(100 * 255, new WeightedSum(100, 0, 0).apply(255, 0, 0));
+  }
+}
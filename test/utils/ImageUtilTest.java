@@ -0,0 +1,75 @@
+package utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import model.DirectImage;
+import model.IImage;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests reading png files into images with ImageUtil, either as a whole or in bands of rows.
+ */
+public class ImageUtilTest {
+
+  int[] pixels;
+  File file;
+
+  /**
+   * Writes a random 10 by 7 image to a temporary png file.
+   */
+  @Before
+  public void init() throws IOException {
+    Random random = new Random(4100);
+    pixels = new int[10 * 7];
+    BufferedImage image = new BufferedImage(10, 7, BufferedImage.TYPE_INT_RGB);
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+      image.setRGB(i % 10, i / 10, pixels[i]);
+    }
+    file = File.createTempFile("image", ".png");
+    file.deleteOnExit();
+    ImageIO.write(image, "png", file);
+  }
+
+  /**
+   * Obtains the packed pixels of an image.
+   *
+   * @param image the image
+   * @return the pixels, row by row
+   */
+  private static int[] pixelsOf(IImage image) {
+    int[] actual = new int[image.getImageWidth() * image.getImageHeight()];
+    image.copyTo(actual);
+    return actual;
+  }
+
+  @Test
+  public void testReadWhole() {
+    IImage image = new ImageUtil().convertStringFileToPhoto(file.getPath());
+    assertEquals(10, image.getImageWidth());
+    assertEquals(7, image.getImageHeight());
+    assertArrayEquals(pixels, pixelsOf(image));
+  }
+
+  @Test
+  public void testReadBands() throws IOException {
+    for (int bandRows : new int[]{1, 3, 7}) {
+      try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+        ImageReader reader = ImageIO.getImageReaders(input).next();
+        reader.setInput(input);
+        DirectImage image = ImageUtil.readBands(reader, 10, 7, bandRows);
+        assertArrayEquals(pixels, pixelsOf(image));
+        reader.dispose();
+      }
+    }
+  }
+}